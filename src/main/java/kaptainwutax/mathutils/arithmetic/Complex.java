@@ -37,8 +37,8 @@ public class Complex {
     }
 
     public Complex invert() {
-        Real magnitude = this.magnitude();
-        return Complex.of(this.getReal().divide(magnitude), this.getImaginary().divide(magnitude).negate());
+        Real magnitudeSq = this.magnitudeSq();
+        return Complex.of(this.getReal().divide(magnitudeSq), this.getImaginary().divide(magnitudeSq).negate());
     }
 
     public Complex conjugate() {
@@ -0,0 +1,653 @@
+package kaptainwutax.mathutils.arithmetic;
+
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.vector.QVector;
+
+import java.util.Arrays;
+
+/**
+ * A polynomial in several variables over the rationals. Every monomial is packed into a single {@code long}, one
+ * fixed-width exponent field per variable with the first variable in the highest bits, and the terms live in an
+ * open-addressing hash table keyed by that packed monomial.
+ */
+public class MultiPolynomial {
+
+    private static final int MIN_CAPACITY = 8;
+
+    protected final Ring ring;
+    protected long[] monomials;
+    protected Rational[] coefficients;
+    protected int size;
+
+    protected MultiPolynomial(Ring ring, int expectedTerms) {
+        this.ring = ring;
+        int capacity = MIN_CAPACITY;
+        while(capacity < expectedTerms << 1)capacity <<= 1;
+        this.monomials = new long[capacity];
+        this.coefficients = new Rational[capacity];
+    }
+
+    public Ring getRing() {
+        return this.ring;
+    }
+
+    public int getTermCount() {
+        return this.size;
+    }
+
+    public boolean isZero() {
+        return this.size == 0;
+    }
+
+    private static int hash(long monomial) {
+        long h = monomial * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    private int indexOf(long monomial) {
+        int mask = this.monomials.length - 1;
+        int i = hash(monomial) & mask;
+
+        while(this.coefficients[i] != null && this.monomials[i] != monomial) {
+            i = (i + 1) & mask;
+        }
+
+        return i;
+    }
+
+    protected void accumulate(long monomial, Rational coefficient) {
+        if((this.size + 1) << 1 > this.monomials.length)this.rehash(this.monomials.length << 1);
+        int i = this.indexOf(monomial);
+
+        if(this.coefficients[i] == null) {
+            this.monomials[i] = monomial;
+            this.coefficients[i] = coefficient;
+            this.size++;
+        } else {
+            this.coefficients[i] = this.coefficients[i].add(coefficient);
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMonomials = this.monomials;
+        Rational[] oldCoefficients = this.coefficients;
+        this.monomials = new long[capacity];
+        this.coefficients = new Rational[capacity];
+        this.size = 0;
+
+        for(int i = 0; i < oldMonomials.length; i++) {
+            Rational c = oldCoefficients[i];
+            if(c == null || c.signum() == 0)continue;
+            int j = this.indexOf(oldMonomials[i]);
+            this.monomials[j] = oldMonomials[i];
+            this.coefficients[j] = c;
+            this.size++;
+        }
+    }
+
+    protected MultiPolynomial trim() {
+        for(int i = 0; i < this.coefficients.length; i++) {
+            if(this.coefficients[i] != null && this.coefficients[i].signum() == 0) {
+                int capacity = MIN_CAPACITY;
+                while(capacity < this.size << 1)capacity <<= 1;
+                this.rehash(capacity);
+                break;
+            }
+        }
+
+        return this;
+    }
+
+    public Rational getCoefficient(long monomial) {
+        Rational c = this.coefficients[this.indexOf(monomial)];
+        return c == null ? Rational.ZERO : c;
+    }
+
+    public Rational getCoefficient(int... exponents) {
+        return this.getCoefficient(this.ring.pack(exponents));
+    }
+
+    /**
+     * Returns the monomials of this polynomial sorted from the largest to the smallest in the ring's order.
+     */
+    public long[] getMonomials() {
+        Long[] sorted = new Long[this.size];
+
+        for(int i = 0, j = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] != null)sorted[j++] = this.monomials[i];
+        }
+
+        Arrays.sort(sorted, (a, b) -> this.ring.compare(b, a));
+        return Arrays.stream(sorted).mapToLong(Long::longValue).toArray();
+    }
+
+    public long getLeadingMonomial() {
+        if(this.size == 0) {
+            throw new IllegalStateException("Zero polynomial has no leading monomial");
+        }
+
+        long leading = 0L;
+        boolean found = false;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+
+            if(!found || this.ring.compare(this.monomials[i], leading) > 0) {
+                leading = this.monomials[i];
+                found = true;
+            }
+        }
+
+        return leading;
+    }
+
+    public Rational getLeadingCoefficient() {
+        return this.getCoefficient(this.getLeadingMonomial());
+    }
+
+    public int getTotalDegree() {
+        int degree = -1;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            degree = Math.max(degree, this.ring.getDegree(this.monomials[i]));
+        }
+
+        return degree;
+    }
+
+    public int getDegree(int variable) {
+        int degree = -1;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            degree = Math.max(degree, this.ring.getExponent(this.monomials[i], variable));
+        }
+
+        return degree;
+    }
+
+    protected void checkRing(MultiPolynomial other) {
+        if(this.ring != other.ring) {
+            throw new IllegalArgumentException("Polynomials belong to different rings");
+        }
+    }
+
+    public MultiPolynomial add(MultiPolynomial other) {
+        this.checkRing(other);
+        MultiPolynomial r = this.copy(this.size + other.size);
+
+        for(int i = 0; i < other.monomials.length; i++) {
+            if(other.coefficients[i] == null)continue;
+            r.accumulate(other.monomials[i], other.coefficients[i]);
+        }
+
+        return r.trim();
+    }
+
+    public MultiPolynomial subtract(MultiPolynomial other) {
+        return this.add(other.negate());
+    }
+
+    public MultiPolynomial negate() {
+        return this.multiply(Rational.ONE.negate());
+    }
+
+    public MultiPolynomial multiply(Rational scalar) {
+        if(scalar.signum() == 0)return this.ring.zero();
+        MultiPolynomial r = new MultiPolynomial(this.ring, this.size);
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            r.accumulate(this.monomials[i], this.coefficients[i].multiply(scalar));
+        }
+
+        return r;
+    }
+
+    /**
+     * Multiplies term by term. Multiplying monomials is a single addition of the packed words; the per-field carry
+     * check only runs when the operands' degrees could actually overflow an exponent field.
+     */
+    public MultiPolynomial multiply(MultiPolynomial other) {
+        this.checkRing(other);
+        MultiPolynomial r = new MultiPolynomial(this.ring, (int)Math.min((long)this.size * other.size, 1 << 20));
+        boolean checked = false;
+
+        for(int v = 0; v < this.ring.variables; v++) {
+            if((long)this.getDegree(v) + other.getDegree(v) > this.ring.fieldMask)checked = true;
+        }
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+
+            for(int j = 0; j < other.monomials.length; j++) {
+                if(other.coefficients[j] == null)continue;
+                long monomial = checked ? this.ring.multiply(this.monomials[i], other.monomials[j])
+                        : this.monomials[i] + other.monomials[j];
+                r.accumulate(monomial, this.coefficients[i].multiply(other.coefficients[j]));
+            }
+        }
+
+        return r.trim();
+    }
+
+    public MultiPolynomial pow(int exponent) {
+        if(exponent < 0) {
+            throw new IllegalArgumentException("Negative exponent " + exponent);
+        }
+
+        MultiPolynomial result = this.ring.one(), base = this;
+
+        while(exponent != 0) {
+            if((exponent & 1) != 0)result = result.multiply(base);
+            exponent >>>= 1;
+            if(exponent != 0)base = base.multiply(base);
+        }
+
+        return result;
+    }
+
+    private Rational[][] getPowers(Rational[] point) {
+        Rational[][] powers = new Rational[point.length][];
+
+        for(int v = 0; v < point.length; v++) {
+            if(point[v] == null)continue;
+            powers[v] = new Rational[Math.max(this.getDegree(v), 0) + 1];
+            powers[v][0] = Rational.ONE;
+
+            for(int e = 1; e < powers[v].length; e++) {
+                powers[v][e] = powers[v][e - 1].multiply(point[v]);
+            }
+        }
+
+        return powers;
+    }
+
+    public Rational evaluate(Rational... point) {
+        if(point.length != this.ring.variables) {
+            throw new IllegalArgumentException("Point has " + point.length + " coordinates, expected " + this.ring.variables);
+        }
+
+        Rational[][] powers = this.getPowers(point);
+        Rational result = Rational.ZERO;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            Rational term = this.coefficients[i];
+
+            for(int v = 0; v < point.length; v++) {
+                int e = this.ring.getExponent(this.monomials[i], v);
+                if(e != 0)term = term.multiply(powers[v][e]);
+            }
+
+            result = result.add(term);
+        }
+
+        return result;
+    }
+
+    public MultiPolynomial substitute(int variable, Rational value) {
+        Rational[] point = new Rational[this.ring.variables];
+        point[variable] = value;
+        Rational[] powers = this.getPowers(point)[variable];
+        MultiPolynomial r = new MultiPolynomial(this.ring, this.size);
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            int e = this.ring.getExponent(this.monomials[i], variable);
+            r.accumulate(this.ring.withExponent(this.monomials[i], variable, 0), this.coefficients[i].multiply(powers[e]));
+        }
+
+        return r.trim();
+    }
+
+    /**
+     * Replaces {@code variable} by another polynomial. The terms are grouped by their exponent of {@code variable}
+     * and combined with Horner's scheme, so only one power of {@code value} is ever kept.
+     */
+    public MultiPolynomial substitute(int variable, MultiPolynomial value) {
+        this.checkRing(value);
+        int degree = this.getDegree(variable);
+        if(degree < 0)return this.ring.zero();
+        MultiPolynomial[] groups = new MultiPolynomial[degree + 1];
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            int e = this.ring.getExponent(this.monomials[i], variable);
+            if(groups[e] == null)groups[e] = new MultiPolynomial(this.ring, 0);
+            groups[e].accumulate(this.ring.withExponent(this.monomials[i], variable, 0), this.coefficients[i]);
+        }
+
+        MultiPolynomial result = this.ring.zero();
+
+        for(int e = degree; e >= 0; e--) {
+            if(e != degree)result = result.multiply(value);
+            if(groups[e] != null)result = result.add(groups[e]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Substitutes {@code x_i -> bounds[i] * x_i}, the scaling applied to the shift polynomials of Coppersmith's
+     * method before their coefficient vectors go into the lattice.
+     */
+    public MultiPolynomial scaleVariables(Rational... bounds) {
+        if(bounds.length != this.ring.variables) {
+            throw new IllegalArgumentException("Expected " + this.ring.variables + " bounds");
+        }
+
+        Rational[][] powers = this.getPowers(bounds);
+        MultiPolynomial r = new MultiPolynomial(this.ring, this.size);
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            Rational c = this.coefficients[i];
+
+            for(int v = 0; v < bounds.length; v++) {
+                c = c.multiply(powers[v][this.ring.getExponent(this.monomials[i], v)]);
+            }
+
+            r.accumulate(this.monomials[i], c);
+        }
+
+        return r.trim();
+    }
+
+    public Polynomial toPolynomial(int variable) {
+        int degree = this.getDegree(variable);
+        Rational[] c = new Rational[Math.max(degree, 0) + 1];
+        Arrays.fill(c, Rational.ZERO);
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            int e = this.ring.getExponent(this.monomials[i], variable);
+
+            if(this.ring.withExponent(this.monomials[i], variable, 0) != 0L) {
+                throw new IllegalStateException("Polynomial depends on more than variable " + variable);
+            }
+
+            c[e] = this.coefficients[i];
+        }
+
+        return new Polynomial(c);
+    }
+
+    public MultiPolynomial copy() {
+        return this.copy(this.size);
+    }
+
+    protected MultiPolynomial copy(int expectedTerms) {
+        MultiPolynomial r = new MultiPolynomial(this.ring, expectedTerms);
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            r.accumulate(this.monomials[i], this.coefficients[i]);
+        }
+
+        return r;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            result += Long.hashCode(this.monomials[i]) ^ this.coefficients[i].reduce().hashCode();
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof MultiPolynomial))return false;
+        MultiPolynomial polynomial = (MultiPolynomial)other;
+        if(this.ring != polynomial.ring || this.size != polynomial.size)return false;
+
+        for(int i = 0; i < this.monomials.length; i++) {
+            if(this.coefficients[i] == null)continue;
+            if(this.coefficients[i].compareTo(polynomial.getCoefficient(this.monomials[i])) != 0)return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if(this.size == 0)return "0";
+        StringBuilder sb = new StringBuilder();
+        long[] monomials = this.getMonomials();
+
+        for(int i = 0; i < monomials.length; i++) {
+            Rational c = this.getCoefficient(monomials[i]);
+            int sign = c.signum();
+            c = c.multiply(sign);
+
+            if(i != 0) {
+                sb.append(sign == 1 ? " + " : " - ");
+            } else if(sign < 0) {
+                sb.append("-");
+            }
+
+            sb.append(c);
+
+            for(int v = 0; v < this.ring.variables; v++) {
+                int e = this.ring.getExponent(monomials[i], v);
+                if(e == 0)continue;
+                sb.append("x").append(v);
+                if(e != 1)sb.append("^").append(e);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public static class Ring {
+        private final int variables;
+        private final int bits;
+        private final Order order;
+        private final long fieldMask;
+        private final long carryMask;
+
+        public Ring(int variables, Order order) {
+            if(variables < 1 || variables > 64) {
+                throw new IllegalArgumentException("Rings support between 1 and 64 variables");
+            }
+
+            this.variables = variables;
+            this.bits = Math.min(64 / variables, 31);
+            this.order = order;
+            this.fieldMask = (1L << this.bits) - 1;
+            long carryMask = 0L;
+
+            for(int v = 0; v < variables - 1; v++) {
+                carryMask |= 1L << this.getShift(v);
+            }
+
+            this.carryMask = carryMask;
+        }
+
+        public int getVariableCount() {
+            return this.variables;
+        }
+
+        public int getExponentBits() {
+            return this.bits;
+        }
+
+        public Order getOrder() {
+            return this.order;
+        }
+
+        private int getShift(int variable) {
+            return 64 - (variable + 1) * this.bits;
+        }
+
+        public long pack(int... exponents) {
+            if(exponents.length != this.variables) {
+                throw new IllegalArgumentException("Expected " + this.variables + " exponents");
+            }
+
+            long monomial = 0L;
+
+            for(int v = 0; v < exponents.length; v++) {
+                if(exponents[v] < 0 || exponents[v] > this.fieldMask) {
+                    throw new ArithmeticException("Exponent " + exponents[v] + " does not fit in " + this.bits + " bits");
+                }
+
+                monomial |= (long)exponents[v] << this.getShift(v);
+            }
+
+            return monomial;
+        }
+
+        public int[] unpack(long monomial) {
+            int[] exponents = new int[this.variables];
+
+            for(int v = 0; v < exponents.length; v++) {
+                exponents[v] = this.getExponent(monomial, v);
+            }
+
+            return exponents;
+        }
+
+        public int getExponent(long monomial, int variable) {
+            return (int)((monomial >>> this.getShift(variable)) & this.fieldMask);
+        }
+
+        protected long withExponent(long monomial, int variable, int exponent) {
+            int shift = this.getShift(variable);
+            return (monomial & ~(this.fieldMask << shift)) | ((long)exponent << shift);
+        }
+
+        public int getDegree(long monomial) {
+            int degree = 0;
+
+            for(int v = 0; v < this.variables; v++) {
+                degree += this.getExponent(monomial, v);
+            }
+
+            return degree;
+        }
+
+        public int compare(long a, long b) {
+            return this.order.compare(this, a, b);
+        }
+
+        /**
+         * Multiplies two packed monomials, throwing if any exponent field carries into its neighbour.
+         */
+        public long multiply(long a, long b) {
+            long sum = a + b;
+
+            if(((sum ^ a ^ b) & this.carryMask) != 0 || Long.compareUnsigned(sum, a) < 0) {
+                throw new ArithmeticException("Exponent overflow in a " + this.bits + " bit field");
+            }
+
+            return sum;
+        }
+
+        public MultiPolynomial zero() {
+            return new MultiPolynomial(this, 0);
+        }
+
+        public MultiPolynomial one() {
+            return this.constant(Rational.ONE);
+        }
+
+        public MultiPolynomial constant(Rational value) {
+            return this.monomial(value, 0L);
+        }
+
+        public MultiPolynomial variable(int variable) {
+            return this.monomial(Rational.ONE, 1L << this.getShift(variable));
+        }
+
+        public MultiPolynomial monomial(Rational coefficient, int... exponents) {
+            return this.monomial(coefficient, this.pack(exponents));
+        }
+
+        public MultiPolynomial monomial(Rational coefficient, long monomial) {
+            MultiPolynomial r = new MultiPolynomial(this, 1);
+            if(coefficient.signum() != 0)r.accumulate(monomial, coefficient);
+            return r;
+        }
+
+        /**
+         * Collects every monomial appearing in the given polynomials, sorted from the smallest to the largest.
+         */
+        public long[] getMonomials(MultiPolynomial... polynomials) {
+            MultiPolynomial union = new MultiPolynomial(this, 0);
+
+            for(MultiPolynomial polynomial : polynomials) {
+                for(int i = 0; i < polynomial.monomials.length; i++) {
+                    if(polynomial.coefficients[i] == null)continue;
+                    union.accumulate(polynomial.monomials[i], Rational.ONE);
+                }
+            }
+
+            long[] monomials = union.getMonomials();
+
+            for(int i = 0, j = monomials.length - 1; i < j; i++, j--) {
+                long t = monomials[i]; monomials[i] = monomials[j]; monomials[j] = t;
+            }
+
+            return monomials;
+        }
+
+        /**
+         * Writes the coefficient vectors of the polynomials as the rows of a lattice basis, one column per
+         * monomial sorted from the smallest to the largest, which keeps the usual Coppersmith shift polynomials
+         * lower triangular.
+         */
+        public QMatrix toMatrix(MultiPolynomial... polynomials) {
+            return this.toMatrix(this.getMonomials(polynomials), polynomials);
+        }
+
+        public QMatrix toMatrix(long[] monomials, MultiPolynomial... polynomials) {
+            return new QMatrix(polynomials.length, monomials.length,
+                    (row, column) -> polynomials[row].getCoefficient(monomials[column]));
+        }
+
+        public MultiPolynomial fromVector(QVector vector, long[] monomials) {
+            MultiPolynomial r = new MultiPolynomial(this, monomials.length);
+
+            for(int i = 0; i < monomials.length; i++) {
+                if(vector.get(i).signum() != 0)r.accumulate(monomials[i], vector.get(i));
+            }
+
+            return r.trim();
+        }
+    }
+
+    public enum Order {
+        LEX {
+            @Override
+            public int compare(Ring ring, long a, long b) {
+                return Long.compareUnsigned(a, b);
+            }
+        },
+
+        GREVLEX {
+            @Override
+            public int compare(Ring ring, long a, long b) {
+                int degreeA = ring.getDegree(a), degreeB = ring.getDegree(b);
+                if(degreeA != degreeB)return Integer.compare(degreeA, degreeB);
+
+                for(int v = ring.getVariableCount() - 1; v >= 0; v--) {
+                    int ea = ring.getExponent(a, v), eb = ring.getExponent(b, v);
+                    if(ea != eb)return Integer.compare(eb, ea);
+                }
+
+                return 0;
+            }
+        };
+
+        public abstract int compare(Ring ring, long a, long b);
+    }
+
+}
@@ -1,9 +1,18 @@
 package kaptainwutax.mathutils.arithmetic;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 
 public class Polynomial {
 
+	public static final Polynomial ZERO = new Polynomial(Rational.ZERO, 0);
+	public static final Polynomial ONE = new Polynomial(Rational.ONE, 0);
+
+	public static final int KRONECKER_THRESHOLD = 16;
+	public static final int NEWTON_DIVISION_THRESHOLD = 32;
+	public static final int SPARSE_FILL_DIVISOR = 8;
+	public static final int SPARSE_MIN_DEGREE = 64;
+
 	protected final Rational[] coefficients;
 	protected int degree = -1;
 
@@ -16,11 +25,47 @@ public class Polynomial {
 
 	public Polynomial(Rational coefficient, int exponent) {
 		this.coefficients = new Rational[exponent + 1];
+		Arrays.fill(this.coefficients, Rational.ZERO);
 		this.coefficients[exponent] = coefficient;
-		this.degree = exponent;
+		this.degree = coefficient.signum() == 0 ? -1 : exponent;
+	}
+
+	public static Polynomial monomial(Rational coefficient, int exponent) {
+		return of(new int[] {exponent}, new Rational[] {coefficient});
+	}
+
+	/**
+	 * Builds a polynomial from its terms, merging repeated exponents. The representation is picked from the fill
+	 * ratio, so something like {@code x^(2^20) - c} never allocates its zero coefficients.
+	 */
+	public static Polynomial of(int[] exponents, Rational[] coefficients) {
+		Integer[] order = new Integer[exponents.length];
+		for(int i = 0; i < order.length; i++)order[i] = i;
+		Arrays.sort(order, (a, b) -> Integer.compare(exponents[a], exponents[b]));
+
+		int[] e = new int[exponents.length];
+		Rational[] c = new Rational[exponents.length];
+		int size = 0;
+
+		for(int i = 0; i < order.length; i++) {
+			int exponent = exponents[order[i]];
+
+			if(exponent < 0) {
+				throw new IllegalArgumentException("Negative exponent " + exponent);
+			} else if(size != 0 && e[size - 1] == exponent) {
+				c[size - 1] = c[size - 1].add(coefficients[order[i]]);
+			} else {
+				e[size] = exponent;
+				c[size++] = coefficients[order[i]];
+			}
+		}
+
+		return Sparse.compact(e, c, size).fit();
 	}
 
 	protected void computeDegree() {
+		this.degree = -1;
+
 		for(int i = this.coefficients.length - 1; i >= 0; i--) {
 			if(this.coefficients[i].signum() != 0) {
 				this.degree = i;
@@ -34,13 +79,56 @@ public class Polynomial {
 	}
 
 	public Rational getCoefficient(int exponent) {
-		return this.coefficients[exponent];
+		return exponent <= this.degree ? this.coefficients[exponent] : Rational.ZERO;
 	}
 
 	public Rational[] getCoefficients() {
 		return Arrays.copyOf(this.coefficients, this.coefficients.length);
 	}
 
+	public int getTermCount() {
+		int count = 0;
+
+		for(int i = 0; i <= this.degree; i++) {
+			if(this.coefficients[i].signum() != 0)count++;
+		}
+
+		return count;
+	}
+
+	public boolean isSparse() {
+		return false;
+	}
+
+	protected Rational[] dense() {
+		return this.coefficients;
+	}
+
+	public Polynomial toDense() {
+		return this;
+	}
+
+	public Polynomial.Sparse toSparse() {
+		int[] exponents = new int[this.getTermCount()];
+		Rational[] values = new Rational[exponents.length];
+
+		for(int i = 0, j = 0; i <= this.degree; i++) {
+			if(this.coefficients[i].signum() == 0)continue;
+			exponents[j] = i;
+			values[j++] = this.coefficients[i];
+		}
+
+		return new Polynomial.Sparse(exponents, values);
+	}
+
+	/**
+	 * Switches to whichever of the dense and sparse representations suits the current fill ratio.
+	 */
+	protected Polynomial fit() {
+		if(this.degree < SPARSE_MIN_DEGREE)return this;
+		return this.getTermCount() * SPARSE_FILL_DIVISOR < this.degree + 1 ? this.toSparse() : this;
+	}
+
 	public Rational evaluate(Rational point) {
 		Rational result = Rational.ZERO;
 
@@ -53,21 +141,100 @@ public class Polynomial {
 
 	public Polynomial differentiate() {
 		if(this.derivative != null)return this.derivative;
-		if(this.degree <= 0)return new Polynomial(Rational.ZERO, 0);
+		return this.derivative = this.differentiate(1);
+	}
+
+	/**
+	 * Computes the {@code k}-th derivative in a single pass, scaling each coefficient by the falling factorial
+	 * {@code e! / (e - k)!} which is updated incrementally from one exponent to the next.
+	 */
+	public Polynomial differentiate(int k) {
+		if(k < 0) {
+			throw new IllegalArgumentException("Negative derivative order " + k);
+		} else if(k == 0) {
+			return this;
+		} else if(this.degree < k) {
+			return ZERO;
+		}
 
-		Polynomial r = new Polynomial(Rational.ZERO, this.degree - 1);
+		Polynomial r = new Polynomial(Rational.ZERO, this.degree - k);
+		BigInteger falling = getFactorials(k)[k];
 
-		for(int e = 1; e < this.degree; e++) {
-			r.coefficients[e - 1] =  this.coefficients[e].multiply(e);
+		for(int e = k; e <= this.degree; e++) {
+			if(e != k)falling = falling.multiply(BigInteger.valueOf(e)).divide(BigInteger.valueOf(e - k));
+			r.coefficients[e - k] = this.coefficients[e].multiply(falling);
 		}
 
-		return this.derivative = r;
+		r.computeDegree();
+		return r;
+	}
+
+	/**
+	 * Computes {@code p(x + a)}. Small polynomials use repeated synthetic division. Larger ones use the convolution
+	 * {@code b_k * k! = sum c_i * i! * a^(i - k) / (i - k)!}, carried out over the integers after multiplying
+	 * through by {@code n!}, the denominators of {@code p} and a power of the denominator of {@code a}, so the
+	 * whole shift costs one fast multiplication.
+	 */
+	public Polynomial taylorShift(Rational a) {
+		if(this.degree <= 0 || a.signum() == 0)return this;
+		int n = this.degree;
+		Rational[] c = this.dense();
+
+		if(n < KRONECKER_THRESHOLD) {
+			Rational[] b = Arrays.copyOf(c, n + 1);
+
+			for(int i = 0; i < n; i++) {
+				for(int j = n - 1; j >= i; j--) {
+					b[j] = b[j].add(a.multiply(b[j + 1]));
+				}
+			}
+
+			return new Polynomial(b);
+		}
+
+		BigInteger[] factorials = getFactorials(n);
+		BigInteger d = getDenominatorLcm(c, n + 1);
+		BigInteger[] numerators = toIntegers(c, n + 1, d);
+		BigInteger p = a.getNumerator(), q = a.getDenominator();
+		BigInteger[] u = new BigInteger[n + 1], v = new BigInteger[n + 1];
+		BigInteger power = BigInteger.ONE;
+
+		for(int i = 0; i <= n; i++) {
+			u[n - i] = numerators[i].multiply(factorials[i]);
+		}
+
+		for(int j = n; j >= 0; j--) {
+			v[j] = factorials[n].divide(factorials[j]).multiply(p.pow(j)).multiply(power);
+			power = power.multiply(q);
+		}
+
+		BigInteger[] w = kronecker(u, n + 1, v, n + 1);
+		BigInteger denominator = factorials[n].multiply(d).multiply(q.pow(n));
+		Rational[] r = new Rational[n + 1];
+
+		for(int k = 0; k <= n; k++) {
+			r[k] = Rational.of(w[n - k], denominator.multiply(factorials[k]));
+		}
+
+		return new Polynomial(r);
+	}
+
+	private static BigInteger[] getFactorials(int n) {
+		BigInteger[] factorials = new BigInteger[n + 1];
+		factorials[0] = BigInteger.ONE;
+
+		for(int i = 1; i <= n; i++) {
+			factorials[i] = factorials[i - 1].multiply(BigInteger.valueOf(i));
+		}
+
+		return factorials;
 	}
 
 	public Polynomial add(Polynomial other) {
-		Polynomial r = new Polynomial(Rational.ZERO, Math.max(this.degree, other.degree));
+		if(other.isSparse())return other.add(this);
+		Polynomial r = new Polynomial(Rational.ZERO, Math.max(Math.max(this.degree, other.degree), 0));
 
-		for (int i = 0; i <= r.degree; i++) {
+		for (int i = 0; i <= Math.max(this.degree, other.degree); i++) {
 			if(i <= this.degree) {
 				r.coefficients[i] = this.coefficients[i];
 			}
@@ -77,11 +244,38 @@ public class Polynomial {
 			}
 		}
 
+		r.computeDegree();
+		return r.fit();
+	}
+
+	public Polynomial subtract(Polynomial other) {
+		return this.add(other.negate());
+	}
+
+	public Polynomial negate() {
+		return this.multiply(Rational.ONE.negate());
+	}
+
+	public Polynomial multiply(Rational scalar) {
+		if(this.degree < 0 || scalar.signum() == 0)return ZERO;
+		Polynomial r = new Polynomial(Rational.ZERO, this.degree);
+
+		for(int i = 0; i <= this.degree; i++) {
+			r.coefficients[i] = this.coefficients[i].multiply(scalar);
+		}
+
 		r.computeDegree();
 		return r;
 	}
 
 	public Polynomial multiply(Polynomial other) {
+		if(this.degree < 0 || other.degree < 0)return ZERO;
+		if(other.isSparse())return other.multiply(this);
+
+		if(Math.min(this.degree, other.degree) >= KRONECKER_THRESHOLD) {
+			return new Polynomial(kronecker(this.coefficients, this.degree + 1, other.coefficients, other.degree + 1)).fit();
+		}
+
 		Polynomial r = new Polynomial(Rational.ZERO, this.degree + other.degree);
 
 		for(int i = 0; i <= this.degree; i++) {
@@ -91,23 +285,411 @@ public class Polynomial {
 		}
 
 		r.computeDegree();
+		return r.fit();
+	}
+
+	/**
+	 * Multiplies two coefficient arrays through Kronecker substitution. Both operands are scaled to integers, packed
+	 * into a single {@link BigInteger} each and multiplied once, which lets {@link BigInteger#multiply(BigInteger)}
+	 * pick its sub-quadratic algorithms. The signed coefficients are then unpacked from the product.
+	 */
+	protected static Rational[] kronecker(Rational[] a, int n, Rational[] b, int m) {
+		BigInteger da = getDenominatorLcm(a, n), db = getDenominatorLcm(b, m);
+		BigInteger[] z = kronecker(toIntegers(a, n, da), n, toIntegers(b, m, db), m);
+		BigInteger d = da.multiply(db);
+		Rational[] r = new Rational[z.length];
+
+		for(int i = 0; i < z.length; i++) {
+			r[i] = Rational.of(z[i], d);
+		}
+
 		return r;
 	}
 
+	protected static BigInteger[] kronecker(BigInteger[] x, int n, BigInteger[] y, int m) {
+		int bx = 0, by = 0;
+		for(int i = 0; i < n; i++)bx = Math.max(bx, x[i].bitLength());
+		for(int i = 0; i < m; i++)by = Math.max(by, y[i].bitLength());
+
+		int bits = bx + by + 32 - Integer.numberOfLeadingZeros(Math.min(n, m)) + 1;
+		int width = (bits + 7) >>> 3;
+		BigInteger product = pack(x, n, width).multiply(pack(y, m, width));
+		return unpack(product, width, n + m - 1);
+	}
+
+	private static BigInteger getDenominatorLcm(Rational[] values, int length) {
+		BigInteger lcm = BigInteger.ONE;
+
+		for(int i = 0; i < length; i++) {
+			BigInteger d = values[i].getDenominator();
+			if(d.equals(BigInteger.ONE))continue;
+			lcm = lcm.divide(lcm.gcd(d)).multiply(d);
+		}
+
+		return lcm;
+	}
+
+	private static BigInteger[] toIntegers(Rational[] values, int length, BigInteger denominator) {
+		BigInteger[] r = new BigInteger[length];
+
+		for(int i = 0; i < length; i++) {
+			r[i] = values[i].getNumerator().multiply(denominator.divide(values[i].getDenominator()));
+		}
+
+		return r;
+	}
+
+	private static BigInteger pack(BigInteger[] values, int length, int width) {
+		byte[] positive = new byte[length * width];
+		byte[] negative = new byte[length * width];
+
+		for(int i = 0; i < length; i++) {
+			if(values[i].signum() == 0)continue;
+			byte[] bytes = values[i].abs().toByteArray();
+			byte[] target = values[i].signum() > 0 ? positive : negative;
+			int end = target.length - i * width;
+			System.arraycopy(bytes, 0, target, end - bytes.length, bytes.length);
+		}
+
+		return new BigInteger(1, positive).subtract(new BigInteger(1, negative));
+	}
+
+	private static BigInteger[] unpack(BigInteger packed, int width, int count) {
+		byte[] bytes = packed.toByteArray();
+		byte sign = packed.signum() < 0 ? (byte)-1 : 0;
+		BigInteger modulus = BigInteger.ONE.shiftLeft(width << 3);
+		BigInteger half = modulus.shiftRight(1);
+		BigInteger[] values = new BigInteger[count];
+		byte[] field = new byte[width];
+		boolean carry = false;
+
+		for(int i = 0; i < count; i++) {
+			int end = bytes.length - i * width;
+
+			for(int j = 0; j < width; j++) {
+				int index = end - width + j;
+				field[j] = index >= 0 ? bytes[index] : sign;
+			}
+
+			BigInteger value = new BigInteger(1, field);
+			if(carry)value = value.add(BigInteger.ONE);
+			carry = value.compareTo(half) >= 0;
+			values[i] = carry ? value.subtract(modulus) : value;
+		}
+
+		return values;
+	}
+
 	public Polynomial compose(Polynomial other) {
 		Polynomial r = new Polynomial(Rational.ZERO, 0);
 
 		for(int i = this.degree; i >= 0; i--) {
-			Polynomial t = new Polynomial(this.coefficients[i], 0);
+			Polynomial t = new Polynomial(this.getCoefficient(i), 0);
 			r = t.add(other.multiply(r));
 		}
 
 		return r;
 	}
 
+	public Polynomial truncate(int length) {
+		if(length <= 0 || this.degree < 0)return ZERO;
+		if(this.degree < length)return this;
+		return new Polynomial(Arrays.copyOf(this.coefficients, length));
+	}
+
+	public Polynomial reverse(int degree) {
+		if(degree < this.degree) {
+			throw new IllegalArgumentException("Reversing with a degree lower than the polynomial's");
+		}
+
+		if(degree < 0)return ZERO;
+		Polynomial r = new Polynomial(Rational.ZERO, degree);
+
+		for(int i = 0; i <= this.degree; i++) {
+			r.coefficients[degree - i] = this.coefficients[i];
+		}
+
+		r.computeDegree();
+		return r;
+	}
+
+	public Polynomial shift(int exponent) {
+		if(this.degree < 0)return ZERO;
+		if(exponent < 0)return this.shiftDown(-exponent);
+		Polynomial r = new Polynomial(Rational.ZERO, this.degree + exponent);
+		System.arraycopy(this.coefficients, 0, r.coefficients, exponent, this.degree + 1);
+		r.degree = this.degree + exponent;
+		return r;
+	}
+
+	private Polynomial shiftDown(int exponent) {
+		if(this.degree < exponent)return ZERO;
+		return new Polynomial(Arrays.copyOfRange(this.coefficients, exponent, this.degree + 1));
+	}
+
+	public Polynomial integrate() {
+		if(this.degree < 0)return ZERO;
+		Polynomial r = new Polynomial(Rational.ZERO, this.degree + 1);
+
+		for(int e = 0; e <= this.degree; e++) {
+			r.coefficients[e + 1] = this.coefficients[e].divide(e + 1);
+		}
+
+		r.computeDegree();
+		return r;
+	}
+
+	/**
+	 * Computes the power series inverse {@code g} such that {@code f * g = 1 mod x^precision}. Each Newton step
+	 * {@code g = g * (2 - f * g)} doubles the number of correct coefficients, so the total cost is a constant number
+	 * of multiplications at full precision.
+	 */
+	public Polynomial inverse(int precision) {
+		if(this.degree < 0 || this.getCoefficient(0).signum() == 0) {
+			throw new ArithmeticException("Power series has no inverse");
+		} else if(precision <= 0) {
+			return ZERO;
+		}
+
+		int length = Math.min(this.degree + 1, precision);
+		Rational[] truncated = this.truncate(length).dense();
+		Rational[] coefficients = Arrays.copyOf(truncated, length);
+		Arrays.fill(coefficients, Math.min(truncated.length, length), length, Rational.ZERO);
+		BigInteger d = getDenominatorLcm(coefficients, length);
+		BigInteger[] f = toIntegers(coefficients, length, d);
+		BigInteger[] h = inverse(f, length, precision);
+		BigInteger denominator = f[0].pow(precision);
+		Rational[] r = new Rational[precision];
+
+		for(int i = 0; i < precision; i++) {
+			r[i] = Rational.of(h[i].multiply(d), denominator);
+		}
+
+		return new Polynomial(r);
+	}
+
+	/**
+	 * Newton inversion over the integers. The inverse of an integer series with constant term {@code L} has
+	 * {@code L^(k + 1)} as the denominator of its {@code k}-th coefficient, so the numerators over {@code L^precision}
+	 * are returned and every intermediate division is exact. This keeps gcds out of the iteration entirely.
+	 */
+	private static BigInteger[] inverse(BigInteger[] f, int length, int precision) {
+		BigInteger lead = f[0];
+		BigInteger[] h = {BigInteger.ONE};
+		BigInteger d = lead;
+
+		for(int n = 1; n < precision; ) {
+			int next = Math.min(n << 1, precision);
+			BigInteger[] t = kronecker(f, Math.min(length, next), h, h.length);
+			t = Arrays.copyOf(t, next);
+
+			for(int i = 0; i < next; i++) {
+				t[i] = t[i] == null ? BigInteger.ZERO : t[i].negate();
+			}
+
+			t[0] = t[0].add(d.shiftLeft(1));
+			t = Arrays.copyOf(kronecker(h, h.length, t, next), next);
+			BigInteger excess = lead.pow((n << 1) - next);
+
+			for(int i = 0; i < next; i++) {
+				t[i] = t[i] == null ? BigInteger.ZERO : t[i].divide(excess);
+			}
+
+			h = t;
+			d = lead.pow(next);
+			n = next;
+		}
+
+		return h;
+	}
+
+	public Polynomial log(int precision) {
+		if(this.degree < 0 || !this.getCoefficient(0).equals(Rational.ONE)) {
+			throw new ArithmeticException("Power series logarithm requires a constant term of 1");
+		}
+
+		if(precision <= 1)return ZERO;
+		Polynomial quotient = this.truncate(precision).differentiate().multiply(this.inverse(precision - 1));
+		return quotient.truncate(precision - 1).integrate();
+	}
+
+	public Polynomial exp(int precision) {
+		if(this.getCoefficient(0).signum() != 0) {
+			throw new ArithmeticException("Power series exponential requires a constant term of 0");
+		}
+
+		if(precision <= 0)return ZERO;
+		Polynomial g = ONE;
+
+		for(int n = 1; n < precision; ) {
+			n = Math.min(n << 1, precision);
+			Polynomial t = this.truncate(n).subtract(g.log(n)).add(ONE);
+			g = g.multiply(t).truncate(n);
+		}
+
+		return g;
+	}
+
+	public Polynomial sqrt(int precision) {
+		if(this.degree < 0 || precision <= 0)return ZERO;
+		int valuation = 0;
+		while(this.getCoefficient(valuation).signum() == 0)valuation++;
+
+		if((valuation & 1) != 0) {
+			throw new ArithmeticException("Power series has no square root");
+		} else if(valuation != 0) {
+			return this.shift(-valuation).sqrt(precision - (valuation >> 1)).shift(valuation >> 1);
+		}
+
+		Rational c = this.getCoefficient(0);
+		BigInteger gcd = c.getNumerator().gcd(c.getDenominator());
+		BigInteger numerator = c.getNumerator().divide(gcd), denominator = c.getDenominator().divide(gcd);
+		BigInteger a = numerator.abs().sqrt(), b = denominator.sqrt();
+
+		if(c.signum() < 0 || !a.multiply(a).equals(numerator) || !b.multiply(b).equals(denominator)) {
+			throw new ArithmeticException("Constant term is not the square of a rational");
+		}
+
+		Polynomial g = new Polynomial(Rational.of(a, b), 0);
+
+		for(int n = 1; n < precision; ) {
+			n = Math.min(n << 1, precision);
+			Polynomial t = this.truncate(n).multiply(g.inverse(n)).truncate(n);
+			g = g.add(t).multiply(Rational.HALF);
+		}
+
+		return g;
+	}
+
+	public Polynomial divide(Polynomial divisor) {
+		return this.divideAndRemainder(divisor)[0];
+	}
+
+	public Polynomial mod(Polynomial divisor) {
+		return this.divideAndRemainder(divisor)[1];
+	}
+
+	/**
+	 * Divides this polynomial by {@code divisor}, returning the quotient and the remainder in that order. Large
+	 * divisions reverse both operands and multiply by a Newton power series inverse, which costs a constant number
+	 * of multiplications instead of the quadratic long division.
+	 */
+	public Polynomial[] divideAndRemainder(Polynomial divisor) {
+		if(divisor.degree < 0) {
+			throw new ArithmeticException("/ by zero");
+		} else if(this.degree < divisor.degree) {
+			return new Polynomial[] {ZERO, this};
+		}
+
+		int m = this.degree - divisor.degree;
+
+		if(Math.min(m, divisor.degree) < NEWTON_DIVISION_THRESHOLD) {
+			return this.longDivide(divisor);
+		}
+
+		int k = divisor.degree;
+		Rational[] dividend = this.dense(), coefficients = divisor.dense();
+		BigInteger da = getDenominatorLcm(dividend, this.degree + 1);
+		BigInteger db = getDenominatorLcm(coefficients, k + 1);
+		BigInteger[] a = toIntegers(dividend, this.degree + 1, da);
+		BigInteger[] b = toIntegers(coefficients, k + 1, db);
+		BigInteger[] ra = new BigInteger[m + 1], rb = new BigInteger[k + 1];
+		for(int i = 0; i <= m; i++)ra[i] = a[this.degree - i];
+		for(int i = 0; i <= k; i++)rb[i] = b[k - i];
+
+		BigInteger[] h = inverse(rb, k + 1, m + 1);
+		BigInteger[] p = kronecker(ra, m + 1, h, m + 1);
+		BigInteger[] q = new BigInteger[m + 1];
+		for(int i = 0; i <= m; i++)q[i] = p[m - i];
+
+		BigInteger scale = b[k].pow(m + 1);
+		BigInteger denominator = da.multiply(scale);
+		BigInteger[] bq = kronecker(b, k + 1, q, m + 1);
+		Rational[] quotient = new Rational[m + 1];
+		Rational[] remainder = new Rational[k];
+
+		for(int i = 0; i <= m; i++) {
+			quotient[i] = Rational.of(q[i].multiply(db), denominator);
+		}
+
+		for(int i = 0; i < k; i++) {
+			remainder[i] = Rational.of(a[i].multiply(scale).subtract(bq[i]), denominator);
+		}
+
+		return new Polynomial[] {new Polynomial(quotient), new Polynomial(remainder)};
+	}
+
+	protected Polynomial[] longDivide(Polynomial divisor) {
+		int m = this.degree - divisor.degree;
+		Rational[] remainder = Arrays.copyOf(this.dense(), this.degree + 1);
+		Rational[] quotient = new Rational[m + 1];
+		Rational[] coefficients = divisor.dense();
+		Rational lead = coefficients[divisor.degree].invert();
+
+		for(int i = m; i >= 0; i--) {
+			Rational c = remainder[i + divisor.degree].multiply(lead);
+			quotient[i] = c;
+			if(c.signum() == 0)continue;
+
+			for(int j = 0; j <= divisor.degree; j++) {
+				remainder[i + j] = remainder[i + j].subtract(c.multiply(coefficients[j]));
+			}
+		}
+
+		Polynomial r = divisor.degree == 0 ? ZERO : new Polynomial(Arrays.copyOf(remainder, divisor.degree));
+		return new Polynomial[] {new Polynomial(quotient), r};
+	}
+
+	/**
+	 * Evaluates this polynomial at every point. The points are split into a subproduct tree of linear factors and
+	 * this polynomial is reduced down the tree with fast division, so each leaf only holds a constant.
+	 */
+	public Rational[] evaluateAll(Rational... points) {
+		Rational[] values = new Rational[points.length];
+		if(points.length == 0)return values;
+		Polynomial[] tree = new Polynomial[points.length << 2];
+		buildSubproductTree(tree, 1, 0, points.length, points);
+		this.evaluateDown(tree, 1, 0, points.length, points, values);
+		return values;
+	}
+
+	private static Polynomial buildSubproductTree(Polynomial[] tree, int node, int from, int to, Rational[] points) {
+		if(to - from == 1) {
+			return tree[node] = new Polynomial(points[from].negate(), Rational.ONE);
+		}
+
+		int middle = (from + to) >>> 1;
+		Polynomial left = buildSubproductTree(tree, node << 1, from, middle, points);
+		Polynomial right = buildSubproductTree(tree, (node << 1) | 1, middle, to, points);
+		return tree[node] = left.multiply(right);
+	}
+
+	private void evaluateDown(Polynomial[] tree, int node, int from, int to, Rational[] points, Rational[] values) {
+		Polynomial p = this.degree < tree[node].degree ? this : this.mod(tree[node]);
+
+		if(to - from <= 8) {
+			for(int i = from; i < to; i++) {
+				values[i] = p.evaluate(points[i]);
+			}
+
+			return;
+		}
+
+		int middle = (from + to) >>> 1;
+		p.evaluateDown(tree, node << 1, from, middle, points, values);
+		p.evaluateDown(tree, (node << 1) | 1, middle, to, points, values);
+	}
+
 	@Override
 	public int hashCode() {
-		return 31 * this.degree + Arrays.hashCode(this.coefficients);
+		int result = this.degree;
+
+		for(int i = 0; i <= this.degree; i++) {
+			if(this.coefficients[i].signum() == 0)continue;
+			result = 31 * (31 * result + i) + this.coefficients[i].hashCode();
+		}
+
+		return result;
 	}
 
 	@Override
@@ -117,7 +699,7 @@ public class Polynomial {
 		Polynomial polynomial = (Polynomial)other;
 		if(this.degree != polynomial.degree)return false;
 
-		for(int i = 0; i < this.getDegree(); i++) {
+		for(int i = 0; i <= this.getDegree(); i++) {
 			if(this.getCoefficient(i).compareTo(polynomial.getCoefficient(i)) != 0)return false;
 		}
 
@@ -139,6 +721,8 @@ public class Polynomial {
 
 			if(i != this.degree) {
 				sb.append(sign == 1 ? " + " : " - ");
+			} else if(sign < 0) {
+				sb.append("-");
 			}
 
 			sb.append(c);
@@ -152,4 +736,343 @@ public class Polynomial {
 		return sb.toString();
 	}
 
+	public static class Sparse extends Polynomial {
+		protected final int[] exponents;
+		protected final Rational[] values;
+
+		protected Sparse(int[] exponents, Rational[] values) {
+			super();
+			this.exponents = exponents;
+			this.values = values;
+			this.degree = exponents.length == 0 ? -1 : exponents[exponents.length - 1];
+		}
+
+		protected static Sparse compact(int[] exponents, Rational[] values, int size) {
+			int count = 0;
+
+			for(int i = 0; i < size; i++) {
+				if(values[i].signum() == 0)continue;
+				exponents[count] = exponents[i];
+				values[count++] = values[i];
+			}
+
+			return new Sparse(Arrays.copyOf(exponents, count), Arrays.copyOf(values, count));
+		}
+
+		public int[] getExponents() {
+			return Arrays.copyOf(this.exponents, this.exponents.length);
+		}
+
+		@Override
+		public Rational getCoefficient(int exponent) {
+			int index = Arrays.binarySearch(this.exponents, exponent);
+			return index >= 0 ? this.values[index] : Rational.ZERO;
+		}
+
+		@Override
+		public Rational[] getCoefficients() {
+			return this.dense();
+		}
+
+		@Override
+		public int getTermCount() {
+			return this.exponents.length;
+		}
+
+		@Override
+		public boolean isSparse() {
+			return true;
+		}
+
+		@Override
+		protected Rational[] dense() {
+			Rational[] r = new Rational[this.degree + 1];
+			Arrays.fill(r, Rational.ZERO);
+
+			for(int i = 0; i < this.exponents.length; i++) {
+				r[this.exponents[i]] = this.values[i];
+			}
+
+			return r;
+		}
+
+		@Override
+		public Polynomial toDense() {
+			return new Polynomial(this.dense());
+		}
+
+		@Override
+		public Sparse toSparse() {
+			return this;
+		}
+
+		@Override
+		protected Polynomial fit() {
+			if(this.degree >= SPARSE_MIN_DEGREE && this.exponents.length * SPARSE_FILL_DIVISOR < this.degree + 1) {
+				return this;
+			}
+
+			return this.toDense();
+		}
+
+		/**
+		 * Sparse Horner scheme, bridging the gaps between consecutive exponents with a power by repeated squaring.
+		 */
+		@Override
+		public Rational evaluate(Rational point) {
+			if(this.exponents.length == 0)return Rational.ZERO;
+			int last = this.exponents.length - 1;
+			Rational result = this.values[last];
+
+			for(int i = last - 1; i >= 0; i--) {
+				result = result.multiply(point.pow(this.exponents[i + 1] - this.exponents[i])).add(this.values[i]);
+			}
+
+			return result.multiply(point.pow(this.exponents[0]));
+		}
+
+		@Override
+		public Polynomial differentiate(int k) {
+			if(k < 0) {
+				throw new IllegalArgumentException("Negative derivative order " + k);
+			} else if(k == 0) {
+				return this;
+			}
+
+			int offset = 0;
+			while(offset < this.exponents.length && this.exponents[offset] < k)offset++;
+			int[] e = new int[this.exponents.length - offset];
+			Rational[] c = new Rational[e.length];
+
+			for(int i = 0; i < e.length; i++) {
+				int exponent = this.exponents[i + offset];
+				BigInteger falling = BigInteger.ONE;
+
+				for(int j = 0; j < k; j++) {
+					falling = falling.multiply(BigInteger.valueOf(exponent - j));
+				}
+
+				e[i] = exponent - k;
+				c[i] = this.values[i + offset].multiply(falling);
+			}
+
+			return new Sparse(e, c).fit();
+		}
+
+		@Override
+		public Polynomial integrate() {
+			int[] e = new int[this.exponents.length];
+			Rational[] c = new Rational[e.length];
+
+			for(int i = 0; i < e.length; i++) {
+				e[i] = this.exponents[i] + 1;
+				c[i] = this.values[i].divide(e[i]);
+			}
+
+			return new Sparse(e, c).fit();
+		}
+
+		@Override
+		public Polynomial add(Polynomial other) {
+			Sparse o = other.toSparse();
+			int[] e = new int[this.exponents.length + o.exponents.length];
+			Rational[] c = new Rational[e.length];
+			int i = 0, j = 0, size = 0;
+
+			while(i < this.exponents.length || j < o.exponents.length) {
+				if(j == o.exponents.length || (i < this.exponents.length && this.exponents[i] < o.exponents[j])) {
+					e[size] = this.exponents[i];
+					c[size++] = this.values[i++];
+				} else if(i == this.exponents.length || o.exponents[j] < this.exponents[i]) {
+					e[size] = o.exponents[j];
+					c[size++] = o.values[j++];
+				} else {
+					e[size] = this.exponents[i];
+					c[size++] = this.values[i++].add(o.values[j++]);
+				}
+			}
+
+			return compact(e, c, size).fit();
+		}
+
+		@Override
+		public Polynomial multiply(Rational scalar) {
+			if(scalar.signum() == 0)return ZERO;
+			Rational[] c = new Rational[this.values.length];
+
+			for(int i = 0; i < c.length; i++) {
+				c[i] = this.values[i].multiply(scalar);
+			}
+
+			return new Sparse(this.exponents, c);
+		}
+
+		@Override
+		public Polynomial multiply(Polynomial other) {
+			if(this.degree < 0 || other.degree < 0)return ZERO;
+			return multiply(this, other.toSparse()).fit();
+		}
+
+		/**
+		 * Johnson's heap multiplication. The heap holds one cursor per term of the smaller operand, keyed by the
+		 * exponent it produces next, so the product terms come out sorted and no dense buffer is ever allocated.
+		 */
+		protected static Sparse multiply(Sparse a, Sparse b) {
+			if(a.exponents.length > b.exponents.length) {
+				Sparse t = a; a = b; b = t;
+			}
+
+			int n = a.exponents.length, m = b.exponents.length;
+			int[] next = new int[n];
+			long[] heap = new long[n];
+			int size = n;
+
+			for(int i = 0; i < n; i++) {
+				heap[i] = key(a.exponents[i], b.exponents[0], i);
+			}
+
+			int[] e = new int[Math.max(n, m)];
+			Rational[] c = new Rational[e.length];
+			int count = 0;
+
+			while(size > 0) {
+				int exponent = (int)(heap[0] >>> 32);
+				Rational sum = Rational.ZERO;
+
+				while(size > 0 && (int)(heap[0] >>> 32) == exponent) {
+					int i = (int)heap[0];
+					int j = next[i]++;
+					sum = sum.add(a.values[i].multiply(b.values[j]));
+					heap[0] = j + 1 < m ? key(a.exponents[i], b.exponents[j + 1], i) : heap[--size];
+					siftDown(heap, size);
+				}
+
+				if(sum.signum() == 0)continue;
+
+				if(count == e.length) {
+					e = Arrays.copyOf(e, count << 1);
+					c = Arrays.copyOf(c, count << 1);
+				}
+
+				e[count] = exponent;
+				c[count++] = sum;
+			}
+
+			return new Sparse(Arrays.copyOf(e, count), Arrays.copyOf(c, count));
+		}
+
+		private static long key(int a, int b, int index) {
+			return (long)Math.addExact(a, b) << 32 | index;
+		}
+
+		private static void siftDown(long[] heap, int size) {
+			long value = heap[0];
+			int i = 0;
+
+			while(true) {
+				int child = (i << 1) + 1;
+				if(child >= size)break;
+				if(child + 1 < size && heap[child + 1] < heap[child])child++;
+				if(heap[child] >= value)break;
+				heap[i] = heap[child];
+				i = child;
+			}
+
+			heap[i] = value;
+		}
+
+		@Override
+		public Polynomial truncate(int length) {
+			if(this.degree < length)return this;
+			int count = 0;
+			while(count < this.exponents.length && this.exponents[count] < length)count++;
+			return new Sparse(Arrays.copyOf(this.exponents, count), Arrays.copyOf(this.values, count)).fit();
+		}
+
+		@Override
+		public Polynomial reverse(int degree) {
+			if(degree < this.degree) {
+				throw new IllegalArgumentException("Reversing with a degree lower than the polynomial's");
+			}
+
+			int[] e = new int[this.exponents.length];
+			Rational[] c = new Rational[e.length];
+
+			for(int i = 0; i < e.length; i++) {
+				e[e.length - 1 - i] = degree - this.exponents[i];
+				c[e.length - 1 - i] = this.values[i];
+			}
+
+			return new Sparse(e, c).fit();
+		}
+
+		@Override
+		public Polynomial shift(int exponent) {
+			int from = 0;
+			while(from < this.exponents.length && this.exponents[from] + exponent < 0)from++;
+			int[] e = new int[this.exponents.length - from];
+
+			for(int i = 0; i < e.length; i++) {
+				e[i] = this.exponents[i + from] + exponent;
+			}
+
+			return new Sparse(e, Arrays.copyOfRange(this.values, from, this.values.length)).fit();
+		}
+
+		@Override
+		public int hashCode() {
+			int result = this.degree;
+
+			for(int i = 0; i < this.exponents.length; i++) {
+				result = 31 * (31 * result + this.exponents[i]) + this.values[i].hashCode();
+			}
+
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof Sparse))return super.equals(other);
+			Sparse sparse = (Sparse)other;
+			if(!Arrays.equals(this.exponents, sparse.exponents))return false;
+
+			for(int i = 0; i < this.values.length; i++) {
+				if(this.values[i].compareTo(sparse.values[i]) != 0)return false;
+			}
+
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			if(this.exponents.length == 0) {
+				return "0";
+			}
+
+			StringBuilder sb = new StringBuilder();
+
+			for(int k = this.exponents.length - 1; k >= 0; k--) {
+				int i = this.exponents[k];
+				Rational c = this.values[k];
+				int sign = c.signum();
+				c = c.multiply(sign);
+
+				if(k != this.exponents.length - 1) {
+					sb.append(sign == 1 ? " + " : " - ");
+				} else if(sign < 0) {
+					sb.append("-");
+				}
+
+				sb.append(c);
+
+				if(i != 0) {
+					sb.append("x");
+					if(i != 1)sb.append("^").append(i);
+				}
+			}
+
+			return sb.toString();
+		}
+	}
+
 }
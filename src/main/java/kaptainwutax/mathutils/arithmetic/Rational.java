@@ -1,5 +1,7 @@
 package kaptainwutax.mathutils.arithmetic;
 
+import kaptainwutax.mathutils.util.HalfGcd;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
@@ -8,6 +10,7 @@ import java.math.RoundingMode;
 public class Rational extends Number implements Comparable<Rational> {
 
     protected static final BigInteger THRESHOLD = BigInteger.ONE.shiftLeft(128);
+    public static final int HALF_GCD_THRESHOLD = 2048;
 
     public static final Rational ZERO = Rational.of(0, 1);
     public static final Rational HALF = Rational.of(1, 2);
@@ -308,4 +311,39 @@ public class Rational extends Number implements Comparable<Rational> {
         return of(value, 1);
     }
 
+    /**
+     * Recovers {@code n / d} from its residue modulo {@code modulus}, with {@code |n|} and {@code d} at most
+     * {@code sqrt(modulus / 2)}. Such a fraction is unique when it exists. It is found by stopping the extended
+     * Euclidean algorithm on {@code (modulus, residue)} halfway. Past {@link #HALF_GCD_THRESHOLD} bits, most of the
+     * way is covered by {@link HalfGcd}. Returns null if there is no such fraction.
+     */
+    public static Rational reconstruct(BigInteger residue, BigInteger modulus) {
+        BigInteger bound = modulus.shiftRight(1).sqrt();
+        BigInteger r0 = modulus, r1 = residue.mod(modulus);
+        BigInteger t0 = BigInteger.ZERO, t1 = BigInteger.ONE;
+
+        if(modulus.bitLength() >= HALF_GCD_THRESHOLD) {
+            HalfGcd.State state = HalfGcd.reduce(r0, r1, bound.bitLength());
+            r0 = state.getLarger();
+            r1 = state.getSmaller();
+            t0 = state.getLargerCofactor();
+            t1 = state.getSmallerCofactor();
+        }
+
+        while(r1.compareTo(bound) > 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger t = t0.subtract(qr[0].multiply(t1));
+            t0 = t1;
+            t1 = t;
+        }
+
+        if(t1.abs().compareTo(bound) > 0 || !r1.gcd(t1).equals(BigInteger.ONE)) {
+            return null;
+        }
+
+        return of(r1, t1);
+    }
+
 }
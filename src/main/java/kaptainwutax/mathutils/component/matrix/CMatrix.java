@@ -4,12 +4,36 @@ import kaptainwutax.mathutils.arithmetic.Complex;
 import kaptainwutax.mathutils.component.vector.CVector;
 import kaptainwutax.mathutils.component.vector.QVector;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class CMatrix {
 
-    private final Complex[][] elements;
+    public static final int PARALLEL_THRESHOLD = 16;
+
+    private final Complex[] elements;
+    private final int offset;
+    private final int rowStride;
+    private final int columnStride;
+    private final int rows;
+    private final int columns;
 
     protected CMatrix(int rows, int columns) {
-        this.elements = new Complex[rows][columns];
+        this(new Complex[rows * columns], 0, columns, 1, rows, columns);
+    }
+
+    /**
+     * Backs the matrix with entries of {@code elements}, where entry {@code (row, column)} sits at
+     * {@code offset + row * rowStride + column * columnStride}. No copy is made. Subclasses that provide their own
+     * accessors pass {@code null} instead.
+     */
+    protected CMatrix(Complex[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+        this.elements = elements;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
+        this.rows = rows;
+        this.columns = columns;
     }
 
     public CMatrix(int size, Generator generator) {
@@ -21,7 +45,7 @@ public class CMatrix {
 
         for(int row = 0; row < rows; row++) {
             for(int column = 0; column < columns; column++) {
-                this.elements[row][column] = generator.getValue(row, column);
+                this.elements[row * columns + column] = generator.getValue(row, column);
             }
         }
     }
@@ -43,11 +67,11 @@ public class CMatrix {
     }
 
     public int getRowCount() {
-        return this.elements.length;
+        return this.rows;
     }
 
     public int getColumnCount() {
-        return this.elements[0].length;
+        return this.columns;
     }
 
     public boolean isSquare() {
@@ -63,11 +87,11 @@ public class CMatrix {
     }
 
     public Complex get(int row, int column) {
-        return this.elements[row][column];
+        return this.elements[this.offset + row * this.rowStride + column * this.columnStride];
     }
 
     public CMatrix set(int row, int column, Complex value) {
-        this.elements[row][column] = value;
+        this.elements[this.offset + row * this.rowStride + column * this.columnStride] = value;
         return this;
     }
 
@@ -114,13 +138,39 @@ public class CMatrix {
     }
 
     public CVector.View getRow(int row) {
-        return new CVector.View(this.getColumnCount(),
-                column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new CVector.View(this.getColumnCount(),
+                    column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        }
+
+        return new CVector.View(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
     }
 
     public CVector.View getColumn(int column) {
-        return new CVector.View(this.getRowCount(),
-                row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new CVector.View(this.getRowCount(),
+                    row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        }
+
+        return new CVector.View(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
+    }
+
+    /**
+     * Like {@link #getRow(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public CVector.View getRow(int row, CVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getRow(row);
+        return view.retarget(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
+    }
+
+    /**
+     * Like {@link #getColumn(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public CVector.View getColumn(int column, CVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getColumn(column);
+        return view.retarget(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
     }
 
     public CVector getRowCopy(int row) {
@@ -215,7 +265,19 @@ public class CMatrix {
     }
 
     public CMatrix transpose() {
-        return new CMatrix(this.getColumnCount(), this.getRowCount(), (row, column) -> this.get(column, row));
+        return this.transposeView().copy();
+    }
+
+    /**
+     * Returns the transpose as a view sharing this matrix's storage, so writes go through to both.
+     */
+    public CMatrix transposeView() {
+        if(this.elements == null) {
+            return new CMatrix.View(this.getColumnCount(), this.getRowCount(),
+                    (row, column) -> this.get(column, row), (row, column, value) -> this.set(column, row, value));
+        }
+
+        return new CMatrix.View(this.elements, this.offset, this.columnStride, this.rowStride, this.columns, this.rows);
     }
 
     public CMatrix transposeAndSet() {
@@ -259,13 +321,32 @@ public class CMatrix {
     }
 
     public CMatrix multiply(CMatrix other) {
+        return this.multiply(other, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Splits the product into tiles of at most {@code threshold x threshold} entries and computes them as fork/join
+     * tasks on {@code pool}. A product that fits in a single tile stays on the calling thread.
+     */
+    public CMatrix multiply(CMatrix other, ForkJoinPool pool, int threshold) {
         if(this.getColumnCount() != other.getRowCount()) {
             throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
         }
 
-        CVector[] rows = this.getRows();
-        CVector[] columns = other.getColumns();
-        return new CMatrix(rows.length, columns.length, (row, column) -> rows[row].dot(columns[column]));
+        if(threshold <= 0) {
+            throw new IllegalArgumentException("Tile threshold should be positive");
+        }
+
+        CMatrix result = new CMatrix(this.getRowCount(), other.getColumnCount());
+        Multiplication task = new Multiplication(this, other, result, 0, result.getRowCount(), 0, result.getColumnCount(), threshold);
+
+        if(task.isTile()) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        return result;
     }
 
     public CMatrix multiplyAndSet(CMatrix other) {
@@ -303,9 +384,14 @@ public class CMatrix {
     }
 
     public CMatrix sub(int r1, int c1, int rowCount, int columnCount) {
-        return new CMatrix.View(rowCount, columnCount,
-                (row, column) -> this.get(r1 + row, c1 + column),
-                (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        if(this.elements == null) {
+            return new CMatrix.View(rowCount, columnCount,
+                    (row, column) -> this.get(r1 + row, c1 + column),
+                    (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        }
+
+        return new CMatrix.View(this.elements, this.offset + r1 * this.rowStride + c1 * this.columnStride,
+                this.rowStride, this.columnStride, rowCount, columnCount);
     }
 
     public CMatrix subCopy(int r1, int c1, int rowCount, int columnCount) {
@@ -325,6 +411,12 @@ public class CMatrix {
     }
 
     public CMatrix copy() {
+        if(this.elements != null && this.columnStride == 1 && this.rowStride == this.columns) {
+            CMatrix copy = new CMatrix(this.rows, this.columns);
+            System.arraycopy(this.elements, this.offset, copy.elements, 0, this.rows * this.columns);
+            return copy;
+        }
+
         return new CMatrix(this.getRowCount(), this.getColumnCount(), this.toGenerator());
     }
 
@@ -368,38 +460,81 @@ public class CMatrix {
         return sb.toString();
     }
 
+    private static class Multiplication extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CMatrix left;
+        private final CMatrix right;
+        private final CMatrix result;
+        private final int r1, r2, c1, c2;
+        private final int threshold;
+
+        private Multiplication(CMatrix left, CMatrix right, CMatrix result, int r1, int r2, int c1, int c2, int threshold) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.r1 = r1;
+            this.r2 = r2;
+            this.c1 = c1;
+            this.c2 = c2;
+            this.threshold = threshold;
+        }
+
+        private boolean isTile() {
+            return this.r2 - this.r1 <= this.threshold && this.c2 - this.c1 <= this.threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.isTile()) {
+                for(int row = this.r1; row < this.r2; row++) {
+                    for(int column = this.c1; column < this.c2; column++) {
+                        Complex sum = Complex.ZERO;
+
+                        for(int i = 0; i < this.left.getColumnCount(); i++) {
+                            sum = sum.add(this.left.get(row, i).multiply(this.right.get(i, column)));
+                        }
+
+                        this.result.set(row, column, sum);
+                    }
+                }
+            } else if(this.r2 - this.r1 >= this.c2 - this.c1) {
+                int middle = (this.r1 + this.r2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, middle, this.c1, this.c2, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, middle, this.r2, this.c1, this.c2, this.threshold));
+            } else {
+                int middle = (this.c1 + this.c2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, this.r2, this.c1, middle, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, this.r1, this.r2, middle, this.c2, this.threshold));
+            }
+        }
+    }
+
     public static class View extends CMatrix {
-        private final int rows;
-        private final int columns;
         private final Generator getter;
         private final View.Setter setter;
 
         public View(int rows, int columns, Generator getter, Setter setter) {
-            super(0, 0);
-            this.rows = rows;
-            this.columns = columns;
+            super(null, 0, 0, 0, rows, columns);
             this.getter = getter;
             this.setter = setter;
         }
 
-        @Override
-        public int getRowCount() {
-            return this.rows;
-        }
-
-        @Override
-        public int getColumnCount() {
-            return this.columns;
+        public View(Complex[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+            super(elements, offset, rowStride, columnStride, rows, columns);
+            this.getter = null;
+            this.setter = null;
         }
 
         @Override
         public Complex get(int row, int column) {
-            return this.getter.getValue(row, column);
+            return this.getter == null ? super.get(row, column) : this.getter.getValue(row, column);
         }
 
         @Override
         public CMatrix set(int row, int column, Complex value) {
-            this.setter.set(row, column, value);
+            if(this.setter == null)super.set(row, column, value);
+            else this.setter.set(row, column, value);
             return this;
         }
 
@@ -415,7 +550,7 @@ public class CMatrix {
         private final int split;
 
         public Augmented(CMatrix base, CMatrix extra) {
-            super(0, 0);
+            super(null, 0, 0, 0, 0, 0);
             this.base = base;
             this.extra = extra;
             this.split = base.getColumnCount();
@@ -0,0 +1,352 @@
+package kaptainwutax.mathutils.component.matrix;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.arithmetic.Real;
+import kaptainwutax.mathutils.component.vector.DVector;
+import kaptainwutax.mathutils.util.Kernels;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A matrix of primitive doubles stored in one row-major array. Products of larger matrices go through a
+ * cache-blocked multiply that packs panels of both operands into contiguous buffers and accumulates small tiles
+ * of the result in registers through {@link Kernels}. Past {@link #PARALLEL_THRESHOLD} the row blocks are spread
+ * over the common pool.
+ */
+public class DMatrix {
+
+    public static final int BLOCKING_THRESHOLD = 32;
+    public static final int PARALLEL_THRESHOLD = 128;
+
+    private static final int MC = 64;
+    private static final int KC = 256;
+    private static final int NC = 2048;
+
+    private final double[] elements;
+    private final int rows;
+    private final int columns;
+
+    protected DMatrix(int rows, int columns) {
+        this.elements = new double[rows * columns];
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public DMatrix(int size, Generator generator) {
+        this(size, size, generator);
+    }
+
+    public DMatrix(int rows, int columns, Generator generator) {
+        this(rows, columns);
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                this.elements[row * columns + column] = generator.getValue(row, column);
+            }
+        }
+    }
+
+    public DMatrix(DVector... rows) {
+        this(rows.length, rows[0].getDimension(), (row, column) -> rows[row].get(column));
+    }
+
+    public DMatrix(double[]... elements) {
+        this(elements.length, elements[0].length);
+
+        for(int row = 0; row < this.rows; row++) {
+            System.arraycopy(elements[row], 0, this.elements, row * this.columns, this.columns);
+        }
+    }
+
+    public static DMatrix zero(int rows, int columns) {
+        return new DMatrix(rows, columns);
+    }
+
+    public static DMatrix identity(int size) {
+        return new DMatrix(size, size, (row, column) -> row == column ? 1.0D : 0.0D);
+    }
+
+    public static DMatrix of(QMatrix matrix) {
+        return new DMatrix(matrix.getRowCount(), matrix.getColumnCount(), (row, column) -> matrix.get(row, column).doubleValue());
+    }
+
+    public static DMatrix of(RMatrix matrix) {
+        return new DMatrix(matrix.getRowCount(), matrix.getColumnCount(), (row, column) -> matrix.get(row, column).doubleValue());
+    }
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.columns;
+    }
+
+    public boolean isSquare() {
+        return this.rows == this.columns;
+    }
+
+    public Generator toGenerator() {
+        return this::get;
+    }
+
+    public double get(int row, int column) {
+        return this.elements[row * this.columns + column];
+    }
+
+    public DMatrix set(int row, int column, double value) {
+        this.elements[row * this.columns + column] = value;
+        return this;
+    }
+
+    public DVector.View getRow(int row) {
+        return new DVector.View(this.elements, row * this.columns, 1, this.columns);
+    }
+
+    public DVector.View getColumn(int column) {
+        return new DVector.View(this.elements, column, this.columns, this.rows);
+    }
+
+    public DVector getRowCopy(int row) {
+        return new DVector(Arrays.copyOfRange(this.elements, row * this.columns, (row + 1) * this.columns));
+    }
+
+    public DVector getColumnCopy(int column) {
+        return this.getColumn(column).copy();
+    }
+
+    public DMatrix setRow(int row, DVector value) {
+        for(int column = 0; column < this.columns; column++) {
+            this.set(row, column, value.get(column));
+        }
+
+        return this;
+    }
+
+    public DMatrix setColumn(int column, DVector value) {
+        for(int row = 0; row < this.rows; row++) {
+            this.set(row, column, value.get(row));
+        }
+
+        return this;
+    }
+
+    public DMatrix swapRowsAndSet(int r1, int r2) {
+        double[] oldRow = Arrays.copyOfRange(this.elements, r1 * this.columns, (r1 + 1) * this.columns);
+        System.arraycopy(this.elements, r2 * this.columns, this.elements, r1 * this.columns, this.columns);
+        System.arraycopy(oldRow, 0, this.elements, r2 * this.columns, this.columns);
+        return this;
+    }
+
+    public DMatrix transpose() {
+        DMatrix result = new DMatrix(this.columns, this.rows);
+
+        for(int r = 0; r < this.rows; r += BLOCKING_THRESHOLD) {
+            for(int c = 0; c < this.columns; c += BLOCKING_THRESHOLD) {
+                int rowEnd = Math.min(r + BLOCKING_THRESHOLD, this.rows);
+                int columnEnd = Math.min(c + BLOCKING_THRESHOLD, this.columns);
+
+                for(int row = r; row < rowEnd; row++) {
+                    for(int column = c; column < columnEnd; column++) {
+                        result.elements[column * this.rows + row] = this.elements[row * this.columns + column];
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public DMatrix add(DMatrix other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public DMatrix addAndSet(DMatrix other) {
+        if(this.rows != other.rows || this.columns != other.columns) {
+            throw new IllegalArgumentException("Adding two matrices with different dimensions");
+        }
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] += other.elements[i];
+        }
+
+        return this;
+    }
+
+    public DMatrix subtract(DMatrix other) {
+        return this.copy().subtractAndSet(other);
+    }
+
+    public DMatrix subtractAndSet(DMatrix other) {
+        if(this.rows != other.rows || this.columns != other.columns) {
+            throw new IllegalArgumentException("Subtracting two matrices with different dimensions");
+        }
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] -= other.elements[i];
+        }
+
+        return this;
+    }
+
+    public DMatrix multiply(double scalar) {
+        return this.copy().multiplyAndSet(scalar);
+    }
+
+    public DMatrix multiplyAndSet(double scalar) {
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] *= scalar;
+        }
+
+        return this;
+    }
+
+    public DMatrix multiply(DMatrix other) {
+        if(this.columns != other.rows) {
+            throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
+        }
+
+        DMatrix result = new DMatrix(this.rows, other.columns);
+        int m = this.rows, k = this.columns, n = other.columns;
+
+        if(m < BLOCKING_THRESHOLD || k < BLOCKING_THRESHOLD || n < BLOCKING_THRESHOLD) {
+            multiplySimple(this.elements, other.elements, result.elements, m, k, n);
+        } else {
+            multiplyBlocked(this.elements, other.elements, result.elements, m, k, n);
+        }
+
+        return result;
+    }
+
+    public DVector multiply(DVector vector) {
+        if(this.columns != vector.getDimension()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix columns");
+        }
+
+        return new DVector(this.rows, row -> this.getRow(row).dot(vector));
+    }
+
+    public QMatrix toQMatrix() {
+        return new QMatrix(this.rows, this.columns, (row, column) -> Rational.of(this.get(row, column)));
+    }
+
+    public RMatrix toRMatrix() {
+        return new RMatrix(this.rows, this.columns, (row, column) -> Real.of(this.get(row, column)));
+    }
+
+    public DMatrix copy() {
+        DMatrix copy = new DMatrix(this.rows, this.columns);
+        System.arraycopy(this.elements, 0, copy.elements, 0, this.elements.length);
+        return copy;
+    }
+
+    private static void multiplySimple(double[] a, double[] b, double[] c, int m, int k, int n) {
+        Kernels kernels = Kernels.get();
+
+        for(int i = 0; i < m; i++) {
+            for(int p = 0; p < k; p++) {
+                kernels.axpy(a[i * k + p], b, p * n, c, i * n, n);
+            }
+        }
+    }
+
+    /**
+     * Goto-style blocking: a {@code KC x NC} panel of {@code b} is packed once and shared by every row block, each
+     * {@code MC x KC} block of {@code a} is packed by the task that owns it, and the micro-kernel
+     * then streams through both buffers sequentially.
+     */
+    private static void multiplyBlocked(double[] a, double[] b, double[] c, int m, int k, int n) {
+        Kernels kernels = Kernels.get();
+        int mr = kernels.getTileRows(), nr = kernels.getTileColumns();
+        boolean parallel = (long)m * k * n >= (long)PARALLEL_THRESHOLD * PARALLEL_THRESHOLD * PARALLEL_THRESHOLD;
+        double[] packedB = new double[KC * roundUp(Math.min(n, NC), nr)];
+        int blocks = (m + MC - 1) / MC;
+
+        for(int jc = 0; jc < n; jc += NC) {
+            int nc = Math.min(NC, n - jc);
+
+            for(int pc = 0; pc < k; pc += KC) {
+                int kc = Math.min(KC, k - pc);
+                int j0 = jc, p0 = pc;
+                packB(b, n, p0, j0, kc, nc, nr, packedB);
+
+                IntStream range = IntStream.range(0, blocks);
+                if(parallel)range = range.parallel();
+
+                range.forEach(block -> {
+                    int ic = block * MC, mc = Math.min(MC, m - ic);
+                    double[] packedA = new double[roundUp(mc, mr) * kc];
+                    packA(a, k, ic, p0, mc, kc, mr, packedA);
+
+                    for(int jr = 0; jr < nc; jr += nr) {
+                        for(int ir = 0; ir < mc; ir += mr) {
+                            kernels.multiply(kc, packedA, ir * kc, packedB, jr * kc, c, (ic + ir) * n + j0 + jr, n,
+                                    Math.min(mr, mc - ir), Math.min(nr, nc - jr));
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static void packA(double[] a, int k, int ic, int pc, int mc, int kc, int mr, double[] packed) {
+        int index = 0;
+
+        for(int ir = 0; ir < mc; ir += mr) {
+            for(int p = 0; p < kc; p++) {
+                for(int i = 0; i < mr; i++) {
+                    packed[index++] = ir + i < mc ? a[(ic + ir + i) * k + pc + p] : 0.0D;
+                }
+            }
+        }
+    }
+
+    private static void packB(double[] b, int n, int pc, int jc, int kc, int nc, int nr, double[] packed) {
+        int index = 0;
+
+        for(int jr = 0; jr < nc; jr += nr) {
+            for(int p = 0; p < kc; p++) {
+                int from = (pc + p) * n + jc + jr;
+
+                for(int j = 0; j < nr; j++) {
+                    packed[index++] = jr + j < nc ? b[from + j] : 0.0D;
+                }
+            }
+        }
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.rows * 961 + this.columns * 31 + Arrays.hashCode(this.elements);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof DMatrix))return false;
+        DMatrix matrix = (DMatrix)other;
+        return this.rows == matrix.rows && this.columns == matrix.columns && Arrays.equals(this.elements, matrix.elements);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < this.rows; i++) {
+            sb.append(this.getRow(i).toString()).append(i < this.rows - 1 ? "\n" : "");
+        }
+
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        double getValue(int row, int column);
+    }
+
+}
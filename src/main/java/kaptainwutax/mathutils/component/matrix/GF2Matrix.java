@@ -0,0 +1,438 @@
+package kaptainwutax.mathutils.component.matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A matrix over {@code GF(2)} with every row packed into 64-bit words, so adding one row to another is a word-wise
+ * xor. Column {@code j} of a row lives in bit {@code j & 63} of word {@code j >>> 6}. Vectors passed to
+ * {@link #multiply(long[])} and {@link #solve(long[])} use the same packing.
+ *
+ * <p>Elimination uses the Method of Four Russians. Pivots are found for a block of {@code k} columns, and a
+ * table of all {@code 2^k} sums of the pivot rows is built, each entry from a smaller one with a single row
+ * addition. Each other row is then cleared by one table lookup instead of up to {@code k} row additions. Past
+ * {@link #PARALLEL_THRESHOLD} rows, those lookups and the rows of a product run on the common pool.
+ */
+public class GF2Matrix {
+
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final int MULTIPLY_BITS = 8;
+
+    private final long[] elements;
+    private final int rows;
+    private final int columns;
+    private final int words;
+
+    public GF2Matrix(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = (columns + 63) >>> 6;
+        this.elements = new long[rows * this.words];
+    }
+
+    public GF2Matrix(int size, Generator generator) {
+        this(size, size, generator);
+    }
+
+    public GF2Matrix(int rows, int columns, Generator generator) {
+        this(rows, columns);
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                if(generator.getValue(row, column))this.flip(row, column);
+            }
+        }
+    }
+
+    public static GF2Matrix zero(int rows, int columns) {
+        return new GF2Matrix(rows, columns);
+    }
+
+    public static GF2Matrix identity(int size) {
+        GF2Matrix result = new GF2Matrix(size, size);
+
+        for(int i = 0; i < size; i++) {
+            result.flip(i, i);
+        }
+
+        return result;
+    }
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.columns;
+    }
+
+    public boolean isSquare() {
+        return this.rows == this.columns;
+    }
+
+    public Generator toGenerator() {
+        return this::get;
+    }
+
+    public boolean get(int row, int column) {
+        return (this.elements[row * this.words + (column >>> 6)] >>> column & 1) != 0;
+    }
+
+    public GF2Matrix set(int row, int column, boolean value) {
+        if(this.get(row, column) != value)this.flip(row, column);
+        return this;
+    }
+
+    public GF2Matrix flip(int row, int column) {
+        this.elements[row * this.words + (column >>> 6)] ^= 1L << column;
+        return this;
+    }
+
+    /**
+     * Returns a copy of the packed words of a row.
+     */
+    public long[] getRowCopy(int row) {
+        return Arrays.copyOfRange(this.elements, row * this.words, (row + 1) * this.words);
+    }
+
+    public GF2Matrix setRow(int row, long[] value) {
+        System.arraycopy(value, 0, this.elements, row * this.words, this.words);
+        return this;
+    }
+
+    public GF2Matrix swapRowsAndSet(int r1, int r2) {
+        if(r1 == r2)return this;
+        int a = r1 * this.words, b = r2 * this.words;
+
+        for(int i = 0; i < this.words; i++) {
+            long temp = this.elements[a + i];
+            this.elements[a + i] = this.elements[b + i];
+            this.elements[b + i] = temp;
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds row {@code source} to row {@code target}.
+     */
+    public GF2Matrix xorRowAndSet(int target, int source) {
+        int a = target * this.words, b = source * this.words;
+
+        for(int i = 0; i < this.words; i++) {
+            this.elements[a + i] ^= this.elements[b + i];
+        }
+
+        return this;
+    }
+
+    public GF2Matrix add(GF2Matrix other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public GF2Matrix addAndSet(GF2Matrix other) {
+        if(this.rows != other.rows || this.columns != other.columns) {
+            throw new IllegalArgumentException("Adding two matrices with different dimensions");
+        }
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] ^= other.elements[i];
+        }
+
+        return this;
+    }
+
+    public GF2Matrix transpose() {
+        GF2Matrix result = new GF2Matrix(this.columns, this.rows);
+
+        for(int row = 0; row < this.rows; row++) {
+            for(int word = 0; word < this.words; word++) {
+                long bits = this.elements[row * this.words + word];
+
+                while(bits != 0) {
+                    int column = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    result.elements[column * result.words + (row >>> 6)] |= 1L << row;
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies with the Method of Four Russians. Every 8 columns of {@code this} select one of the 256 sums of
+     * the matching 8 rows of {@code other}, and the sums are tabulated once per block.
+     */
+    public GF2Matrix multiply(GF2Matrix other) {
+        if(this.columns != other.rows) {
+            throw new IllegalArgumentException("mxn * nxp = mxp");
+        }
+
+        GF2Matrix result = new GF2Matrix(this.rows, other.columns);
+        int width = other.words;
+        long[] table = new long[(1 << MULTIPLY_BITS) * width];
+
+        for(int start = 0; start < this.columns; start += MULTIPLY_BITS) {
+            int count = Math.min(MULTIPLY_BITS, this.columns - start);
+
+            for(int i = 1; i < 1 << count; i++) {
+                int bit = Integer.numberOfTrailingZeros(i);
+                int source = (start + bit) * width;
+                System.arraycopy(table, (i & (i - 1)) * width, table, i * width, width);
+
+                for(int w = 0; w < width; w++) {
+                    table[i * width + w] ^= other.elements[source + w];
+                }
+            }
+
+            int block = start;
+            IntStream range = IntStream.range(0, this.rows);
+            if(this.rows >= PARALLEL_THRESHOLD)range = range.parallel();
+
+            range.forEach(row -> {
+                int index = this.getBits(row, block, count);
+                if(index == 0)return;
+                int target = row * width;
+
+                for(int w = 0; w < width; w++) {
+                    result.elements[target + w] ^= table[index * width + w];
+                }
+            });
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies by a packed column vector and returns the packed result.
+     */
+    public long[] multiply(long[] vector) {
+        long[] result = new long[(this.rows + 63) >>> 6];
+
+        for(int row = 0; row < this.rows; row++) {
+            long parity = 0;
+
+            for(int w = 0; w < this.words; w++) {
+                parity ^= this.elements[row * this.words + w] & vector[w];
+            }
+
+            if((Long.bitCount(parity) & 1) != 0)result[row >>> 6] |= 1L << row;
+        }
+
+        return result;
+    }
+
+    /**
+     * Brings this matrix to reduced row echelon form in place and returns its rank.
+     */
+    public int echelonizeAndSet() {
+        return this.echelonizeAndSet(this.columns).length;
+    }
+
+    private int[] echelonizeAndSet(int limit) {
+        return this.echelonizeAndSet(limit, true);
+    }
+
+    /**
+     * Brings the first {@code limit} columns to row echelon form in place, carrying the other columns along, and
+     * returns the pivot columns in order. Rows above each block of pivots are only cleared when {@code reduced} is
+     * set, which the rank alone does not need.
+     */
+    private int[] echelonizeAndSet(int limit, boolean reduced) {
+        int k = Math.max(1, Math.min(8, (int)(0.75D * (31 - Integer.numberOfLeadingZeros(Math.max(1, this.rows))))));
+        int[] pivots = new int[Math.min(this.rows, limit)];
+        int[] block = new int[k];
+        long[] table = new long[(1 << k) * this.words];
+        int r = 0;
+
+        for(int start = 0; start < limit && r < this.rows; start += k) {
+            int found = 0;
+
+            for(int column = start; column < Math.min(start + k, limit) && r + found < this.rows; column++) {
+                int pivot = -1;
+
+                for(int row = r + found; row < this.rows && pivot == -1; row++) {
+                    for(int i = 0; i < found; i++) {
+                        if(this.get(row, block[i]))this.xorRowAndSet(row, r + i);
+                    }
+
+                    if(this.get(row, column))pivot = row;
+                }
+
+                if(pivot == -1)continue;
+                this.swapRowsAndSet(r + found, pivot);
+
+                for(int i = 0; i < found; i++) {
+                    if(this.get(r + i, column))this.xorRowAndSet(r + i, r + found);
+                }
+
+                block[found++] = column;
+            }
+
+            if(found == 0)continue;
+            int first = block[0] >>> 6;
+
+            for(int i = 1; i < 1 << found; i++) {
+                int bit = Integer.numberOfTrailingZeros(i);
+                int source = (r + bit) * this.words;
+                int previous = (i & (i - 1)) * this.words;
+
+                for(int w = first; w < this.words; w++) {
+                    table[i * this.words + w] = table[previous + w] ^ this.elements[source + w];
+                }
+            }
+
+            int top = r, bottom = r + found, count = found;
+            IntStream range = IntStream.range(reduced ? 0 : bottom, this.rows);
+            if(this.rows >= PARALLEL_THRESHOLD)range = range.parallel();
+
+            range.forEach(row -> {
+                if(row >= top && row < bottom)return;
+                int index = 0;
+
+                for(int i = 0; i < count; i++) {
+                    if(this.get(row, block[i]))index |= 1 << i;
+                }
+
+                if(index == 0)return;
+                int target = row * this.words;
+
+                for(int w = first; w < this.words; w++) {
+                    this.elements[target + w] ^= table[index * this.words + w];
+                }
+            });
+
+            System.arraycopy(block, 0, pivots, r, found);
+            r += found;
+        }
+
+        return Arrays.copyOf(pivots, r);
+    }
+
+    public int getRank() {
+        return this.copy().echelonizeAndSet(this.columns, false).length;
+    }
+
+    /**
+     * Returns a matrix whose columns are a basis of the kernel, one for each non-pivot column.
+     */
+    public GF2Matrix getNullSpace() {
+        GF2Matrix reduced = this.copy();
+        int[] pivots = reduced.echelonizeAndSet(this.columns);
+        boolean[] isPivot = new boolean[this.columns];
+        for(int pivot : pivots)isPivot[pivot] = true;
+
+        GF2Matrix result = new GF2Matrix(this.columns, this.columns - pivots.length);
+        int index = 0;
+
+        for(int free = 0; free < this.columns; free++) {
+            if(isPivot[free])continue;
+            result.flip(free, index);
+
+            for(int i = 0; i < pivots.length; i++) {
+                if(reduced.get(i, free))result.flip(pivots[i], index);
+            }
+
+            index++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a packed solution {@code x} of {@code this * x = b}, with every free variable set to zero, or null if
+     * the system has none.
+     */
+    public long[] solve(long[] b) {
+        GF2Matrix augmented = this.augment(b);
+        int[] pivots = augmented.echelonizeAndSet(this.columns);
+
+        for(int row = pivots.length; row < this.rows; row++) {
+            if(augmented.get(row, this.columns))return null;
+        }
+
+        long[] x = new long[this.words];
+
+        for(int i = 0; i < pivots.length; i++) {
+            if(augmented.get(i, this.columns))x[pivots[i] >>> 6] |= 1L << pivots[i];
+        }
+
+        return x;
+    }
+
+    public GF2Matrix invert() {
+        if(!this.isSquare()) {
+            throw new IllegalStateException("Matrix is not square");
+        }
+
+        GF2Matrix augmented = new GF2Matrix(this.rows, 2 * this.columns, (row, column) ->
+            column < this.columns ? this.get(row, column) : column - this.columns == row);
+
+        if(augmented.echelonizeAndSet(this.columns).length != this.rows) {
+            throw new ArithmeticException("Matrix is not invertible");
+        }
+
+        return new GF2Matrix(this.rows, this.columns, (row, column) -> augmented.get(row, this.columns + column));
+    }
+
+    private GF2Matrix augment(long[] b) {
+        GF2Matrix result = new GF2Matrix(this.rows, this.columns + 1);
+
+        for(int row = 0; row < this.rows; row++) {
+            System.arraycopy(this.elements, row * this.words, result.elements, row * result.words, this.words);
+            if((b[row >>> 6] >>> row & 1) != 0)result.flip(row, this.columns);
+        }
+
+        return result;
+    }
+
+    private int getBits(int row, int start, int count) {
+        int offset = row * this.words + (start >>> 6);
+        int shift = start & 63;
+        long bits = this.elements[offset] >>> shift;
+        if(shift + count > 64)bits |= this.elements[offset + 1] << (64 - shift);
+        return (int)(bits & ((1L << count) - 1));
+    }
+
+    public GF2Matrix copy() {
+        GF2Matrix result = new GF2Matrix(this.rows, this.columns);
+        System.arraycopy(this.elements, 0, result.elements, 0, this.elements.length);
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.rows * 961 + this.columns * 31 + Arrays.hashCode(this.elements);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof GF2Matrix))return false;
+        GF2Matrix matrix = (GF2Matrix)other;
+        return this.rows == matrix.rows && this.columns == matrix.columns && Arrays.equals(this.elements, matrix.elements);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int row = 0; row < this.rows; row++) {
+            for(int column = 0; column < this.columns; column++) {
+                sb.append(this.get(row, column) ? '1' : '0');
+            }
+
+            if(row < this.rows - 1)sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        boolean getValue(int row, int column);
+    }
+
+}
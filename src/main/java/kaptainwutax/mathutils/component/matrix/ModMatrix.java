@@ -0,0 +1,766 @@
+package kaptainwutax.mathutils.component.matrix;
+
+import kaptainwutax.mathutils.util.Montgomery;
+import kaptainwutax.mathutils.util.Mth;
+import kaptainwutax.mathutils.util.Primes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A matrix over the integers modulo a word-size modulus, stored in one row-major {@code long[]}. {@link Prime}
+ * works over a prime field in Montgomery form. {@link PowerOfTwo} works over {@code Z/2^kZ}, where most
+ * pivots are not invertible.
+ *
+ * <p>Elimination picks the pivot of smallest valuation in its column and scales it to a canonical power of the
+ * uniformizer, which is {@code 1} in a field and {@code 2^v} modulo {@code 2^k}. A pivot row of valuation
+ * {@code v > 0} is also multiplied by {@code 2^(k - v)}, and the result is put back into the remaining rows.
+ * That gives the Howell form, where back substitution never has to revisit an earlier choice. Solve and
+ * nullspace therefore work the same way over both rings.
+ */
+public abstract class ModMatrix {
+
+    protected final long[] elements;
+    protected final int rows;
+    protected final int columns;
+
+    protected ModMatrix(int rows, int columns) {
+        this.elements = new long[rows * columns];
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    protected abstract ModMatrix create(int rows, int columns);
+
+    protected abstract long encode(long value);
+
+    protected abstract long decode(long value);
+
+    protected abstract long one();
+
+    protected abstract long add(long a, long b);
+
+    protected abstract long subtract(long a, long b);
+
+    protected abstract long multiply(long a, long b);
+
+    /**
+     * Returns the exponent of the uniformizer dividing the nonzero element {@code value}.
+     */
+    protected abstract int valuation(long value);
+
+    /**
+     * Returns the unit which scales the nonzero element {@code value} to the canonical pivot of its valuation.
+     */
+    protected abstract long normalizer(long value);
+
+    /**
+     * Returns whether the canonical pivot of valuation {@code v} divides {@code value}.
+     */
+    protected abstract boolean divides(int v, long value);
+
+    /**
+     * Returns {@code value} divided by the canonical pivot of valuation {@code v}, which must divide it.
+     */
+    protected abstract long quotient(long value, int v);
+
+    /**
+     * Returns the element that multiplies the canonical pivot of valuation {@code v} to zero, or zero when the
+     * pivot is a unit and no such row is needed.
+     */
+    protected abstract long annihilator(int v);
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.columns;
+    }
+
+    public boolean isSquare() {
+        return this.rows == this.columns;
+    }
+
+    public long get(int row, int column) {
+        return this.decode(this.elements[row * this.columns + column]);
+    }
+
+    public ModMatrix set(int row, int column, long value) {
+        this.elements[row * this.columns + column] = this.encode(value);
+        return this;
+    }
+
+    public long[] getRowCopy(int row) {
+        long[] result = new long[this.columns];
+
+        for(int column = 0; column < this.columns; column++) {
+            result[column] = this.get(row, column);
+        }
+
+        return result;
+    }
+
+    public long[] getColumnCopy(int column) {
+        long[] result = new long[this.rows];
+
+        for(int row = 0; row < this.rows; row++) {
+            result[row] = this.get(row, column);
+        }
+
+        return result;
+    }
+
+    public ModMatrix swapRowsAndSet(int r1, int r2) {
+        long[] oldRow = Arrays.copyOfRange(this.elements, r1 * this.columns, (r1 + 1) * this.columns);
+        System.arraycopy(this.elements, r2 * this.columns, this.elements, r1 * this.columns, this.columns);
+        System.arraycopy(oldRow, 0, this.elements, r2 * this.columns, this.columns);
+        return this;
+    }
+
+    public ModMatrix add(ModMatrix other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public ModMatrix addAndSet(ModMatrix other) {
+        this.checkSameShape(other);
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] = this.add(this.elements[i], other.elements[i]);
+        }
+
+        return this;
+    }
+
+    public ModMatrix subtract(ModMatrix other) {
+        return this.copy().subtractAndSet(other);
+    }
+
+    public ModMatrix subtractAndSet(ModMatrix other) {
+        this.checkSameShape(other);
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] = this.subtract(this.elements[i], other.elements[i]);
+        }
+
+        return this;
+    }
+
+    public ModMatrix multiply(long scalar) {
+        return this.copy().multiplyAndSet(scalar);
+    }
+
+    public ModMatrix multiplyAndSet(long scalar) {
+        long factor = this.encode(scalar);
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] = this.multiply(this.elements[i], factor);
+        }
+
+        return this;
+    }
+
+    public ModMatrix multiply(ModMatrix other) {
+        if(this.columns != other.rows) {
+            throw new IllegalArgumentException("mxn * nxp = mxp");
+        }
+
+        this.checkSameRing(other);
+        ModMatrix result = this.create(this.rows, other.columns);
+
+        for(int row = 0; row < this.rows; row++) {
+            int target = row * other.columns;
+
+            for(int k = 0; k < this.columns; k++) {
+                long a = this.elements[row * this.columns + k];
+                if(a == 0)continue;
+                int source = k * other.columns;
+
+                for(int column = 0; column < other.columns; column++) {
+                    long product = this.multiply(a, other.elements[source + column]);
+                    result.elements[target + column] = this.add(result.elements[target + column], product);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public long[] multiply(long... vector) {
+        if(this.columns != vector.length) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix columns");
+        }
+
+        long[] encoded = new long[this.columns];
+        long[] result = new long[this.rows];
+
+        for(int column = 0; column < this.columns; column++) {
+            encoded[column] = this.encode(vector[column]);
+        }
+
+        for(int row = 0; row < this.rows; row++) {
+            long sum = 0;
+
+            for(int column = 0; column < this.columns; column++) {
+                sum = this.add(sum, this.multiply(this.elements[row * this.columns + column], encoded[column]));
+            }
+
+            result[row] = this.decode(sum);
+        }
+
+        return result;
+    }
+
+    public ModMatrix transpose() {
+        ModMatrix result = this.create(this.columns, this.rows);
+
+        for(int row = 0; row < this.rows; row++) {
+            for(int column = 0; column < this.columns; column++) {
+                result.elements[column * this.rows + row] = this.elements[row * this.columns + column];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of pivots of the echelon form. Over {@code Z/2^kZ} that counts the pivots of the
+     * Howell form, so {@link PowerOfTwo} overrides it with the rank modulo {@code 2}.
+     */
+    public int getRank() {
+        return this.echelon(this.toRows(0), this.columns).pivots;
+    }
+
+    public ModMatrix invert() {
+        if(!this.isSquare()) {
+            throw new IllegalStateException("Matrix is not square");
+        }
+
+        long[][] augmented = this.toRows(this.rows);
+
+        for(int row = 0; row < this.rows; row++) {
+            augmented[row][this.columns + row] = this.one();
+        }
+
+        Echelon echelon = this.echelon(augmented, this.columns);
+
+        for(int i = 0; i < this.rows; i++) {
+            if(i >= echelon.pivots || echelon.valuations[i] != 0) {
+                throw new ArithmeticException("Matrix is not invertible");
+            }
+        }
+
+        for(int i = this.rows - 1; i >= 0; i--) {
+            long[] pivot = echelon.rows.get(i);
+
+            for(int above = 0; above < i; above++) {
+                long[] target = echelon.rows.get(above);
+                long factor = target[i];
+                if(factor == 0)continue;
+
+                for(int j = i; j < target.length; j++) {
+                    target[j] = this.subtract(target[j], this.multiply(factor, pivot[j]));
+                }
+            }
+        }
+
+        ModMatrix result = this.create(this.rows, this.columns);
+
+        for(int row = 0; row < this.rows; row++) {
+            System.arraycopy(echelon.rows.get(row), this.columns, result.elements, row * this.columns, this.columns);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns one solution {@code x} of {@code this * x = b}, with every free variable set to zero, or null if the
+     * system has none.
+     */
+    public long[] solve(long... b) {
+        if(b.length != this.rows) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+        }
+
+        long[][] augmented = this.toRows(1);
+
+        for(int row = 0; row < this.rows; row++) {
+            augmented[row][this.columns] = this.encode(b[row]);
+        }
+
+        Echelon echelon = this.echelon(augmented, this.columns);
+
+        for(int i = echelon.pivots; i < echelon.rows.size(); i++) {
+            if(echelon.rows.get(i)[this.columns] != 0)return null;
+        }
+
+        long[] x = new long[this.columns];
+        if(!this.backSubstitute(echelon, x, true, -1))return null;
+
+        for(int column = 0; column < this.columns; column++) {
+            x[column] = this.decode(x[column]);
+        }
+
+        return x;
+    }
+
+    /**
+     * Returns a matrix whose columns generate the kernel of this matrix. Over a field they form a basis with one
+     * vector per free column. Over {@code Z/2^kZ} every pivot of valuation {@code v > 0} also contributes the
+     * vector whose pivot coordinate is {@code 2^(k - v)}.
+     */
+    public ModMatrix getNullSpace() {
+        Echelon echelon = this.echelon(this.toRows(0), this.columns);
+        boolean[] pivotColumn = new boolean[this.columns];
+        List<long[]> generators = new ArrayList<>();
+
+        for(int i = 0; i < echelon.pivots; i++) {
+            pivotColumn[echelon.pivotColumns[i]] = true;
+        }
+
+        for(int column = 0; column < this.columns; column++) {
+            if(pivotColumn[column])continue;
+            long[] x = new long[this.columns];
+            x[column] = this.one();
+            this.backSubstitute(echelon, x, false, -1);
+            generators.add(x);
+        }
+
+        for(int i = 0; i < echelon.pivots; i++) {
+            long annihilator = this.annihilator(echelon.valuations[i]);
+            if(annihilator == 0)continue;
+            long[] x = new long[this.columns];
+            x[echelon.pivotColumns[i]] = annihilator;
+            this.backSubstitute(echelon, x, false, i);
+            generators.add(x);
+        }
+
+        ModMatrix result = this.create(this.columns, generators.size());
+
+        for(int column = 0; column < generators.size(); column++) {
+            long[] x = generators.get(column);
+
+            for(int row = 0; row < this.columns; row++) {
+                result.elements[row * result.columns + column] = x[row];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Fills in the pivot coordinates of {@code x} from the bottom pivot row up. The right-hand side is the last
+     * column when {@code augmented} is set and zero otherwise. The pivot row {@code fixed} keeps the coordinate
+     * already in {@code x}.
+     */
+    private boolean backSubstitute(Echelon echelon, long[] x, boolean augmented, int fixed) {
+        for(int i = echelon.pivots - 1; i >= 0; i--) {
+            if(i == fixed)continue;
+            long[] row = echelon.rows.get(i);
+            int pivotColumn = echelon.pivotColumns[i];
+            long t = augmented ? row[this.columns] : 0;
+
+            for(int j = pivotColumn + 1; j < this.columns; j++) {
+                if(row[j] != 0 && x[j] != 0)t = this.subtract(t, this.multiply(row[j], x[j]));
+            }
+
+            if(!this.divides(echelon.valuations[i], t))return false;
+            x[pivotColumn] = this.quotient(t, echelon.valuations[i]);
+        }
+
+        return true;
+    }
+
+    private long[][] toRows(int extra) {
+        long[][] result = new long[this.rows][this.columns + extra];
+
+        for(int row = 0; row < this.rows; row++) {
+            System.arraycopy(this.elements, row * this.columns, result[row], 0, this.columns);
+        }
+
+        return result;
+    }
+
+    /**
+     * Brings the first {@code split} columns of {@code input} to Howell form with row operations, carrying the
+     * remaining columns along. The rows of the returned form past its pivots have zeros in those columns.
+     */
+    private Echelon echelon(long[][] input, int split) {
+        List<long[]> rows = new ArrayList<>(Arrays.asList(input));
+        int[] pivotColumns = new int[split];
+        int[] valuations = new int[split];
+        int r = 0;
+
+        for(int column = 0; column < split && r < rows.size(); column++) {
+            int pivot = -1;
+            int smallest = Integer.MAX_VALUE;
+
+            for(int row = r; row < rows.size() && smallest > 0; row++) {
+                long value = rows.get(row)[column];
+                if(value == 0)continue;
+                int v = this.valuation(value);
+
+                if(v < smallest) {
+                    smallest = v;
+                    pivot = row;
+                }
+            }
+
+            if(pivot == -1)continue;
+            if(pivot != r)rows.set(pivot, rows.set(r, rows.get(pivot)));
+
+            long[] pivotRow = rows.get(r);
+            long normalizer = this.normalizer(pivotRow[column]);
+
+            for(int j = column; j < pivotRow.length; j++) {
+                pivotRow[j] = this.multiply(pivotRow[j], normalizer);
+            }
+
+            for(int row = r + 1; row < rows.size(); row++) {
+                long[] target = rows.get(row);
+                if(target[column] == 0)continue;
+                long factor = this.quotient(target[column], smallest);
+
+                for(int j = column; j < target.length; j++) {
+                    target[j] = this.subtract(target[j], this.multiply(factor, pivotRow[j]));
+                }
+            }
+
+            long annihilator = this.annihilator(smallest);
+
+            if(annihilator != 0) {
+                long[] derived = new long[pivotRow.length];
+                boolean zero = true;
+
+                for(int j = column + 1; j < pivotRow.length; j++) {
+                    derived[j] = this.multiply(pivotRow[j], annihilator);
+                    zero &= derived[j] == 0;
+                }
+
+                if(!zero)rows.add(derived);
+            }
+
+            pivotColumns[r] = column;
+            valuations[r++] = smallest;
+        }
+
+        return new Echelon(rows, r, pivotColumns, valuations);
+    }
+
+    public ModMatrix copy() {
+        ModMatrix result = this.create(this.rows, this.columns);
+        System.arraycopy(this.elements, 0, result.elements, 0, this.elements.length);
+        return result;
+    }
+
+    private void checkSameShape(ModMatrix other) {
+        if(this.rows != other.rows || this.columns != other.columns) {
+            throw new IllegalArgumentException("Matrices should have the same dimensions");
+        }
+
+        this.checkSameRing(other);
+    }
+
+    private void checkSameRing(ModMatrix other) {
+        if(!this.equalsRing(other)) {
+            throw new IllegalArgumentException("Matrices should be over the same ring");
+        }
+    }
+
+    protected abstract boolean equalsRing(ModMatrix other);
+
+    @Override
+    public int hashCode() {
+        return this.rows * 961 + this.columns * 31 + Arrays.hashCode(this.elements);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof ModMatrix))return false;
+        ModMatrix matrix = (ModMatrix)other;
+        return this.rows == matrix.rows && this.columns == matrix.columns && this.equalsRing(matrix)
+            && Arrays.equals(this.elements, matrix.elements);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int row = 0; row < this.rows; row++) {
+            sb.append(Arrays.toString(this.getRowCopy(row))).append(row < this.rows - 1 ? "\n" : "");
+        }
+
+        return sb.toString();
+    }
+
+    private static final class Echelon {
+        private final List<long[]> rows;
+        private final int pivots;
+        private final int[] pivotColumns;
+        private final int[] valuations;
+
+        private Echelon(List<long[]> rows, int pivots, int[] pivotColumns, int[] valuations) {
+            this.rows = rows;
+            this.pivots = pivots;
+            this.pivotColumns = pivotColumns;
+            this.valuations = valuations;
+        }
+    }
+
+    /**
+     * Matrices over {@code Z/pZ} for an odd prime {@code p} below {@code 2^62}. Entries are kept in Montgomery form.
+     */
+    public static class Prime extends ModMatrix {
+        private final Montgomery field;
+
+        protected Prime(Montgomery field, int rows, int columns) {
+            super(rows, columns);
+            this.field = field;
+        }
+
+        public Prime(long modulus, int rows, int columns, Generator generator) {
+            this(field(modulus), rows, columns);
+
+            for(int row = 0; row < rows; row++) {
+                for(int column = 0; column < columns; column++) {
+                    this.set(row, column, generator.getValue(row, column));
+                }
+            }
+        }
+
+        public Prime(long modulus, long[]... elements) {
+            this(modulus, elements.length, elements[0].length, (row, column) -> elements[row][column]);
+        }
+
+        public static Prime zero(long modulus, int rows, int columns) {
+            return new Prime(field(modulus), rows, columns);
+        }
+
+        public static Prime identity(long modulus, int size) {
+            return new Prime(modulus, size, size, (row, column) -> row == column ? 1 : 0);
+        }
+
+        public static Prime of(long modulus, ZMatrix matrix) {
+            Montgomery field = field(modulus);
+            Prime result = new Prime(field, matrix.getRowCount(), matrix.getColumnCount());
+
+            for(int row = 0; row < result.rows; row++) {
+                for(int column = 0; column < result.columns; column++) {
+                    result.elements[row * result.columns + column] = field.toMontgomery(matrix.get(row, column));
+                }
+            }
+
+            return result;
+        }
+
+        private static Montgomery field(long modulus) {
+            if(!Primes.isPrime(modulus) || modulus == 2) {
+                throw new IllegalArgumentException("Modulus " + modulus + " is not an odd prime");
+            }
+
+            return new Montgomery(modulus);
+        }
+
+        public long getModulus() {
+            return this.field.getModulus();
+        }
+
+        @Override
+        protected Prime create(int rows, int columns) {
+            return new Prime(this.field, rows, columns);
+        }
+
+        @Override
+        protected long encode(long value) {
+            return this.field.toMontgomery(value);
+        }
+
+        @Override
+        protected long decode(long value) {
+            return this.field.fromMontgomery(value);
+        }
+
+        @Override
+        protected long one() {
+            return this.field.one();
+        }
+
+        @Override
+        protected long add(long a, long b) {
+            return this.field.add(a, b);
+        }
+
+        @Override
+        protected long subtract(long a, long b) {
+            return this.field.subtract(a, b);
+        }
+
+        @Override
+        protected long multiply(long a, long b) {
+            return this.field.multiply(a, b);
+        }
+
+        @Override
+        protected int valuation(long value) {
+            return 0;
+        }
+
+        @Override
+        protected long normalizer(long value) {
+            return this.field.invert(value);
+        }
+
+        @Override
+        protected boolean divides(int v, long value) {
+            return true;
+        }
+
+        @Override
+        protected long quotient(long value, int v) {
+            return value;
+        }
+
+        @Override
+        protected long annihilator(int v) {
+            return 0;
+        }
+
+        @Override
+        protected boolean equalsRing(ModMatrix other) {
+            return other instanceof Prime && ((Prime)other).getModulus() == this.getModulus();
+        }
+    }
+
+    /**
+     * Matrices over {@code Z/2^kZ} for {@code 1 <= k <= 64}, where arithmetic is plain long arithmetic masked to
+     * the low {@code k} bits. An entry is a unit exactly when it is odd.
+     */
+    public static class PowerOfTwo extends ModMatrix {
+        private final int bits;
+        private final long mask;
+
+        protected PowerOfTwo(int bits, int rows, int columns) {
+            super(rows, columns);
+
+            if(bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Bit count should be between 1 and 64");
+            }
+
+            this.bits = bits;
+            this.mask = Mth.getMask(bits);
+        }
+
+        public PowerOfTwo(int bits, int rows, int columns, Generator generator) {
+            this(bits, rows, columns);
+
+            for(int row = 0; row < rows; row++) {
+                for(int column = 0; column < columns; column++) {
+                    this.set(row, column, generator.getValue(row, column));
+                }
+            }
+        }
+
+        public PowerOfTwo(int bits, long[]... elements) {
+            this(bits, elements.length, elements[0].length, (row, column) -> elements[row][column]);
+        }
+
+        public static PowerOfTwo zero(int bits, int rows, int columns) {
+            return new PowerOfTwo(bits, rows, columns);
+        }
+
+        public static PowerOfTwo identity(int bits, int size) {
+            return new PowerOfTwo(bits, size, size, (row, column) -> row == column ? 1 : 0);
+        }
+
+        public static PowerOfTwo of(int bits, ZMatrix matrix) {
+            return new PowerOfTwo(bits, matrix.getRowCount(), matrix.getColumnCount(), (row, column) -> matrix.get(row, column).longValue());
+        }
+
+        public int getBits() {
+            return this.bits;
+        }
+
+        /**
+         * Returns the rank of this matrix reduced modulo {@code 2}, which is the number of unit invariant factors of
+         * its Smith form.
+         */
+        @Override
+        public int getRank() {
+            if(this.bits == 1)return super.getRank();
+            return new PowerOfTwo(1, this.rows, this.columns, this::get).getRank();
+        }
+
+        @Override
+        protected PowerOfTwo create(int rows, int columns) {
+            return new PowerOfTwo(this.bits, rows, columns);
+        }
+
+        @Override
+        protected long encode(long value) {
+            return value & this.mask;
+        }
+
+        @Override
+        protected long decode(long value) {
+            return value;
+        }
+
+        @Override
+        protected long one() {
+            return 1L;
+        }
+
+        @Override
+        protected long add(long a, long b) {
+            return (a + b) & this.mask;
+        }
+
+        @Override
+        protected long subtract(long a, long b) {
+            return (a - b) & this.mask;
+        }
+
+        @Override
+        protected long multiply(long a, long b) {
+            return (a * b) & this.mask;
+        }
+
+        @Override
+        protected int valuation(long value) {
+            return Long.numberOfTrailingZeros(value);
+        }
+
+        @Override
+        protected long normalizer(long value) {
+            return Mth.modInverse(value >>> Long.numberOfTrailingZeros(value), this.bits);
+        }
+
+        @Override
+        protected boolean divides(int v, long value) {
+            return value == 0 || Long.numberOfTrailingZeros(value) >= v;
+        }
+
+        @Override
+        protected long quotient(long value, int v) {
+            return value >>> v;
+        }
+
+        @Override
+        protected long annihilator(int v) {
+            return v == 0 ? 0 : Mth.getPow2(this.bits - v);
+        }
+
+        @Override
+        protected boolean equalsRing(ModMatrix other) {
+            return other instanceof PowerOfTwo && ((PowerOfTwo)other).bits == this.bits;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        long getValue(int row, int column);
+    }
+
+}
@@ -2,14 +2,42 @@ package kaptainwutax.mathutils.component.matrix;
 
 import kaptainwutax.mathutils.arithmetic.Rational;
 import kaptainwutax.mathutils.component.vector.QVector;
+import kaptainwutax.mathutils.decomposition.Bareiss;
 import kaptainwutax.mathutils.decomposition.LUDecomposition;
+import kaptainwutax.mathutils.decomposition.MultiModular;
+import kaptainwutax.mathutils.solver.NullSpace;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class QMatrix {
 
-    private final Rational[][] elements;
+    public static final int PARALLEL_THRESHOLD = 16;
+
+    private final Rational[] elements;
+    private final int offset;
+    private final int rowStride;
+    private final int columnStride;
+    private final int rows;
+    private final int columns;
 
     protected QMatrix(int rows, int columns) {
-        this.elements = new Rational[rows][columns];
+        this(new Rational[rows * columns], 0, columns, 1, rows, columns);
+    }
+
+    /**
+     * Backs the matrix with entries of {@code elements}, where entry {@code (row, column)} sits at
+     * {@code offset + row * rowStride + column * columnStride}. No copy is made. Subclasses that provide their own
+     * accessors pass {@code null} instead.
+     */
+    protected QMatrix(Rational[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+        this.elements = elements;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
+        this.rows = rows;
+        this.columns = columns;
     }
 
     public QMatrix(int size, Generator generator) {
@@ -21,7 +49,7 @@ public class QMatrix {
 
         for(int row = 0; row < rows; row++) {
             for(int column = 0; column < columns; column++) {
-                this.elements[row][column] = generator.getValue(row, column);
+                this.elements[row * columns + column] = generator.getValue(row, column);
             }
         }
     }
@@ -42,12 +70,31 @@ public class QMatrix {
         return new QMatrix(size, size, (row, column) -> row == column ? Rational.ONE : Rational.ZERO);
     }
 
+    /**
+     * Recovers a rational matrix from its residues modulo {@code modulus}, as
+     * {@link QVector#reconstruct(BigInteger[], BigInteger)} does with the entries in row-major order. Returns null if
+     * some entry has no reconstruction.
+     */
+    public static QMatrix reconstruct(ZMatrix residues, BigInteger modulus) {
+        int rows = residues.getRowCount(), columns = residues.getColumnCount();
+        BigInteger[] values = new BigInteger[rows * columns];
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                values[row * columns + column] = residues.get(row, column);
+            }
+        }
+
+        QVector vector = QVector.reconstruct(values, modulus);
+        return vector == null ? null : new QMatrix(rows, columns, (row, column) -> vector.get(row * columns + column));
+    }
+
     public int getRowCount() {
-        return this.elements.length;
+        return this.rows;
     }
 
     public int getColumnCount() {
-        return this.elements[0].length;
+        return this.columns;
     }
 
     public boolean isSquare() {
@@ -63,11 +110,11 @@ public class QMatrix {
     }
 
     public Rational get(int row, int column) {
-        return this.elements[row][column];
+        return this.elements[this.offset + row * this.rowStride + column * this.columnStride];
     }
 
     public QMatrix set(int row, int column, Rational value) {
-        this.elements[row][column] = value;
+        this.elements[this.offset + row * this.rowStride + column * this.columnStride] = value;
         return this;
     }
 
@@ -114,13 +161,39 @@ public class QMatrix {
     }
 
     public QVector.View getRow(int row) {
-        return new QVector.View(this.getColumnCount(),
-                column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new QVector.View(this.getColumnCount(),
+                    column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        }
+
+        return new QVector.View(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
     }
 
     public QVector.View getColumn(int column) {
-        return new QVector.View(this.getRowCount(),
-                row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new QVector.View(this.getRowCount(),
+                    row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        }
+
+        return new QVector.View(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
+    }
+
+    /**
+     * Like {@link #getRow(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public QVector.View getRow(int row, QVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getRow(row);
+        return view.retarget(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
+    }
+
+    /**
+     * Like {@link #getColumn(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public QVector.View getColumn(int column, QVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getColumn(column);
+        return view.retarget(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
     }
 
     public QVector getRowCopy(int row) {
@@ -215,7 +288,19 @@ public class QMatrix {
     }
 
     public QMatrix transpose() {
-        return new QMatrix(this.getColumnCount(), this.getRowCount(), (row, column) -> this.get(column, row));
+        return this.transposeView().copy();
+    }
+
+    /**
+     * Returns the transpose as a view sharing this matrix's storage, so writes go through to both.
+     */
+    public QMatrix transposeView() {
+        if(this.elements == null) {
+            return new QMatrix.View(this.getColumnCount(), this.getRowCount(),
+                    (row, column) -> this.get(column, row), (row, column, value) -> this.set(column, row, value));
+        }
+
+        return new QMatrix.View(this.elements, this.offset, this.columnStride, this.rowStride, this.columns, this.rows);
     }
 
     public QMatrix transposeAndSet() {
@@ -258,14 +343,82 @@ public class QMatrix {
         return this.mapAndSet((row, column, oldValue) -> oldValue.subtract(other.get(row, column)));
     }
 
+    /**
+     * Multiplies square-ish matrices past {@link ZMatrix#STRASSEN_THRESHOLD} over the integers, which lets
+     * {@link ZMatrix} pick Strassen-Winograd, and smaller ones with fork/join tiles on the common pool. The integral
+     * route stays parallel, since {@link ZMatrix#multiply(ZMatrix)} runs its sub-products and classical rows on
+     * the common pool as well.
+     */
     public QMatrix multiply(QMatrix other) {
+        if(this.getColumnCount() == other.getRowCount()
+                && ZMatrix.isSquareish(this.getRowCount(), this.getColumnCount(), other.getColumnCount())) {
+            return this.multiplyIntegral(other);
+        }
+
+        return this.multiply(other, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Scales every row of this matrix and every column of {@code other} by the lcm of its denominators, multiplies
+     * the resulting integer matrices and divides the two scales back out of each entry.
+     */
+    private QMatrix multiplyIntegral(QMatrix other) {
+        int m = this.getRowCount(), k = this.getColumnCount(), n = other.getColumnCount();
+        BigInteger[] rowScales = new BigInteger[m], columnScales = new BigInteger[n];
+
+        for(int row = 0; row < m; row++) {
+            rowScales[row] = BigInteger.ONE;
+
+            for(int i = 0; i < k; i++) {
+                rowScales[row] = lcm(rowScales[row], this.get(row, i).getDenominator());
+            }
+        }
+
+        for(int column = 0; column < n; column++) {
+            columnScales[column] = BigInteger.ONE;
+
+            for(int i = 0; i < k; i++) {
+                columnScales[column] = lcm(columnScales[column], other.get(i, column).getDenominator());
+            }
+        }
+
+        ZMatrix a = new ZMatrix(m, k, (row, column) -> scale(this.get(row, column), rowScales[row]));
+        ZMatrix b = new ZMatrix(k, n, (row, column) -> scale(other.get(row, column), columnScales[column]));
+        ZMatrix product = a.multiply(b);
+        return new QMatrix(m, n, (row, column) -> Rational.of(product.get(row, column), rowScales[row].multiply(columnScales[column])));
+    }
+
+    private static BigInteger lcm(BigInteger a, BigInteger b) {
+        return a.equals(b) || b.equals(BigInteger.ONE) ? a : a.divide(a.gcd(b)).multiply(b);
+    }
+
+    private static BigInteger scale(Rational value, BigInteger scale) {
+        return value.getNumerator().multiply(scale.divide(value.getDenominator()));
+    }
+
+    /**
+     * Splits the product into tiles of at most {@code threshold x threshold} entries and computes them as fork/join
+     * tasks on {@code pool}. A product that fits in a single tile stays on the calling thread.
+     */
+    public QMatrix multiply(QMatrix other, ForkJoinPool pool, int threshold) {
         if(this.getColumnCount() != other.getRowCount()) {
             throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
         }
 
-        QVector[] rows = this.getRows();
-        QVector[] columns = other.getColumns();
-        return new QMatrix(rows.length, columns.length, (row, column) -> rows[row].dot(columns[column]));
+        if(threshold <= 0) {
+            throw new IllegalArgumentException("Tile threshold should be positive");
+        }
+
+        QMatrix result = new QMatrix(this.getRowCount(), other.getColumnCount());
+        Multiplication task = new Multiplication(this, other, result, 0, result.getRowCount(), 0, result.getColumnCount(), threshold);
+
+        if(task.isTile()) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        return result;
     }
 
     public QMatrix multiplyAndSet(QMatrix other) {
@@ -312,7 +465,30 @@ public class QMatrix {
     }
 
     public Rational getDeterminant() {
-        return this.luDecompose().getDeterminant();
+        if(this.getRowCount() >= MultiModular.THRESHOLD) {
+            return this.multiModular().getDeterminant();
+        }
+
+        return this.bareiss().getDeterminant();
+    }
+
+    public int getRank() {
+        return this.bareiss().getRank();
+    }
+
+    /**
+     * Returns a matrix whose columns are a basis of the kernel, see {@link NullSpace}.
+     */
+    public QMatrix getNullSpace() {
+        return NullSpace.of(this);
+    }
+
+    public Bareiss bareiss() {
+        return Bareiss.of(this);
+    }
+
+    public MultiModular multiModular() {
+        return MultiModular.of(this);
     }
 
     public LUDecomposition.Q luDecompose() {
@@ -320,9 +496,14 @@ public class QMatrix {
     }
 
     public QMatrix sub(int r1, int c1, int rowCount, int columnCount) {
-        return new QMatrix.View(rowCount, columnCount,
-                (row, column) -> this.get(r1 + row, c1 + column),
-                (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        if(this.elements == null) {
+            return new QMatrix.View(rowCount, columnCount,
+                    (row, column) -> this.get(r1 + row, c1 + column),
+                    (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        }
+
+        return new QMatrix.View(this.elements, this.offset + r1 * this.rowStride + c1 * this.columnStride,
+                this.rowStride, this.columnStride, rowCount, columnCount);
     }
 
     public QMatrix subCopy(int r1, int c1, int rowCount, int columnCount) {
@@ -342,6 +523,12 @@ public class QMatrix {
     }
 
     public QMatrix copy() {
+        if(this.elements != null && this.columnStride == 1 && this.rowStride == this.columns) {
+            QMatrix copy = new QMatrix(this.rows, this.columns);
+            System.arraycopy(this.elements, this.offset, copy.elements, 0, this.rows * this.columns);
+            return copy;
+        }
+
         return new QMatrix(this.getRowCount(), this.getColumnCount(), this.toGenerator());
     }
 
@@ -385,38 +572,81 @@ public class QMatrix {
         return sb.toString();
     }
 
+    private static class Multiplication extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final QMatrix left;
+        private final QMatrix right;
+        private final QMatrix result;
+        private final int r1, r2, c1, c2;
+        private final int threshold;
+
+        private Multiplication(QMatrix left, QMatrix right, QMatrix result, int r1, int r2, int c1, int c2, int threshold) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.r1 = r1;
+            this.r2 = r2;
+            this.c1 = c1;
+            this.c2 = c2;
+            this.threshold = threshold;
+        }
+
+        private boolean isTile() {
+            return this.r2 - this.r1 <= this.threshold && this.c2 - this.c1 <= this.threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.isTile()) {
+                for(int row = this.r1; row < this.r2; row++) {
+                    for(int column = this.c1; column < this.c2; column++) {
+                        Rational sum = Rational.ZERO;
+
+                        for(int i = 0; i < this.left.getColumnCount(); i++) {
+                            sum = sum.add(this.left.get(row, i).multiply(this.right.get(i, column)));
+                        }
+
+                        this.result.set(row, column, sum);
+                    }
+                }
+            } else if(this.r2 - this.r1 >= this.c2 - this.c1) {
+                int middle = (this.r1 + this.r2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, middle, this.c1, this.c2, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, middle, this.r2, this.c1, this.c2, this.threshold));
+            } else {
+                int middle = (this.c1 + this.c2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, this.r2, this.c1, middle, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, this.r1, this.r2, middle, this.c2, this.threshold));
+            }
+        }
+    }
+
     public static class View extends QMatrix {
-        private final int rows;
-        private final int columns;
         private final Generator getter;
         private final View.Setter setter;
 
         public View(int rows, int columns, Generator getter, Setter setter) {
-            super(0, 0);
-            this.rows = rows;
-            this.columns = columns;
+            super(null, 0, 0, 0, rows, columns);
             this.getter = getter;
             this.setter = setter;
         }
 
-        @Override
-        public int getRowCount() {
-            return this.rows;
-        }
-
-        @Override
-        public int getColumnCount() {
-            return this.columns;
+        public View(Rational[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+            super(elements, offset, rowStride, columnStride, rows, columns);
+            this.getter = null;
+            this.setter = null;
         }
 
         @Override
         public Rational get(int row, int column) {
-            return this.getter.getValue(row, column);
+            return this.getter == null ? super.get(row, column) : this.getter.getValue(row, column);
         }
 
         @Override
         public QMatrix set(int row, int column, Rational value) {
-            this.setter.set(row, column, value);
+            if(this.setter == null)super.set(row, column, value);
+            else this.setter.set(row, column, value);
             return this;
         }
 
@@ -432,7 +662,7 @@ public class QMatrix {
         private final int split;
 
         public Augmented(QMatrix base, QMatrix extra) {
-            super(0, 0);
+            super(null, 0, 0, 0, 0, 0);
             this.base = base;
             this.extra = extra;
             this.split = base.getColumnCount();
@@ -5,12 +5,36 @@ import kaptainwutax.mathutils.component.vector.CVector;
 import kaptainwutax.mathutils.component.vector.RVector;
 import kaptainwutax.mathutils.decomposition.LUDecomposition;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class RMatrix {
 
-    private final Real[][] elements;
+    public static final int PARALLEL_THRESHOLD = 16;
+
+    private final Real[] elements;
+    private final int offset;
+    private final int rowStride;
+    private final int columnStride;
+    private final int rows;
+    private final int columns;
 
     protected RMatrix(int rows, int columns) {
-        this.elements = new Real[rows][columns];
+        this(new Real[rows * columns], 0, columns, 1, rows, columns);
+    }
+
+    /**
+     * Backs the matrix with entries of {@code elements}, where entry {@code (row, column)} sits at
+     * {@code offset + row * rowStride + column * columnStride}. No copy is made. Subclasses that provide their own
+     * accessors pass {@code null} instead.
+     */
+    protected RMatrix(Real[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+        this.elements = elements;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
+        this.rows = rows;
+        this.columns = columns;
     }
 
     public RMatrix(int size, Generator generator) {
@@ -22,7 +46,7 @@ public class RMatrix {
 
         for(int row = 0; row < rows; row++) {
             for(int column = 0; column < columns; column++) {
-                this.elements[row][column] = generator.getValue(row, column);
+                this.elements[row * columns + column] = generator.getValue(row, column);
             }
         }
     }
@@ -44,11 +68,11 @@ public class RMatrix {
     }
 
     public int getRowCount() {
-        return this.elements.length;
+        return this.rows;
     }
 
     public int getColumnCount() {
-        return this.elements[0].length;
+        return this.columns;
     }
 
     public boolean isSquare() {
@@ -64,11 +88,11 @@ public class RMatrix {
     }
 
     public Real get(int row, int column) {
-        return this.elements[row][column];
+        return this.elements[this.offset + row * this.rowStride + column * this.columnStride];
     }
 
     public RMatrix set(int row, int column, Real value) {
-        this.elements[row][column] = value;
+        this.elements[this.offset + row * this.rowStride + column * this.columnStride] = value;
         return this;
     }
 
@@ -115,13 +139,39 @@ public class RMatrix {
     }
 
     public RVector.View getRow(int row) {
-        return new RVector.View(this.getColumnCount(),
-                column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new RVector.View(this.getColumnCount(),
+                    column -> this.get(row, column), (column, value) -> this.set(row, column, value));
+        }
+
+        return new RVector.View(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
     }
 
     public RVector.View getColumn(int column) {
-        return new RVector.View(this.getRowCount(),
-                row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        if(this.elements == null) {
+            return new RVector.View(this.getRowCount(),
+                    row -> this.get(row, column), (row, value) -> this.set(row, column, value));
+        }
+
+        return new RVector.View(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
+    }
+
+    /**
+     * Like {@link #getRow(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public RVector.View getRow(int row, RVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getRow(row);
+        return view.retarget(this.elements, this.offset + row * this.rowStride, this.columnStride, this.columns);
+    }
+
+    /**
+     * Like {@link #getColumn(int)}, but retargets {@code view} instead of allocating a new one whenever both the
+     * matrix and the view are backed by flat storage. A null {@code view} is allocated, so loops can start from one.
+     */
+    public RVector.View getColumn(int column, RVector.View view) {
+        if(this.elements == null || view == null || !view.isStrided())return this.getColumn(column);
+        return view.retarget(this.elements, this.offset + column * this.columnStride, this.rowStride, this.rows);
     }
 
     public RVector getRowCopy(int row) {
@@ -216,7 +266,19 @@ public class RMatrix {
     }
 
     public RMatrix transpose() {
-        return new RMatrix(this.getColumnCount(), this.getRowCount(), (row, column) -> this.get(column, row));
+        return this.transposeView().copy();
+    }
+
+    /**
+     * Returns the transpose as a view sharing this matrix's storage, so writes go through to both.
+     */
+    public RMatrix transposeView() {
+        if(this.elements == null) {
+            return new RMatrix.View(this.getColumnCount(), this.getRowCount(),
+                    (row, column) -> this.get(column, row), (row, column, value) -> this.set(column, row, value));
+        }
+
+        return new RMatrix.View(this.elements, this.offset, this.columnStride, this.rowStride, this.columns, this.rows);
     }
 
     public RMatrix transposeAndSet() {
@@ -260,13 +322,32 @@ public class RMatrix {
     }
 
     public RMatrix multiply(RMatrix other) {
+        return this.multiply(other, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Splits the product into tiles of at most {@code threshold x threshold} entries and computes them as fork/join
+     * tasks on {@code pool}. A product that fits in a single tile stays on the calling thread.
+     */
+    public RMatrix multiply(RMatrix other, ForkJoinPool pool, int threshold) {
         if(this.getColumnCount() != other.getRowCount()) {
             throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
         }
 
-        RVector[] rows = this.getRows();
-        RVector[] columns = other.getColumns();
-        return new RMatrix(rows.length, columns.length, (row, column) -> rows[row].dot(columns[column]));
+        if(threshold <= 0) {
+            throw new IllegalArgumentException("Tile threshold should be positive");
+        }
+
+        RMatrix result = new RMatrix(this.getRowCount(), other.getColumnCount());
+        Multiplication task = new Multiplication(this, other, result, 0, result.getRowCount(), 0, result.getColumnCount(), threshold);
+
+        if(task.isTile()) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        return result;
     }
 
     public RMatrix multiplyAndSet(RMatrix other) {
@@ -321,9 +402,14 @@ public class RMatrix {
     }
 
     public RMatrix sub(int r1, int c1, int rowCount, int columnCount) {
-        return new RMatrix.View(rowCount, columnCount,
-                (row, column) -> this.get(r1 + row, c1 + column),
-                (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        if(this.elements == null) {
+            return new RMatrix.View(rowCount, columnCount,
+                    (row, column) -> this.get(r1 + row, c1 + column),
+                    (row, column, value) -> this.set(r1 + row, c1 + column, value));
+        }
+
+        return new RMatrix.View(this.elements, this.offset + r1 * this.rowStride + c1 * this.columnStride,
+                this.rowStride, this.columnStride, rowCount, columnCount);
     }
 
     public RMatrix subCopy(int r1, int c1, int rowCount, int columnCount) {
@@ -343,6 +429,12 @@ public class RMatrix {
     }
 
     public RMatrix copy() {
+        if(this.elements != null && this.columnStride == 1 && this.rowStride == this.columns) {
+            RMatrix copy = new RMatrix(this.rows, this.columns);
+            System.arraycopy(this.elements, this.offset, copy.elements, 0, this.rows * this.columns);
+            return copy;
+        }
+
         return new RMatrix(this.getRowCount(), this.getColumnCount(), this.toGenerator());
     }
 
@@ -386,38 +478,81 @@ public class RMatrix {
         return sb.toString();
     }
 
+    private static class Multiplication extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RMatrix left;
+        private final RMatrix right;
+        private final RMatrix result;
+        private final int r1, r2, c1, c2;
+        private final int threshold;
+
+        private Multiplication(RMatrix left, RMatrix right, RMatrix result, int r1, int r2, int c1, int c2, int threshold) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.r1 = r1;
+            this.r2 = r2;
+            this.c1 = c1;
+            this.c2 = c2;
+            this.threshold = threshold;
+        }
+
+        private boolean isTile() {
+            return this.r2 - this.r1 <= this.threshold && this.c2 - this.c1 <= this.threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.isTile()) {
+                for(int row = this.r1; row < this.r2; row++) {
+                    for(int column = this.c1; column < this.c2; column++) {
+                        Real sum = Real.ZERO;
+
+                        for(int i = 0; i < this.left.getColumnCount(); i++) {
+                            sum = sum.add(this.left.get(row, i).multiply(this.right.get(i, column)));
+                        }
+
+                        this.result.set(row, column, sum);
+                    }
+                }
+            } else if(this.r2 - this.r1 >= this.c2 - this.c1) {
+                int middle = (this.r1 + this.r2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, middle, this.c1, this.c2, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, middle, this.r2, this.c1, this.c2, this.threshold));
+            } else {
+                int middle = (this.c1 + this.c2) >>> 1;
+                invokeAll(new Multiplication(this.left, this.right, this.result, this.r1, this.r2, this.c1, middle, this.threshold),
+                        new Multiplication(this.left, this.right, this.result, this.r1, this.r2, middle, this.c2, this.threshold));
+            }
+        }
+    }
+
     public static class View extends RMatrix {
-        private final int rows;
-        private final int columns;
         private final Generator getter;
         private final View.Setter setter;
 
         public View(int rows, int columns, Generator getter, Setter setter) {
-            super(0, 0);
-            this.rows = rows;
-            this.columns = columns;
+            super(null, 0, 0, 0, rows, columns);
             this.getter = getter;
             this.setter = setter;
         }
 
-        @Override
-        public int getRowCount() {
-            return this.rows;
-        }
-
-        @Override
-        public int getColumnCount() {
-            return this.columns;
+        public View(Real[] elements, int offset, int rowStride, int columnStride, int rows, int columns) {
+            super(elements, offset, rowStride, columnStride, rows, columns);
+            this.getter = null;
+            this.setter = null;
         }
 
         @Override
         public Real get(int row, int column) {
-            return this.getter.getValue(row, column);
+            return this.getter == null ? super.get(row, column) : this.getter.getValue(row, column);
         }
 
         @Override
         public RMatrix set(int row, int column, Real value) {
-            this.setter.set(row, column, value);
+            if(this.setter == null)super.set(row, column, value);
+            else this.setter.set(row, column, value);
             return this;
         }
 
@@ -433,7 +568,7 @@ public class RMatrix {
         private final int split;
 
         public Augmented(RMatrix base, RMatrix extra) {
-            super(0, 0);
+            super(null, 0, 0, 0, 0, 0);
             this.base = base;
             this.extra = extra;
             this.split = base.getColumnCount();
@@ -0,0 +1,326 @@
+package kaptainwutax.mathutils.component.matrix;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.vector.QVector;
+import kaptainwutax.mathutils.solver.Markowitz;
+
+import java.util.Arrays;
+
+/**
+ * An immutable rational matrix in compressed sparse row form. Only the nonzero entries are stored. The entries of
+ * row {@code i} are {@code getRowStart(i) <= k < getRowEnd(i)}, sorted by column. The transpose is the same
+ * structure read by columns, so it also serves as the compressed sparse column form. Elimination goes through
+ * {@link Markowitz}.
+ */
+public class SparseQMatrix {
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final Rational[] values;
+
+    protected SparseQMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, Rational[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    public SparseQMatrix(int rows, int columns, QMatrix.Generator generator) {
+        Builder builder = new Builder(rows, columns);
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                builder.add(row, column, generator.getValue(row, column));
+            }
+        }
+
+        SparseQMatrix built = builder.build();
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = built.rowPointers;
+        this.columnIndices = built.columnIndices;
+        this.values = built.values;
+    }
+
+    public static SparseQMatrix of(QMatrix matrix) {
+        return new SparseQMatrix(matrix.getRowCount(), matrix.getColumnCount(), matrix::get);
+    }
+
+    public static SparseQMatrix zero(int rows, int columns) {
+        return new Builder(rows, columns).build();
+    }
+
+    public static SparseQMatrix identity(int size) {
+        Builder builder = new Builder(size, size);
+
+        for(int i = 0; i < size; i++) {
+            builder.add(i, i, Rational.ONE);
+        }
+
+        return builder.build();
+    }
+
+    public static Builder builder(int rows, int columns) {
+        return new Builder(rows, columns);
+    }
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.columns;
+    }
+
+    public boolean isSquare() {
+        return this.rows == this.columns;
+    }
+
+    public int getNonZeroCount() {
+        return this.values.length;
+    }
+
+    public int getRowStart(int row) {
+        return this.rowPointers[row];
+    }
+
+    public int getRowEnd(int row) {
+        return this.rowPointers[row + 1];
+    }
+
+    public int getColumnIndex(int entry) {
+        return this.columnIndices[entry];
+    }
+
+    public Rational getValue(int entry) {
+        return this.values[entry];
+    }
+
+    public Rational get(int row, int column) {
+        int index = Arrays.binarySearch(this.columnIndices, this.rowPointers[row], this.rowPointers[row + 1], column);
+        return index < 0 ? Rational.ZERO : this.values[index];
+    }
+
+    public QVector getRowCopy(int row) {
+        Rational[] result = new Rational[this.columns];
+        Arrays.fill(result, Rational.ZERO);
+
+        for(int k = this.rowPointers[row]; k < this.rowPointers[row + 1]; k++) {
+            result[this.columnIndices[k]] = this.values[k];
+        }
+
+        return new QVector(result);
+    }
+
+    public QVector multiply(QVector vector) {
+        if(this.columns != vector.getDimension()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix columns");
+        }
+
+        Rational[] result = new Rational[this.rows];
+
+        for(int row = 0; row < this.rows; row++) {
+            Rational sum = Rational.ZERO;
+
+            for(int k = this.rowPointers[row]; k < this.rowPointers[row + 1]; k++) {
+                Rational value = vector.get(this.columnIndices[k]);
+                if(value.signum() != 0)sum = sum.add(this.values[k].multiply(value));
+            }
+
+            result[row] = sum;
+        }
+
+        return new QVector(result);
+    }
+
+    public SparseQMatrix multiply(Rational scalar) {
+        if(scalar.signum() == 0)return zero(this.rows, this.columns);
+        Rational[] values = new Rational[this.values.length];
+
+        for(int k = 0; k < values.length; k++) {
+            values[k] = this.values[k].multiply(scalar);
+        }
+
+        return new SparseQMatrix(this.rows, this.columns, this.rowPointers, this.columnIndices, values);
+    }
+
+    /**
+     * Transposes with a counting sort over the columns, in time linear in the number of nonzero entries.
+     */
+    public SparseQMatrix transpose() {
+        int[] pointers = new int[this.columns + 1];
+
+        for(int column : this.columnIndices) {
+            pointers[column + 1]++;
+        }
+
+        for(int column = 0; column < this.columns; column++) {
+            pointers[column + 1] += pointers[column];
+        }
+
+        int[] next = Arrays.copyOf(pointers, this.columns);
+        int[] indices = new int[this.values.length];
+        Rational[] values = new Rational[this.values.length];
+
+        for(int row = 0; row < this.rows; row++) {
+            for(int k = this.rowPointers[row]; k < this.rowPointers[row + 1]; k++) {
+                int target = next[this.columnIndices[k]]++;
+                indices[target] = row;
+                values[target] = this.values[k];
+            }
+        }
+
+        return new SparseQMatrix(this.columns, this.rows, pointers, indices, values);
+    }
+
+    public int getRank() {
+        return Markowitz.getRank(this);
+    }
+
+    /**
+     * Returns one solution of {@code this * x = b}, with every free variable set to zero, or null if there is none.
+     */
+    public QVector solve(QVector b) {
+        return Markowitz.solve(this, b);
+    }
+
+    public QMatrix toQMatrix() {
+        QMatrix result = QMatrix.zero(this.rows, this.columns);
+
+        for(int row = 0; row < this.rows; row++) {
+            for(int k = this.rowPointers[row]; k < this.rowPointers[row + 1]; k++) {
+                result.set(row, this.columnIndices[k], this.values[k]);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.rows * 961 + this.columns * 31;
+        result = 31 * result + Arrays.hashCode(this.rowPointers);
+        result = 31 * result + Arrays.hashCode(this.columnIndices);
+        return 31 * result + Arrays.hashCode(this.values);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof SparseQMatrix))return false;
+        SparseQMatrix matrix = (SparseQMatrix)other;
+        return this.rows == matrix.rows && this.columns == matrix.columns
+            && Arrays.equals(this.rowPointers, matrix.rowPointers)
+            && Arrays.equals(this.columnIndices, matrix.columnIndices)
+            && Arrays.equals(this.values, matrix.values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int row = 0; row < this.rows; row++) {
+            sb.append(row).append(':');
+
+            for(int k = this.rowPointers[row]; k < this.rowPointers[row + 1]; k++) {
+                sb.append(" (").append(this.columnIndices[k]).append(", ").append(this.values[k]).append(')');
+            }
+
+            if(row < this.rows - 1)sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Collects entries in any order. Entries at the same position are summed, and zeros are dropped on
+     * {@link #build()}.
+     */
+    public static class Builder {
+        private final int rows;
+        private final int columns;
+        private int[] entryRows = new int[16];
+        private int[] entryColumns = new int[16];
+        private Rational[] entryValues = new Rational[16];
+        private int size;
+
+        protected Builder(int rows, int columns) {
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        public Builder add(int row, int column, Rational value) {
+            if(row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+                throw new IndexOutOfBoundsException("Entry (" + row + ", " + column + ") is outside the matrix");
+            }
+
+            if(value.signum() == 0)return this;
+
+            if(this.size == this.entryValues.length) {
+                this.entryRows = Arrays.copyOf(this.entryRows, 2 * this.size);
+                this.entryColumns = Arrays.copyOf(this.entryColumns, 2 * this.size);
+                this.entryValues = Arrays.copyOf(this.entryValues, 2 * this.size);
+            }
+
+            this.entryRows[this.size] = row;
+            this.entryColumns[this.size] = column;
+            this.entryValues[this.size++] = value;
+            return this;
+        }
+
+        public SparseQMatrix build() {
+            Integer[] order = new Integer[this.size];
+
+            for(int i = 0; i < this.size; i++) {
+                order[i] = i;
+            }
+
+            Arrays.sort(order, (a, b) -> this.entryRows[a] != this.entryRows[b]
+                ? Integer.compare(this.entryRows[a], this.entryRows[b])
+                : Integer.compare(this.entryColumns[a], this.entryColumns[b]));
+
+            int[] pointers = new int[this.rows + 1];
+            int[] indices = new int[this.size];
+            Rational[] values = new Rational[this.size];
+            int count = 0;
+
+            for(int i = 0; i < this.size; i++) {
+                int entry = order[i];
+                int row = this.entryRows[entry], column = this.entryColumns[entry];
+
+                if(count > 0 && indices[count - 1] == column && pointers[row + 1] > 0) {
+                    values[count - 1] = values[count - 1].add(this.entryValues[entry]);
+                } else {
+                    indices[count] = column;
+                    values[count++] = this.entryValues[entry];
+                    pointers[row + 1]++;
+                }
+            }
+
+            int compacted = 0;
+
+            for(int row = 0, k = 0; row < this.rows; row++) {
+                int end = k + pointers[row + 1];
+                pointers[row + 1] = 0;
+
+                for(; k < end; k++) {
+                    if(values[k].signum() == 0)continue;
+                    indices[compacted] = indices[k];
+                    values[compacted++] = values[k];
+                    pointers[row + 1]++;
+                }
+            }
+
+            for(int row = 0; row < this.rows; row++) {
+                pointers[row + 1] += pointers[row];
+            }
+
+            return new SparseQMatrix(this.rows, this.columns, pointers, Arrays.copyOf(indices, compacted),
+                Arrays.copyOf(values, compacted));
+        }
+    }
+
+}
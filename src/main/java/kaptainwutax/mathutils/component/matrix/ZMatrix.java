@@ -0,0 +1,492 @@
+package kaptainwutax.mathutils.component.matrix;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.vector.ZVector;
+import kaptainwutax.mathutils.decomposition.Bareiss;
+import kaptainwutax.mathutils.decomposition.MultiModular;
+import kaptainwutax.mathutils.solver.NullSpace;
+import kaptainwutax.mathutils.util.Mth;
+
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
+/**
+ * An integer matrix stored as one {@link ZVector} per row. Each row holds primitive longs and is moved over to
+ * {@link BigInteger} entries on its own when an operation would overflow, so one large row does not slow down
+ * the rest of the matrix.
+ */
+public class ZMatrix {
+
+    public static final int STRASSEN_THRESHOLD = 96;
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private final ZVector[] rows;
+    private final int columns;
+
+    protected ZMatrix(int rows, int columns) {
+        this.rows = new ZVector[rows];
+        this.columns = columns;
+
+        for(int row = 0; row < rows; row++) {
+            this.rows[row] = ZVector.zero(columns);
+        }
+    }
+
+    public ZMatrix(int size, Generator generator) {
+        this(size, size, generator);
+    }
+
+    public ZMatrix(int rows, int columns, Generator generator) {
+        this(rows, columns);
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                this.rows[row].set(column, generator.getValue(row, column));
+            }
+        }
+    }
+
+    public ZMatrix(ZVector... rows) {
+        this.rows = new ZVector[rows.length];
+        this.columns = rows[0].getDimension();
+
+        for(int row = 0; row < rows.length; row++) {
+            this.rows[row] = rows[row].copy();
+        }
+    }
+
+    public ZMatrix(long[]... elements) {
+        this.rows = new ZVector[elements.length];
+        this.columns = elements[0].length;
+
+        for(int row = 0; row < elements.length; row++) {
+            this.rows[row] = new ZVector(elements[row].clone());
+        }
+    }
+
+    public ZMatrix(BigInteger[]... elements) {
+        this(elements.length, elements[0].length, (row, column) -> elements[row][column]);
+    }
+
+    public static ZMatrix zero(int rows, int columns) {
+        return new ZMatrix(rows, columns);
+    }
+
+    public static ZMatrix identity(int size) {
+        ZMatrix identity = new ZMatrix(size, size);
+
+        for(int i = 0; i < size; i++) {
+            identity.set(i, i, 1L);
+        }
+
+        return identity;
+    }
+
+    /**
+     * Converts a rational matrix whose entries are all integers, throwing an {@link ArithmeticException} otherwise.
+     */
+    public static ZMatrix of(QMatrix matrix) {
+        ZMatrix result = new ZMatrix(matrix.getRowCount(), matrix.getColumnCount());
+
+        for(int row = 0; row < result.getRowCount(); row++) {
+            result.rows[row] = ZVector.of(matrix.getRow(row));
+        }
+
+        return result;
+    }
+
+    public int getRowCount() {
+        return this.rows.length;
+    }
+
+    public int getColumnCount() {
+        return this.columns;
+    }
+
+    public boolean isSquare() {
+        return this.getRowCount() == this.getColumnCount();
+    }
+
+    /**
+     * Returns whether every row is currently stored as primitive longs.
+     */
+    public boolean isSmall() {
+        for(ZVector row : this.rows) {
+            if(!row.isSmall())return false;
+        }
+
+        return true;
+    }
+
+    public Generator toGenerator() {
+        return this::get;
+    }
+
+    public BigInteger get(int row, int column) {
+        return this.rows[row].get(column);
+    }
+
+    public long getLong(int row, int column) {
+        return this.rows[row].getLong(column);
+    }
+
+    public ZMatrix set(int row, int column, long value) {
+        this.rows[row].set(column, value);
+        return this;
+    }
+
+    public ZMatrix set(int row, int column, BigInteger value) {
+        this.rows[row].set(column, value);
+        return this;
+    }
+
+    /**
+     * Returns the row itself rather than a copy, so writes to it go through to the matrix.
+     */
+    public ZVector getRow(int row) {
+        return this.rows[row];
+    }
+
+    public ZVector getRowCopy(int row) {
+        return this.rows[row].copy();
+    }
+
+    public ZVector getColumnCopy(int column) {
+        return new ZVector(this.getRowCount(), row -> this.get(row, column));
+    }
+
+    public ZMatrix setRow(int row, ZVector value) {
+        if(value.getDimension() != this.getColumnCount()) {
+            throw new IllegalArgumentException("Row length should equal the number of matrix columns");
+        }
+
+        this.rows[row] = value.copy();
+        return this;
+    }
+
+    public ZMatrix setColumn(int column, ZVector value) {
+        for(int row = 0; row < this.getRowCount(); row++) {
+            this.rows[row].set(column, value.get(row));
+        }
+
+        return this;
+    }
+
+    public ZMatrix swapRowsAndSet(int r1, int r2) {
+        ZVector oldRow = this.rows[r1];
+        this.rows[r1] = this.rows[r2];
+        this.rows[r2] = oldRow;
+        return this;
+    }
+
+    public ZMatrix swapColumnsAndSet(int c1, int c2) {
+        for(ZVector row : this.rows) {
+            BigInteger oldValue = row.get(c1);
+            row.set(c1, row.get(c2)).set(c2, oldValue);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds {@code factor} times row {@code source} to row {@code target}.
+     */
+    public ZMatrix addRowMultipleAndSet(int target, int source, long factor) {
+        this.rows[target].addMultipleAndSet(this.rows[source], factor);
+        return this;
+    }
+
+    public ZMatrix addRowMultipleAndSet(int target, int source, BigInteger factor) {
+        this.rows[target].addMultipleAndSet(this.rows[source], factor);
+        return this;
+    }
+
+    public ZMatrix scaleRowAndSet(int row, long factor) {
+        this.rows[row].scaleAndSet(factor);
+        return this;
+    }
+
+    public ZMatrix scaleRowAndSet(int row, BigInteger factor) {
+        this.rows[row].scaleAndSet(factor);
+        return this;
+    }
+
+    public ZMatrix negateRowAndSet(int row) {
+        this.rows[row].negateAndSet();
+        return this;
+    }
+
+    /**
+     * Copies the {@code rowCount x columnCount} block starting at {@code (r1, c1)}, padding with zeros past the
+     * edges of the matrix.
+     */
+    private ZMatrix block(int r1, int c1, int rowCount, int columnCount) {
+        ZMatrix block = new ZMatrix(rowCount, columnCount);
+        int rowEnd = Math.min(rowCount, this.getRowCount() - r1);
+        int columnEnd = Math.min(columnCount, this.getColumnCount() - c1);
+
+        for(int row = 0; row < rowEnd; row++) {
+            ZVector source = this.rows[r1 + row], target = block.rows[row];
+
+            for(int column = 0; column < columnEnd; column++) {
+                if(source.isSmall())target.set(column, source.getLong(c1 + column));
+                else target.set(column, source.get(c1 + column));
+            }
+        }
+
+        return block;
+    }
+
+    /**
+     * Writes {@code block} with its top-left corner at {@code (r1, c1)}, dropping whatever falls past the edges of
+     * the matrix.
+     */
+    private void setBlock(int r1, int c1, ZMatrix block) {
+        int rowEnd = Math.min(block.getRowCount(), this.getRowCount() - r1);
+        int columnEnd = Math.min(block.getColumnCount(), this.getColumnCount() - c1);
+
+        for(int row = 0; row < rowEnd; row++) {
+            ZVector source = block.rows[row], target = this.rows[r1 + row];
+
+            for(int column = 0; column < columnEnd; column++) {
+                if(source.isSmall())target.set(c1 + column, source.getLong(column));
+                else target.set(c1 + column, source.get(column));
+            }
+        }
+    }
+
+    public ZMatrix transpose() {
+        return new ZMatrix(this.getColumnCount(), this.getRowCount(), (row, column) -> this.get(column, row));
+    }
+
+    public ZMatrix add(ZMatrix other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public ZMatrix addAndSet(ZMatrix other) {
+        if(this.getRowCount() != other.getRowCount() || this.getColumnCount() != other.getColumnCount()) {
+            throw new IllegalArgumentException("Adding two matrices with different dimensions");
+        }
+
+        for(int row = 0; row < this.getRowCount(); row++) {
+            this.rows[row].addAndSet(other.rows[row]);
+        }
+
+        return this;
+    }
+
+    public ZMatrix subtract(ZMatrix other) {
+        return this.copy().subtractAndSet(other);
+    }
+
+    public ZMatrix subtractAndSet(ZMatrix other) {
+        if(this.getRowCount() != other.getRowCount() || this.getColumnCount() != other.getColumnCount()) {
+            throw new IllegalArgumentException("Subtracting two matrices with different dimensions");
+        }
+
+        for(int row = 0; row < this.getRowCount(); row++) {
+            this.rows[row].subtractAndSet(other.rows[row]);
+        }
+
+        return this;
+    }
+
+    public ZMatrix negate() {
+        return this.copy().negateAndSet();
+    }
+
+    public ZMatrix negateAndSet() {
+        for(ZVector row : this.rows) {
+            row.negateAndSet();
+        }
+
+        return this;
+    }
+
+    public ZMatrix multiply(long scalar) {
+        return this.copy().multiplyAndSet(scalar);
+    }
+
+    public ZMatrix multiplyAndSet(long scalar) {
+        for(ZVector row : this.rows) {
+            row.scaleAndSet(scalar);
+        }
+
+        return this;
+    }
+
+    public ZMatrix multiply(BigInteger scalar) {
+        return this.copy().multiplyAndSet(scalar);
+    }
+
+    public ZMatrix multiplyAndSet(BigInteger scalar) {
+        for(ZVector row : this.rows) {
+            row.scaleAndSet(scalar);
+        }
+
+        return this;
+    }
+
+    /**
+     * Multiplies the matrices with a Strassen-Winograd recursion when they are square-ish, every side is at least
+     * {@link #STRASSEN_THRESHOLD} long and some entries no longer fit in a long. Otherwise, and below the cutoff,
+     * it uses the classical row by row product, which is faster on primitive entries. The seven half-size
+     * products of each Strassen level, and the rows of classical products past {@link #PARALLEL_THRESHOLD} cubed
+     * multiplications, run on the common pool.
+     */
+    public ZMatrix multiply(ZMatrix other) {
+        if(this.getColumnCount() != other.getRowCount()) {
+            throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
+        }
+
+        return multiplyStrassen(this, other);
+    }
+
+    /**
+     * Builds each result row as a combination of the rows of {@code other}, so that the inner loops stay on
+     * contiguous primitive arrays.
+     */
+    private ZMatrix multiplyClassical(ZMatrix other) {
+        ZMatrix result = new ZMatrix(this.getRowCount(), other.getColumnCount());
+        long work = (long)this.getRowCount() * this.getColumnCount() * other.getColumnCount();
+        IntStream rows = IntStream.range(0, this.getRowCount());
+        if(work >= (long)PARALLEL_THRESHOLD * PARALLEL_THRESHOLD * PARALLEL_THRESHOLD)rows = rows.parallel();
+        rows.forEach(row -> result.rows[row] = this.rows[row].multiply(other));
+        return result;
+    }
+
+    static boolean isSquareish(int m, int k, int n) {
+        return Mth.min(m, k, n) >= STRASSEN_THRESHOLD && Mth.max(m, k, n) <= 2 * Mth.min(m, k, n);
+    }
+
+    /**
+     * Winograd's form of Strassen's recursion, which trades one of the eight half-size products for 15 block
+     * additions. Odd sides are padded with a zero row or column, and the recursion falls back to the classical
+     * product once the blocks are no longer worth splitting.
+     */
+    private static ZMatrix multiplyStrassen(ZMatrix a, ZMatrix b) {
+        int m = a.getRowCount(), k = a.getColumnCount(), n = b.getColumnCount();
+        if(!isSquareish(m, k, n) || a.isSmall() && b.isSmall())return a.multiplyClassical(b);
+        int m2 = (m + 1) / 2, k2 = (k + 1) / 2, n2 = (n + 1) / 2;
+
+        ZMatrix a11 = a.block(0, 0, m2, k2), a12 = a.block(0, k2, m2, k2);
+        ZMatrix a21 = a.block(m2, 0, m2, k2), a22 = a.block(m2, k2, m2, k2);
+        ZMatrix b11 = b.block(0, 0, k2, n2), b12 = b.block(0, n2, k2, n2);
+        ZMatrix b21 = b.block(k2, 0, k2, n2), b22 = b.block(k2, n2, k2, n2);
+
+        ZMatrix s1 = a21.add(a22);
+        ZMatrix s2 = s1.subtract(a11);
+        ZMatrix s3 = a11.subtract(a21);
+        ZMatrix s4 = a12.subtract(s2);
+        ZMatrix t1 = b12.subtract(b11);
+        ZMatrix t2 = b22.subtract(t1);
+        ZMatrix t3 = b22.subtract(b12);
+        ZMatrix t4 = t2.subtract(b21);
+
+        ZMatrix[][] factors = {{a11, b11}, {a12, b21}, {s4, b22}, {a22, t4}, {s1, t1}, {s2, t2}, {s3, t3}};
+        ZMatrix[] products = new ZMatrix[factors.length];
+        IntStream.range(0, factors.length).parallel().forEach(i -> products[i] = multiplyStrassen(factors[i][0], factors[i][1]));
+        ZMatrix p1 = products[0], p2 = products[1], p3 = products[2], p4 = products[3];
+        ZMatrix p5 = products[4], p6 = products[5], p7 = products[6];
+
+        ZMatrix c11 = p1.add(p2);
+        ZMatrix u2 = p1.addAndSet(p6);
+        ZMatrix c12 = u2.add(p5).addAndSet(p3);
+        ZMatrix u3 = u2.addAndSet(p7);
+        ZMatrix c21 = u3.subtract(p4);
+        ZMatrix c22 = u3.addAndSet(p5);
+
+        ZMatrix result = new ZMatrix(m, n);
+        result.setBlock(0, 0, c11);
+        result.setBlock(0, n2, c12);
+        result.setBlock(m2, 0, c21);
+        result.setBlock(m2, n2, c22);
+        return result;
+    }
+
+    public ZVector multiply(ZVector vector) {
+        if(this.getColumnCount() != vector.getDimension()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix columns");
+        }
+
+        return new ZVector(this.getRowCount(), row -> this.rows[row].dot(vector));
+    }
+
+    public BigInteger getDeterminant() {
+        if(this.getRowCount() >= MultiModular.THRESHOLD) {
+            return this.multiModular().getIntegerDeterminant();
+        }
+
+        return this.bareiss().getIntegerDeterminant();
+    }
+
+    public int getRank() {
+        return this.bareiss().getRank();
+    }
+
+    /**
+     * Returns a matrix whose columns are an LLL reduced basis of the integer kernel, see {@link NullSpace}.
+     */
+    public ZMatrix getNullSpace() {
+        return NullSpace.ofInteger(this, true);
+    }
+
+    public Bareiss bareiss() {
+        return Bareiss.of(this);
+    }
+
+    public MultiModular multiModular() {
+        return MultiModular.of(this);
+    }
+
+    public QMatrix toQMatrix() {
+        return new QMatrix(this.getRowCount(), this.getColumnCount(), (row, column) -> Rational.of(this.get(row, column)));
+    }
+
+    public ZMatrix copy() {
+        return new ZMatrix(this.rows);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+
+        for(ZVector row : this.rows) {
+            result = 31 * result + row.hashCode();
+        }
+
+        return this.getRowCount() * 961 + this.getColumnCount() * 31 + result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof ZMatrix))return false;
+        ZMatrix matrix = (ZMatrix)other;
+        if(this.getRowCount() != matrix.getRowCount())return false;
+        if(this.getColumnCount() != matrix.getColumnCount())return false;
+
+        for(int row = 0; row < this.getRowCount(); row++) {
+            if(!this.rows[row].equals(matrix.rows[row]))return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < this.rows.length; i++) {
+            sb.append(this.rows[i].toString()).append(i < this.rows.length - 1 ? "\n" : "");
+        }
+
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        BigInteger getValue(int row, int column);
+    }
+
+}
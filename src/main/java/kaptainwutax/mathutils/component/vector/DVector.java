@@ -0,0 +1,267 @@
+package kaptainwutax.mathutils.component.vector;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.arithmetic.Real;
+import kaptainwutax.mathutils.component.matrix.DMatrix;
+import kaptainwutax.mathutils.util.Kernels;
+
+import java.util.Arrays;
+
+/**
+ * A vector of primitive doubles for fast numeric work such as floating-point Gram-Schmidt or preconditioning
+ * before exact computations. Results are subject to the usual floating-point rounding.
+ */
+public class DVector {
+
+    private final double[] elements;
+    private final int offset;
+    private final int stride;
+    private final int dimension;
+
+    protected DVector(int dimension) {
+        this(new double[dimension], 0, 1, dimension);
+    }
+
+    /**
+     * Backs the vector with {@code dimension} entries of {@code elements}, starting at {@code offset} and
+     * {@code stride} slots apart. No copy is made.
+     */
+    protected DVector(double[] elements, int offset, int stride, int dimension) {
+        this.elements = elements;
+        this.offset = offset;
+        this.stride = stride;
+        this.dimension = dimension;
+    }
+
+    public DVector(int dimension, Generator generator) {
+        this(dimension);
+
+        for(int i = 0; i < dimension; i++) {
+            this.elements[i] = generator.getValue(i);
+        }
+    }
+
+    public DVector(double... elements) {
+        this(elements, 0, 1, elements.length);
+    }
+
+    public static DVector zero(int dimension) {
+        return new DVector(dimension);
+    }
+
+    public static DVector basis(int dimension, int index) {
+        return basis(dimension, index, 1.0D);
+    }
+
+    public static DVector basis(int dimension, int index, double scale) {
+        return new DVector(dimension).set(index, scale);
+    }
+
+    public static DVector of(QVector vector) {
+        return new DVector(vector.getDimension(), i -> vector.get(i).doubleValue());
+    }
+
+    public static DVector of(RVector vector) {
+        return new DVector(vector.getDimension(), i -> vector.get(i).doubleValue());
+    }
+
+    public int getDimension() {
+        return this.dimension;
+    }
+
+    public Generator toGenerator() {
+        return this::get;
+    }
+
+    public double get(int index) {
+        return this.elements[this.offset + index * this.stride];
+    }
+
+    public DVector set(int index, double value) {
+        this.elements[this.offset + index * this.stride] = value;
+        return this;
+    }
+
+    public double[] getElements() {
+        double[] elements = new double[this.getDimension()];
+
+        for(int i = 0; i < elements.length; i++) {
+            elements[i] = this.get(i);
+        }
+
+        return elements;
+    }
+
+    protected void checkDimension(DVector other) {
+        if(this.getDimension() != other.getDimension()) {
+            throw new IllegalArgumentException("vectors don't have the same size");
+        }
+    }
+
+    public DVector add(DVector other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public DVector addAndSet(DVector other) {
+        return this.addMultipleAndSet(other, 1.0D);
+    }
+
+    public DVector subtract(DVector other) {
+        return this.copy().subtractAndSet(other);
+    }
+
+    public DVector subtractAndSet(DVector other) {
+        return this.addMultipleAndSet(other, -1.0D);
+    }
+
+    public DVector addMultiple(DVector other, double factor) {
+        return this.copy().addMultipleAndSet(other, factor);
+    }
+
+    /**
+     * Adds {@code factor * other} to this vector.
+     */
+    public DVector addMultipleAndSet(DVector other, double factor) {
+        this.checkDimension(other);
+        double[] a = this.elements, b = other.elements;
+        int i = this.offset, j = other.offset;
+
+        if(this.stride == 1 && other.stride == 1) {
+            Kernels.get().axpy(factor, b, j, a, i, this.dimension);
+            return this;
+        }
+
+        for(int n = 0; n < this.dimension; n++, i += this.stride, j += other.stride) {
+            a[i] += factor * b[j];
+        }
+
+        return this;
+    }
+
+    public DVector scale(double scalar) {
+        return this.copy().scaleAndSet(scalar);
+    }
+
+    public DVector scaleAndSet(double scalar) {
+        for(int n = 0, i = this.offset; n < this.dimension; n++, i += this.stride) {
+            this.elements[i] *= scalar;
+        }
+
+        return this;
+    }
+
+    public DVector divide(double scalar) {
+        return this.scale(1.0D / scalar);
+    }
+
+    public DVector divideAndSet(double scalar) {
+        return this.scaleAndSet(1.0D / scalar);
+    }
+
+    public double dot(DVector other) {
+        this.checkDimension(other);
+        double[] a = this.elements, b = other.elements;
+        if(this.stride == 1 && other.stride == 1)return Kernels.get().dot(a, this.offset, b, other.offset, this.dimension);
+        double sum = 0.0D;
+        int i = this.offset, j = other.offset;
+
+        for(int n = 0; n < this.dimension; n++, i += this.stride, j += other.stride) {
+            sum += a[i] * b[j];
+        }
+
+        return sum;
+    }
+
+    public double magnitudeSq() {
+        return this.dot(this);
+    }
+
+    public double magnitude() {
+        return Math.sqrt(this.magnitudeSq());
+    }
+
+    public DVector normalize() {
+        return this.copy().normalizeAndSet();
+    }
+
+    public DVector normalizeAndSet() {
+        double magnitude = this.magnitude();
+        return magnitude == 0.0D ? this : this.divideAndSet(magnitude);
+    }
+
+    public DVector projectOnto(DVector other) {
+        return other.scale(this.gramSchmidtCoefficient(other));
+    }
+
+    public double gramSchmidtCoefficient(DVector other) {
+        return this.dot(other) / other.magnitudeSq();
+    }
+
+    /**
+     * Multiplies this row vector by {@code matrix}, as a combination of the matrix rows.
+     */
+    public DVector multiply(DMatrix matrix) {
+        if(matrix.getRowCount() != this.getDimension()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+        }
+
+        DVector result = zero(matrix.getColumnCount());
+
+        for(int i = 0; i < this.getDimension(); i++) {
+            result.addMultipleAndSet(matrix.getRow(i), this.get(i));
+        }
+
+        return result;
+    }
+
+    public QVector toQVector() {
+        return new QVector(this.getDimension(), i -> Rational.of(this.get(i)));
+    }
+
+    public RVector toRVector() {
+        return new RVector(this.getDimension(), i -> Real.of(this.get(i)));
+    }
+
+    public DVector copy() {
+        return new DVector(this.getElements());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.getDimension() * 31 + Arrays.hashCode(this.getElements());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof DVector))return false;
+        DVector vector = (DVector)other;
+        if(this.getDimension() != vector.getDimension())return false;
+
+        for(int i = 0; i < this.getDimension(); i++) {
+            if(Double.doubleToLongBits(this.get(i)) != Double.doubleToLongBits(vector.get(i)))return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.getElements());
+    }
+
+    /**
+     * A vector sharing the storage of another vector or matrix, so writes go through to both.
+     */
+    public static class View extends DVector {
+        public View(double[] elements, int offset, int stride, int dimension) {
+            super(elements, offset, stride, dimension);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        double getValue(int index);
+    }
+
+}
@@ -30,22 +30,46 @@ public class QVector {
         return sum;
     };
 
-    private final Rational[] elements;
+    private Rational[] elements;
+    private int offset;
+    private int stride;
+    private int dimension;
 
     protected QVector(int dimension) {
-        this.elements = new Rational[dimension];
+        this(new Rational[dimension], 0, 1, dimension);
+    }
+
+    /**
+     * Backs the vector with {@code dimension} entries of {@code elements}, starting at {@code offset} and
+     * {@code stride} slots apart. No copy is made.
+     */
+    protected QVector(Rational[] elements, int offset, int stride, int dimension) {
+        this.elements = elements;
+        this.offset = offset;
+        this.stride = stride;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Points the vector at other storage, as the constructor above does. Only views move this way.
+     */
+    protected void setStorage(Rational[] elements, int offset, int stride, int dimension) {
+        this.elements = elements;
+        this.offset = offset;
+        this.stride = stride;
+        this.dimension = dimension;
     }
 
     public QVector(int dimension, Generator generator) {
         this(dimension);
 
-        for(int i = 0; i < this.elements.length; i++) {
+        for(int i = 0; i < dimension; i++) {
             this.elements[i] = generator.getValue(i);
         }
     }
 
     public QVector(Rational... elements) {
-        this.elements = elements;
+        this(elements, 0, 1, elements.length);
     }
 
     public QVector(BigInteger... elements) {
@@ -76,8 +100,38 @@ public class QVector {
         return basis(dimension, index, Rational.of(scale));
     }
 
+    /**
+     * Recovers a rational vector from its residues modulo {@code modulus}, entry by entry with
+     * {@link Rational#reconstruct(BigInteger, BigInteger)}. Each residue is first multiplied by the common denominator
+     * found so far, so usually only the first entry has to find the denominator and the rest come out as integers.
+     * The entry is kept only if it is within the bounds of an element-wise reconstruction, which makes it that
+     * reconstruction. Otherwise, as when the entries do not share their denominators, the entry is reconstructed on its
+     * own. Returns null if some entry has no reconstruction.
+     */
+    public static QVector reconstruct(BigInteger[] residues, BigInteger modulus) {
+        Rational[] result = new Rational[residues.length];
+        BigInteger denominator = BigInteger.ONE;
+        BigInteger bound = modulus.shiftRight(1).sqrt();
+
+        for(int i = 0; i < residues.length; i++) {
+            Rational value = Rational.reconstruct(residues[i].multiply(denominator), modulus);
+            Rational entry = value == null ? null : value.divide(denominator);
+            BigInteger gcd = entry == null ? null : entry.getNumerator().gcd(entry.getDenominator());
+
+            if(entry != null && entry.getNumerator().divide(gcd).abs().compareTo(bound) <= 0
+                    && entry.getDenominator().divide(gcd).compareTo(bound) <= 0) {
+                result[i] = entry;
+                denominator = denominator.multiply(value.getDenominator());
+            } else if((result[i] = Rational.reconstruct(residues[i], modulus)) == null) {
+                return null;
+            }
+        }
+
+        return new QVector(result);
+    }
+
     public int getDimension() {
-        return this.elements.length;
+        return this.dimension;
     }
 
     public Generator toGenerator() {
@@ -89,11 +143,11 @@ public class QVector {
     }
 
     public Rational get(int index) {
-        return this.elements[index];
+        return this.elements[this.offset + index * this.stride];
     }
 
     public QVector set(int index, Rational value) {
-        this.elements[index] = value;
+        this.elements[this.offset + index * this.stride] = value;
         return this;
     }
 
@@ -321,31 +375,49 @@ public class QVector {
         return Arrays.toString(this.getElements());
     }
 
+    /**
+     * A vector whose entries live elsewhere. Views over flat storage read and write the backing array directly
+     * and can be retargeted, so a loop can walk every row or column of a matrix with a single view. Views
+     * built from a getter and a setter forward every access to them instead.
+     */
     public static class View extends QVector {
-        private final int dimension;
         private final Generator getter;
         private final Setter setter;
 
         public View(int dimension, Generator getter, Setter setter) {
-            super((Rational[])null);
-            this.dimension = dimension;
+            super(null, 0, 0, dimension);
             this.getter = getter;
             this.setter = setter;
         }
 
-        @Override
-        public int getDimension() {
-            return this.dimension;
+        public View(Rational[] elements, int offset, int stride, int dimension) {
+            super(elements, offset, stride, dimension);
+            this.getter = null;
+            this.setter = null;
+        }
+
+        public boolean isStrided() {
+            return this.getter == null;
+        }
+
+        public View retarget(Rational[] elements, int offset, int stride, int dimension) {
+            if(!this.isStrided()) {
+                throw new IllegalStateException("Retargeting a view backed by a getter and setter");
+            }
+
+            this.setStorage(elements, offset, stride, dimension);
+            return this;
         }
 
         @Override
         public Rational get(int index) {
-            return this.getter.getValue(index);
+            return this.getter == null ? super.get(index) : this.getter.getValue(index);
         }
 
         @Override
         public QVector set(int index, Rational value) {
-            this.setter.set(index, value);
+            if(this.setter == null)super.set(index, value);
+            else this.setter.set(index, value);
             return this;
         }
 
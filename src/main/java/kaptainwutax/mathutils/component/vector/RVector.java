@@ -35,22 +35,46 @@ public class RVector {
         return v.getDimension() == 0 ? Real.ZERO : EUCLIDEAN_SQ.get(v).sqrt();
     };
 
-    private final Real[] elements;
+    private Real[] elements;
+    private int offset;
+    private int stride;
+    private int dimension;
 
     protected RVector(int dimension) {
-        this.elements = new Real[dimension];
+        this(new Real[dimension], 0, 1, dimension);
+    }
+
+    /**
+     * Backs the vector with {@code dimension} entries of {@code elements}, starting at {@code offset} and
+     * {@code stride} slots apart. No copy is made.
+     */
+    protected RVector(Real[] elements, int offset, int stride, int dimension) {
+        this.elements = elements;
+        this.offset = offset;
+        this.stride = stride;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Points the vector at other storage, as the constructor above does. Only views move this way.
+     */
+    protected void setStorage(Real[] elements, int offset, int stride, int dimension) {
+        this.elements = elements;
+        this.offset = offset;
+        this.stride = stride;
+        this.dimension = dimension;
     }
 
     public RVector(int dimension, Generator generator) {
         this(dimension);
 
-        for(int i = 0; i < this.elements.length; i++) {
+        for(int i = 0; i < dimension; i++) {
             this.elements[i] = generator.getValue(i);
         }
     }
 
     public RVector(Real... elements) {
-        this.elements = elements;
+        this(elements, 0, 1, elements.length);
     }
 
     public RVector(BigInteger... elements) {
@@ -82,7 +106,7 @@ public class RVector {
     }
 
     public int getDimension() {
-        return this.elements.length;
+        return this.dimension;
     }
 
     public Generator toGenerator() {
@@ -94,11 +118,11 @@ public class RVector {
     }
 
     public Real get(int index) {
-        return this.elements[index];
+        return this.elements[this.offset + index * this.stride];
     }
 
     public RVector set(int index, Real value) {
-        this.elements[index] = value;
+        this.elements[this.offset + index * this.stride] = value;
         return this;
     }
 
@@ -317,31 +341,49 @@ public class RVector {
         return Arrays.toString(this.getElements());
     }
 
+    /**
+     * A vector whose entries live elsewhere. Views over flat storage read and write the backing array directly
+     * and can be retargeted, so a loop can walk every row or column of a matrix with a single view. Views
+     * built from a getter and a setter forward every access to them instead.
+     */
     public static class View extends RVector {
-        private final int dimension;
         private final Generator getter;
         private final Setter setter;
 
         public View(int dimension, Generator getter, Setter setter) {
-            super((Real[])null);
-            this.dimension = dimension;
+            super(null, 0, 0, dimension);
             this.getter = getter;
             this.setter = setter;
         }
 
-        @Override
-        public int getDimension() {
-            return this.dimension;
+        public View(Real[] elements, int offset, int stride, int dimension) {
+            super(elements, offset, stride, dimension);
+            this.getter = null;
+            this.setter = null;
+        }
+
+        public boolean isStrided() {
+            return this.getter == null;
+        }
+
+        public View retarget(Real[] elements, int offset, int stride, int dimension) {
+            if(!this.isStrided()) {
+                throw new IllegalStateException("Retargeting a view backed by a getter and setter");
+            }
+
+            this.setStorage(elements, offset, stride, dimension);
+            return this;
         }
 
         @Override
         public Real get(int index) {
-            return this.getter.getValue(index);
+            return this.getter == null ? super.get(index) : this.getter.getValue(index);
         }
 
         @Override
         public RVector set(int index, Real value) {
-            this.setter.set(index, value);
+            if(this.setter == null)super.set(index, value);
+            else this.setter.set(index, value);
             return this;
         }
 
@@ -0,0 +1,487 @@
+package kaptainwutax.mathutils.component.vector;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.util.Kernels;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An integer vector stored as primitive longs. The first time a result no longer fits, the vector moves over to
+ * {@link BigInteger} entries, and it moves back once every entry fits again. While small, the vector tracks an
+ * upper bound on the bit length of its entries, so most operations can rule out overflow up front and run the
+ * plain loops in {@link Kernels}.
+ */
+public class ZVector {
+
+    private static final int SAFE_BITS = Long.SIZE - 1;
+
+    private long[] elements;
+    private BigInteger[] bigElements;
+    private int bits;
+
+    protected ZVector(int dimension) {
+        this.elements = new long[dimension];
+    }
+
+    public ZVector(int dimension, Generator generator) {
+        this(dimension);
+
+        for(int i = 0; i < dimension; i++) {
+            this.set(i, generator.getValue(i));
+        }
+    }
+
+    public ZVector(long... elements) {
+        this.elements = elements;
+        this.bits = bitLength(elements);
+    }
+
+    public ZVector(BigInteger... elements) {
+        this(elements.length, i -> elements[i]);
+    }
+
+    public static ZVector zero(int dimension) {
+        return new ZVector(dimension);
+    }
+
+    public static ZVector basis(int dimension, int index) {
+        return basis(dimension, index, 1);
+    }
+
+    public static ZVector basis(int dimension, int index, long scale) {
+        return new ZVector(dimension).set(index, scale);
+    }
+
+    public static ZVector basis(int dimension, int index, BigInteger scale) {
+        return new ZVector(dimension).set(index, scale);
+    }
+
+    public static ZVector of(QVector vector) {
+        return new ZVector(vector.getDimension(), i -> toInteger(vector.get(i)));
+    }
+
+    public int getDimension() {
+        return this.bigElements == null ? this.elements.length : this.bigElements.length;
+    }
+
+    /**
+     * Returns whether the entries are currently stored as primitive longs.
+     */
+    public boolean isSmall() {
+        return this.bigElements == null;
+    }
+
+    public Generator toGenerator() {
+        return this::get;
+    }
+
+    public BigInteger get(int index) {
+        return this.bigElements == null ? BigInteger.valueOf(this.elements[index]) : this.bigElements[index];
+    }
+
+    /**
+     * Returns the entry as a long, throwing an {@link ArithmeticException} if it does not fit.
+     */
+    public long getLong(int index) {
+        return this.bigElements == null ? this.elements[index] : this.bigElements[index].longValueExact();
+    }
+
+    public ZVector set(int index, long value) {
+        if(this.bigElements != null) {
+            this.bigElements[index] = BigInteger.valueOf(value);
+        } else {
+            this.elements[index] = value;
+            this.bits = Math.max(this.bits, bitLength(value));
+        }
+
+        return this;
+    }
+
+    public ZVector set(int index, BigInteger value) {
+        if(value.bitLength() < Long.SIZE)return this.set(index, value.longValue());
+        this.escalate();
+        this.bigElements[index] = value;
+        return this;
+    }
+
+    public BigInteger[] getElements() {
+        BigInteger[] elements = new BigInteger[this.getDimension()];
+
+        for(int i = 0; i < elements.length; i++) {
+            elements[i] = this.get(i);
+        }
+
+        return elements;
+    }
+
+    /**
+     * Returns the largest bit length among the absolute values of the entries.
+     */
+    public int bitLength() {
+        if(this.bigElements == null)return this.bits = bitLength(this.elements);
+        int bits = 0;
+
+        for(BigInteger e : this.bigElements) {
+            bits = Math.max(bits, e.abs().bitLength());
+        }
+
+        return bits;
+    }
+
+    public boolean isZero() {
+        for(int i = 0; i < this.getDimension(); i++) {
+            if(this.bigElements == null ? this.elements[i] != 0 : this.bigElements[i].signum() != 0)return false;
+        }
+
+        return true;
+    }
+
+    protected void checkDimension(ZVector other) {
+        if(this.getDimension() != other.getDimension()) {
+            throw new IllegalArgumentException("vectors don't have the same size");
+        }
+    }
+
+    public ZVector add(ZVector other) {
+        return this.copy().addAndSet(other);
+    }
+
+    public ZVector addAndSet(ZVector other) {
+        return this.addMultipleAndSet(other, 1L);
+    }
+
+    public ZVector subtract(ZVector other) {
+        return this.copy().subtractAndSet(other);
+    }
+
+    public ZVector subtractAndSet(ZVector other) {
+        return this.addMultipleAndSet(other, -1L);
+    }
+
+    public ZVector negate() {
+        return this.copy().negateAndSet();
+    }
+
+    public ZVector negateAndSet() {
+        return this.scaleAndSet(-1L);
+    }
+
+    public ZVector addMultiple(ZVector other, long factor) {
+        return this.copy().addMultipleAndSet(other, factor);
+    }
+
+    /**
+     * Adds {@code factor * other} to this vector.
+     */
+    public ZVector addMultipleAndSet(ZVector other, long factor) {
+        this.checkDimension(other);
+        if(factor == 0)return this;
+
+        if(this.bigElements == null && other.bigElements == null) {
+            long[] a = this.elements, b = other.elements;
+            int bound = Math.max(this.bits, bitLength(factor) + other.bits);
+
+            if(bound < SAFE_BITS) {
+                Kernels.get().axpy(factor, b, 0, a, 0, a.length);
+                this.bits = bound + 1;
+                return this;
+            }
+
+            int i = 0;
+
+            try {
+                for(; i < a.length; i++) {
+                    a[i] = Math.addExact(a[i], Math.multiplyExact(factor, b[i]));
+                }
+
+                this.bits = bitLength(a);
+                return this;
+            } catch(ArithmeticException e) {
+                this.escalate();
+                return this.addMultiple(other, BigInteger.valueOf(factor), i);
+            }
+        }
+
+        this.escalate();
+        return this.addMultiple(other, BigInteger.valueOf(factor), 0);
+    }
+
+    public ZVector addMultiple(ZVector other, BigInteger factor) {
+        return this.copy().addMultipleAndSet(other, factor);
+    }
+
+    public ZVector addMultipleAndSet(ZVector other, BigInteger factor) {
+        if(factor.bitLength() < Long.SIZE)return this.addMultipleAndSet(other, factor.longValue());
+        this.checkDimension(other);
+        this.escalate();
+        return this.addMultiple(other, factor, 0);
+    }
+
+    private ZVector addMultiple(ZVector other, BigInteger factor, int start) {
+        for(int i = start; i < this.bigElements.length; i++) {
+            this.bigElements[i] = this.bigElements[i].add(factor.multiply(other.get(i)));
+        }
+
+        return this.compact();
+    }
+
+    public ZVector scale(long scalar) {
+        return this.copy().scaleAndSet(scalar);
+    }
+
+    public ZVector scaleAndSet(long scalar) {
+        if(this.bigElements == null) {
+            long[] a = this.elements;
+            int bound = this.bits + bitLength(scalar);
+
+            if(bound < Long.SIZE) {
+                for(int i = 0; i < a.length; i++) {
+                    a[i] *= scalar;
+                }
+
+                this.bits = bound;
+                return this;
+            }
+
+            int i = 0;
+
+            try {
+                for(; i < a.length; i++) {
+                    a[i] = Math.multiplyExact(a[i], scalar);
+                }
+
+                this.bits = bitLength(a);
+                return this;
+            } catch(ArithmeticException e) {
+                this.escalate();
+                return this.scale(BigInteger.valueOf(scalar), i);
+            }
+        }
+
+        return this.scale(BigInteger.valueOf(scalar), 0);
+    }
+
+    public ZVector scale(BigInteger scalar) {
+        return this.copy().scaleAndSet(scalar);
+    }
+
+    public ZVector scaleAndSet(BigInteger scalar) {
+        if(scalar.bitLength() < Long.SIZE)return this.scaleAndSet(scalar.longValue());
+        this.escalate();
+        return this.scale(scalar, 0);
+    }
+
+    private ZVector scale(BigInteger scalar, int start) {
+        for(int i = start; i < this.bigElements.length; i++) {
+            this.bigElements[i] = this.bigElements[i].multiply(scalar);
+        }
+
+        return this.compact();
+    }
+
+    /**
+     * Divides every entry by {@code divisor}, which must divide all of them exactly.
+     */
+    public ZVector divideExactAndSet(long divisor) {
+        if(divisor == -1L) {
+            return this.negateAndSet();
+        } else if(this.bigElements == null) {
+            long[] a = this.elements;
+
+            for(int i = 0; i < a.length; i++) {
+                a[i] /= divisor;
+            }
+
+            this.bits = bitLength(a);
+            return this;
+        }
+
+        return this.divideExactAndSet(BigInteger.valueOf(divisor));
+    }
+
+    public ZVector divideExactAndSet(BigInteger divisor) {
+        if(this.bigElements == null) {
+            if(divisor.bitLength() < Long.SIZE)return this.divideExactAndSet(divisor.longValue());
+            return this.scaleAndSet(0L);
+        }
+
+        for(int i = 0; i < this.bigElements.length; i++) {
+            this.bigElements[i] = this.bigElements[i].divide(divisor);
+        }
+
+        return this.compact();
+    }
+
+    public BigInteger dot(ZVector other) {
+        this.checkDimension(other);
+        int n = this.getDimension();
+
+        if(this.bigElements == null && other.bigElements == null) {
+            long[] a = this.elements, b = other.elements;
+            long sum = 0;
+
+            if(this.bits + other.bits + bitLength(n) < SAFE_BITS) {
+                return BigInteger.valueOf(Kernels.get().dot(a, 0, b, 0, n));
+            }
+
+            int i = 0;
+
+            try {
+                for(; i < n; i++) {
+                    sum = Math.addExact(sum, Math.multiplyExact(a[i], b[i]));
+                }
+
+                return BigInteger.valueOf(sum);
+            } catch(ArithmeticException e) {
+                BigInteger result = BigInteger.valueOf(sum);
+
+                for(; i < n; i++) {
+                    result = result.add(BigInteger.valueOf(a[i]).multiply(BigInteger.valueOf(b[i])));
+                }
+
+                return result;
+            }
+        }
+
+        BigInteger result = BigInteger.ZERO;
+
+        for(int i = 0; i < n; i++) {
+            result = result.add(this.get(i).multiply(other.get(i)));
+        }
+
+        return result;
+    }
+
+    public BigInteger magnitudeSq() {
+        return this.dot(this);
+    }
+
+    /**
+     * Multiplies this row vector by {@code matrix}, as a combination of the matrix rows.
+     */
+    public ZVector multiply(ZMatrix matrix) {
+        if(matrix.getRowCount() != this.getDimension()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+        }
+
+        ZVector result = zero(matrix.getColumnCount());
+
+        for(int i = 0; i < this.getDimension(); i++) {
+            if(this.bigElements == null)result.addMultipleAndSet(matrix.getRow(i), this.elements[i]);
+            else result.addMultipleAndSet(matrix.getRow(i), this.bigElements[i]);
+        }
+
+        return result;
+    }
+
+    public QVector toQVector() {
+        return new QVector(this.getDimension(), i -> Rational.of(this.get(i)));
+    }
+
+    public ZVector copy() {
+        ZVector copy = new ZVector(0);
+
+        if(this.bigElements == null) {
+            copy.elements = this.elements.clone();
+            copy.bits = this.bits;
+        } else {
+            copy.elements = null;
+            copy.bigElements = this.bigElements.clone();
+        }
+
+        return copy;
+    }
+
+    private void escalate() {
+        if(this.bigElements != null)return;
+        this.bigElements = new BigInteger[this.elements.length];
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.bigElements[i] = BigInteger.valueOf(this.elements[i]);
+        }
+
+        this.elements = null;
+    }
+
+    private ZVector compact() {
+        for(BigInteger e : this.bigElements) {
+            if(e.bitLength() >= Long.SIZE)return this;
+        }
+
+        this.elements = new long[this.bigElements.length];
+
+        for(int i = 0; i < this.elements.length; i++) {
+            this.elements[i] = this.bigElements[i].longValue();
+        }
+
+        this.bigElements = null;
+        this.bits = bitLength(this.elements);
+        return this;
+    }
+
+    private static int bitLength(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(Math.abs(value));
+    }
+
+    private static int bitLength(long[] values) {
+        long or = 0;
+
+        for(long value : values) {
+            or |= Math.abs(value);
+        }
+
+        return bitLength(or);
+    }
+
+    private static BigInteger toInteger(Rational value) {
+        BigInteger[] qr = value.getNumerator().divideAndRemainder(value.getDenominator());
+
+        if(qr[1].signum() != 0) {
+            throw new ArithmeticException("Converting a non-integer to an integer vector");
+        }
+
+        return qr[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+
+        for(int i = 0; i < this.getDimension(); i++) {
+            result = 31 * result + this.get(i).hashCode();
+        }
+
+        return this.getDimension() * 31 + result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(this == other)return true;
+        if(!(other instanceof ZVector))return false;
+        ZVector vector = (ZVector)other;
+        if(this.getDimension() != vector.getDimension())return false;
+
+        if(this.bigElements == null && vector.bigElements == null) {
+            return Arrays.equals(this.elements, vector.elements);
+        }
+
+        for(int i = 0; i < this.getDimension(); i++) {
+            if(!this.get(i).equals(vector.get(i)))return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return this.bigElements == null ? Arrays.toString(this.elements) : Arrays.toString(this.bigElements);
+    }
+
+    @FunctionalInterface
+    public interface Generator {
+        BigInteger getValue(int index);
+    }
+
+}
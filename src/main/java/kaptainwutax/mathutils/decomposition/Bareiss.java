@@ -0,0 +1,187 @@
+package kaptainwutax.mathutils.decomposition;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.ZVector;
+
+import java.math.BigInteger;
+
+/**
+ * Fraction-free Gaussian elimination. Each step replaces the entries below the pivot with
+ * {@code (pivot * a - factor * b) / previousPivot}, a division that is always exact. Every intermediate entry is
+ * a minor of the input, so coefficients never grow past the Hadamard bound. Rational matrices are first scaled
+ * row by row to integers.
+ */
+public class Bareiss {
+
+	private final ZMatrix matrix;
+	private final BigInteger scale;
+
+	private ZMatrix echelon;
+	private int[] pivotColumns;
+	private int rank;
+	private int swaps;
+	private BigInteger det;
+
+	protected Bareiss(ZMatrix matrix, BigInteger scale) {
+		this.matrix = matrix;
+		this.scale = scale;
+	}
+
+	public static Bareiss of(ZMatrix matrix) {
+		return new Bareiss(matrix, BigInteger.ONE);
+	}
+
+	/**
+	 * Multiplies every row by the lcm of its denominators and eliminates the resulting integer matrix. The scale
+	 * is remembered so that {@link #getDeterminant()} still returns the determinant of {@code matrix} itself.
+	 */
+	public static Bareiss of(QMatrix matrix) {
+		BigInteger[] scales = new BigInteger[matrix.getRowCount()];
+		BigInteger scale = BigInteger.ONE;
+
+		for(int row = 0; row < scales.length; row++) {
+			scales[row] = BigInteger.ONE;
+
+			for(int column = 0; column < matrix.getColumnCount(); column++) {
+				BigInteger denominator = matrix.get(row, column).getDenominator();
+				scales[row] = scales[row].divide(scales[row].gcd(denominator)).multiply(denominator);
+			}
+
+			scale = scale.multiply(scales[row]);
+		}
+
+		ZMatrix integral = new ZMatrix(matrix.getRowCount(), matrix.getColumnCount(), (row, column) -> {
+			Rational value = matrix.get(row, column);
+			return value.getNumerator().multiply(scales[row].divide(value.getDenominator()));
+		});
+
+		return new Bareiss(integral, scale);
+	}
+
+	public Bareiss refresh() {
+		this.echelon = null;
+		this.pivotColumns = null;
+		this.rank = 0;
+		this.swaps = 0;
+		this.det = null;
+		return this;
+	}
+
+	/**
+	 * Returns the integer matrix that gets eliminated, which for rational input is the row-scaled copy.
+	 */
+	public ZMatrix getMatrix() {
+		return this.matrix;
+	}
+
+	/**
+	 * Returns the product of the row scales, so that the determinant of {@link #getMatrix()} divided by it is the
+	 * determinant of the original matrix.
+	 */
+	public BigInteger getScale() {
+		return this.scale;
+	}
+
+	/**
+	 * Returns the fraction-free row echelon form. Row {@code i} has its leading entry in column
+	 * {@code getPivotColumns()[i]}, and that entry is the determinant of the leading {@code (i + 1) x (i + 1)}
+	 * minor on the pivot columns, after row swaps.
+	 */
+	public ZMatrix getEchelon() {
+		if(this.echelon != null)return this.echelon;
+		ZMatrix m = this.matrix.copy();
+		int rows = m.getRowCount(), columns = m.getColumnCount();
+		int[] pivotColumns = new int[Math.min(rows, columns)];
+		BigInteger previous = BigInteger.ONE;
+		int r = 0;
+		this.swaps = 0;
+
+		for(int column = 0; column < columns && r < rows; column++) {
+			int pivot = -1;
+			int smallest = Integer.MAX_VALUE;
+
+			for(int row = r; row < rows; row++) {
+				BigInteger value = m.get(row, column);
+
+				if(value.signum() != 0 && value.bitLength() < smallest) {
+					smallest = value.bitLength();
+					pivot = row;
+				}
+			}
+
+			if(pivot == -1)continue;
+
+			if(pivot != r) {
+				m.swapRowsAndSet(r, pivot);
+				this.swaps++;
+			}
+
+			ZVector pivotRow = m.getRow(r);
+			BigInteger pivotValue = m.get(r, column);
+
+			for(int row = r + 1; row < rows; row++) {
+				ZVector target = m.getRow(row);
+				BigInteger factor = target.get(column);
+				target.scaleAndSet(pivotValue);
+				if(factor.signum() != 0)target.addMultipleAndSet(pivotRow, factor.negate());
+				target.divideExactAndSet(previous);
+			}
+
+			previous = pivotValue;
+			pivotColumns[r++] = column;
+		}
+
+		this.rank = r;
+		this.pivotColumns = new int[r];
+		System.arraycopy(pivotColumns, 0, this.pivotColumns, 0, r);
+		return this.echelon = m;
+	}
+
+	public int[] getPivotColumns() {
+		this.getEchelon();
+		return this.pivotColumns;
+	}
+
+	public int getRank() {
+		this.getEchelon();
+		return this.rank;
+	}
+
+	public int getSwaps() {
+		this.getEchelon();
+		return this.swaps;
+	}
+
+	/**
+	 * Returns the determinant of the integer matrix returned by {@link #getMatrix()}, which is the last pivot of
+	 * the elimination.
+	 */
+	public BigInteger getIntegerDeterminant() {
+		if(this.det != null)return this.det;
+
+		if(!this.matrix.isSquare()) {
+			throw new IllegalStateException("Matrix is not square");
+		}
+
+		int size = this.matrix.getRowCount();
+		ZMatrix echelon = this.getEchelon();
+
+		if(size == 0) {
+			this.det = BigInteger.ONE;
+		} else if(this.rank < size) {
+			this.det = BigInteger.ZERO;
+		} else {
+			this.det = echelon.get(size - 1, size - 1);
+			if((this.swaps & 1) != 0)this.det = this.det.negate();
+		}
+
+		return this.det;
+	}
+
+	public Rational getDeterminant() {
+		return Rational.of(this.getIntegerDeterminant(), this.scale);
+	}
+
+}
@@ -4,9 +4,15 @@ import kaptainwutax.mathutils.arithmetic.Rational;
 import kaptainwutax.mathutils.arithmetic.Real;
 import kaptainwutax.mathutils.component.matrix.QMatrix;
 import kaptainwutax.mathutils.component.matrix.RMatrix;
+import kaptainwutax.mathutils.component.vector.QVector;
+import kaptainwutax.mathutils.component.vector.RVector;
+
+import java.util.stream.IntStream;
 
 public class LUDecomposition {
 
+	public static final int BLOCK_SIZE = 8;
+
 	public static LUDecomposition.Q of(QMatrix matrix) {
 		return new LUDecomposition.Q(matrix);
 	}
@@ -16,7 +22,7 @@ public class LUDecomposition {
 	}
 
 	public static class Q {
-		private final QMatrix matrix;
+		private QMatrix matrix;
 		private final int size;
 
 		private QMatrix P;
@@ -95,52 +101,135 @@ public class LUDecomposition {
 
 		public QMatrix getLU() {
 			if(this.LU != null || this.singular)return this.LU;
-			this.LU = this.matrix.copy();
-			this.pivot = new int[this.size];
+			int n = this.size;
+			Rational[] a = new Rational[n * n];
+
+			for(int row = 0; row < n; row++) {
+				for(int column = 0; column < n; column++) {
+					a[row * n + column] = this.matrix.get(row, column);
+				}
+			}
+
+			int[] pivot = new int[n];
+
+			if(!factor(a, n, pivot, 0, n)) {
+				this.singular = true;
+				this.LU = null;
+				this.pivot = null;
+				this.swaps = -1;
+				return null;
+			}
+
+			this.pivot = pivot;
 			this.swaps = 0;
 
-			for(int i = 0; i < this.size; i++) {
-				int pivot = -1;
+			for(int i = 0; i < n; i++) {
+				if(pivot[i] != i)this.swaps++;
+			}
+
+			return this.LU = new QMatrix(n, n, (row, column) -> a[row * n + column]);
+		}
+
+		/**
+		 * Factors columns {@code [start, start + width)} of the row-major {@code a} from row {@code start} down,
+		 * assuming every earlier step has already been applied to them. Wide ranges are split in halves: the left half
+		 * is factored, the right half is brought up to date with a triangular solve and one product update, and then it
+		 * is factored in turn. Every column still sees the same operations in the same order as in the unblocked
+		 * elimination, so the factors and pivots are identical to it. Returns false if the matrix is singular.
+		 */
+		private static boolean factor(Rational[] a, int n, int[] pivot, int start, int width) {
+			if(width <= BLOCK_SIZE)return panel(a, n, pivot, start, width);
+
+			int half = width / 2, middle = start + half, end = start + width;
+			if(!factor(a, n, pivot, start, half))return false;
+
+			for(int row = start + 1; row < middle; row++) {
+				for(int column = middle; column < end; column++) {
+					Rational value = a[row * n + column];
+
+					for(int k = start; k < row; k++) {
+						Rational multiplier = a[row * n + k];
+						if(multiplier.signum() == 0)continue;
+						value = value.subtract(multiplier.multiply(a[k * n + column]));
+					}
+
+					a[row * n + column] = value;
+				}
+			}
+
+			int rowTiles = (n - middle + BLOCK_SIZE - 1) / BLOCK_SIZE, columnTiles = (end - middle + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			IntStream tiles = IntStream.range(0, rowTiles * columnTiles);
+			long work = (long)(n - middle) * (end - middle) * half;
+			if(work >= (long)QMatrix.PARALLEL_THRESHOLD * QMatrix.PARALLEL_THRESHOLD * QMatrix.PARALLEL_THRESHOLD)tiles = tiles.parallel();
+
+			tiles.forEach(tile -> {
+				int top = middle + (tile / columnTiles) * BLOCK_SIZE, left = middle + (tile % columnTiles) * BLOCK_SIZE;
+
+				for(int row = top; row < Math.min(n, top + BLOCK_SIZE); row++) {
+					for(int column = left; column < Math.min(end, left + BLOCK_SIZE); column++) {
+						Rational value = a[row * n + column];
+
+						for(int k = start; k < middle; k++) {
+							Rational multiplier = a[row * n + k];
+							if(multiplier.signum() == 0)continue;
+							value = value.subtract(multiplier.multiply(a[k * n + column]));
+						}
+
+						a[row * n + column] = value;
+					}
+				}
+			});
+
+			return factor(a, n, pivot, middle, width - half);
+		}
+
+		/**
+		 * The unblocked elimination restricted to columns {@code [start, start + width)}. Row swaps still move whole rows.
+		 */
+		private static boolean panel(Rational[] a, int n, int[] pivot, int start, int width) {
+			int end = start + width;
+
+			for(int i = start; i < end; i++) {
+				int best = -1;
 				Rational largest = Rational.ZERO;
 
-				for(int row = i; row < this.size; row++) {
-					Rational value = this.LU.get(row, i).abs();
+				for(int row = i; row < n; row++) {
+					Rational value = a[row * n + i].abs();
 
 					if(value.signum() != 0 && value.compareTo(largest) > 0) {
 						largest = value;
-						pivot = row;
+						best = row;
 					}
 				}
 
-				if(pivot == -1) {
-					this.singular = true;
-					this.LU = null;
-					this.pivot = null;
-					this.swaps = -1;
-					return null;
+				if(best == -1)return false;
+				pivot[i] = best;
+
+				if(best != i) {
+					for(int column = 0; column < n; column++) {
+						Rational temp = a[i * n + column];
+						a[i * n + column] = a[best * n + column];
+						a[best * n + column] = temp;
+					}
 				}
 
-				this.pivot[i] = pivot;
+				Rational divisor = a[i * n + i];
 
-				if(pivot != i) {
-					this.LU.swapRowsAndSet(i, pivot);
-					this.swaps++;
+				for(int row = i + 1; row < n; row++) {
+					a[row * n + i] = a[row * n + i].divide(divisor);
 				}
 
-				for(int row = i + 1; row < this.size; row++) {
-					Rational divisor = this.LU.get(i, i);
-					this.LU.set(row, i, this.LU.get(row, i).divide(divisor));
-				}
+				for(int row = i + 1; row < n; row++) {
+					Rational multiplier = a[row * n + i];
+					if(multiplier.signum() == 0)continue;
 
-				for(int row = i + 1; row < this.size; row++) {
-					for(int column = i + 1; column < this.size; column++) {
-						Rational subtrahend = this.LU.get(row, i).multiply(this.LU.get(i, column));
-						this.LU.set(row, column, this.LU.get(row, column).subtract(subtrahend));
+					for(int column = i + 1; column < end; column++) {
+						a[row * n + column] = a[row * n + column].subtract(multiplier.multiply(a[i * n + column]));
 					}
 				}
 			}
 
-			return this.LU;
+			return true;
 		}
 
 		public int getSwaps() {
@@ -181,38 +270,230 @@ public class LUDecomposition {
 			QMatrix lu = this.getLU();
 			if(lu == null)return null;
 
-			this.inv = this.getP().copy();
+			return this.inv = this.solve(QMatrix.identity(this.size));
+		}
+
+		/**
+		 * Returns the solution of {@code A x = b}, or null if the matrix is singular. The cached factors are reused,
+		 * so each right-hand side costs one forward and one back substitution instead of a product with the inverse.
+		 */
+		public QVector solve(QVector b) {
+			if(b.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
 
-			for(int dcol = 0; dcol < this.size; dcol++) {
-				for(int row = 0; row < this.size; row++) {
-					Rational value = this.inv.get(row, dcol);
+			QMatrix lu = this.getLU();
+			if(lu == null)return null;
+			Rational[] x = new Rational[this.size];
 
-					for(int col = 0; col < row; col++) {
-						value = value.subtract(lu.get(row, col).multiply(this.inv.get(col, dcol)));
-					}
+			for(int i = 0; i < this.size; i++) {
+				x[i] = b.get(i);
+			}
+
+			this.substitute(lu, x);
+			return new QVector(x);
+		}
+
+		/**
+		 * Returns {@code X} with {@code A X = B}, or null if the matrix is singular. The columns are independent, so
+		 * from {@link QMatrix#PARALLEL_THRESHOLD} columns on they are solved in parallel.
+		 */
+		public QMatrix solve(QMatrix b) {
+			if(b.getRowCount() != this.size) {
+				throw new IllegalArgumentException("Matrix row count should equal the matrix size");
+			}
+
+			QMatrix lu = this.getLU();
+			if(lu == null)return null;
+			Rational[][] columns = new Rational[b.getColumnCount()][];
+			IntStream indices = IntStream.range(0, columns.length);
+			if(columns.length >= QMatrix.PARALLEL_THRESHOLD)indices = indices.parallel();
+
+			indices.forEach(column -> {
+				Rational[] x = new Rational[this.size];
+
+				for(int i = 0; i < this.size; i++) {
+					x[i] = b.get(i, column);
+				}
+
+				this.substitute(lu, x);
+				columns[column] = x;
+			});
+
+			return new QMatrix(this.size, columns.length, (row, column) -> columns[column][row]);
+		}
 
-					this.inv.set(row, dcol, value);
+		/**
+		 * Solves {@code A x = b} for each of {@code bs} against the same factors, in parallel from
+		 * {@link QMatrix#PARALLEL_THRESHOLD} right-hand sides on. Returns null if the matrix is singular.
+		 */
+		public QVector[] solveAll(QVector... bs) {
+			QMatrix lu = this.getLU();
+			if(lu == null)return null;
+			QVector[] result = new QVector[bs.length];
+			IntStream indices = IntStream.range(0, bs.length);
+			if(bs.length >= QMatrix.PARALLEL_THRESHOLD)indices = indices.parallel();
+			indices.forEach(i -> result[i] = this.solve(bs[i]));
+			return result;
+		}
+
+		/**
+		 * Moves the decomposition to {@code A + u v^T} in {@code O(n^2)} with Bennett's rank-one update of the cached
+		 * factors. Since {@code P A = L U}, the new matrix has {@code P (A + u v^T) = L U + (P u) v^T}, and the
+		 * triangles absorb that one pivot at a time under the same permutation. If nothing was factored yet, or a
+		 * pivot vanishes on the way, the factors are dropped and recomputed with pivoting on next use.
+		 */
+		public Q update(QVector u, QVector v) {
+			if(u.getDimension() != this.size || v.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector lengths should equal the matrix size");
+			}
+
+			Rational[] x = new Rational[this.size];
+			Rational[] y = new Rational[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = u.get(i);
+				y[i] = v.get(i);
+			}
+
+			return this.update(x, y);
+		}
+
+		/**
+		 * Moves the decomposition to {@code A - u v^T}, as {@link #update(QVector, QVector)} does.
+		 */
+		public Q downdate(QVector u, QVector v) {
+			return this.update(u.map((index, value) -> value.negate()), v);
+		}
+
+		/**
+		 * Replaces one row of the matrix, a rank-one update by {@code e_row} and the difference of the rows.
+		 */
+		public Q replaceRow(int row, QVector values) {
+			if(values.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
+
+			Rational[] x = new Rational[this.size];
+			Rational[] y = new Rational[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = i == row ? Rational.ONE : Rational.ZERO;
+				y[i] = values.get(i).subtract(this.matrix.get(row, i));
+			}
+
+			return this.update(x, y);
+		}
+
+		/**
+		 * Replaces one column of the matrix, a rank-one update by the difference of the columns and {@code e_column}.
+		 */
+		public Q replaceColumn(int column, QVector values) {
+			if(values.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
+
+			Rational[] x = new Rational[this.size];
+			Rational[] y = new Rational[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = values.get(i).subtract(this.matrix.get(i, column));
+				y[i] = i == column ? Rational.ONE : Rational.ZERO;
+			}
+
+			return this.update(x, y);
+		}
+
+		private Q update(Rational[] x, Rational[] y) {
+			QMatrix old = this.matrix;
+			this.matrix = new QMatrix(this.size, this.size, (row, column) -> x[row].signum() == 0 || y[column].signum() == 0
+					? old.get(row, column) : old.get(row, column).add(x[row].multiply(y[column])));
+
+			QMatrix lu = this.LU, p = this.P;
+			int[] pivot = this.pivot;
+			int swaps = this.swaps;
+			this.refresh();
+			if(lu == null)return this;
+
+			int n = this.size;
+			Rational[] a = new Rational[n * n];
+
+			for(int row = 0; row < n; row++) {
+				for(int column = 0; column < n; column++) {
+					a[row * n + column] = lu.get(row, column);
 				}
 			}
 
-			for(int dcol = 0; dcol < this.size; dcol++) {
-				for(int row = this.size - 1; row >= 0; row--) {
-					Rational value = this.inv.get(row, dcol);
+			for(int i = 0; i < n; i++) {
+				if(pivot[i] == i)continue;
+				Rational temp = x[i];
+				x[i] = x[pivot[i]];
+				x[pivot[i]] = temp;
+			}
 
-					for(int col = this.size - 1; col > row; col--) {
-						value = value.subtract(lu.get(row, col).multiply(this.inv.get(col, dcol)));
-					}
+			for(int i = 0; i < n; i++) {
+				Rational diagonal = a[i * n + i].add(x[i].multiply(y[i]));
+				if(diagonal.signum() == 0)return this;
 
-					this.inv.set(row, dcol, value.divide(lu.get(row, row)));
+				a[i * n + i] = diagonal;
+				Rational xi = x[i], yi = y[i] = y[i].divide(diagonal);
+
+				for(int row = i + 1; row < n; row++) {
+					x[row] = x[row].subtract(xi.multiply(a[row * n + i]));
+					a[row * n + i] = a[row * n + i].add(yi.multiply(x[row]));
+				}
+
+				for(int column = i + 1; column < n; column++) {
+					a[i * n + column] = a[i * n + column].add(xi.multiply(y[column]));
+					y[column] = y[column].subtract(yi.multiply(a[i * n + column]));
 				}
 			}
 
-			return this.inv;
+			this.LU = new QMatrix(n, n, (row, column) -> a[row * n + column]);
+			this.P = p;
+			this.pivot = pivot;
+			this.swaps = swaps;
+			return this;
+		}
+
+		/**
+		 * Applies the row swaps to {@code x}, then solves with the unit lower triangle and the upper triangle in place.
+		 */
+		private void substitute(QMatrix lu, Rational[] x) {
+			for(int i = 0; i < this.size; i++) {
+				int pivot = this.pivot[i];
+
+				if(pivot != i) {
+					Rational temp = x[i];
+					x[i] = x[pivot];
+					x[pivot] = temp;
+				}
+			}
+
+			for(int row = 0; row < this.size; row++) {
+				Rational value = x[row];
+
+				for(int col = 0; col < row; col++) {
+					if(x[col].signum() != 0)value = value.subtract(lu.get(row, col).multiply(x[col]));
+				}
+
+				x[row] = value;
+			}
+
+			for(int row = this.size - 1; row >= 0; row--) {
+				Rational value = x[row];
+
+				for(int col = this.size - 1; col > row; col--) {
+					if(x[col].signum() != 0)value = value.subtract(lu.get(row, col).multiply(x[col]));
+				}
+
+				x[row] = value.divide(lu.get(row, row));
+			}
 		}
 	}
 
 	public static class R {
-		private final RMatrix matrix;
+		private RMatrix matrix;
 		private final int size;
 
 		private RMatrix P;
@@ -291,52 +572,132 @@ public class LUDecomposition {
 
 		public RMatrix getLU() {
 			if(this.LU != null || this.singular)return this.LU;
-			this.LU = this.matrix.copy();
-			this.pivot = new int[this.size];
+			int n = this.size;
+			Real[] a = new Real[n * n];
+
+			for(int row = 0; row < n; row++) {
+				for(int column = 0; column < n; column++) {
+					a[row * n + column] = this.matrix.get(row, column);
+				}
+			}
+
+			int[] pivot = new int[n];
+
+			if(!factor(a, n, pivot, 0, n)) {
+				this.singular = true;
+				this.LU = null;
+				this.pivot = null;
+				this.swaps = -1;
+				return null;
+			}
+
+			this.pivot = pivot;
 			this.swaps = 0;
 
-			for(int i = 0; i < this.size; i++) {
-				int pivot = -1;
+			for(int i = 0; i < n; i++) {
+				if(pivot[i] != i)this.swaps++;
+			}
+
+			return this.LU = new RMatrix(n, n, (row, column) -> a[row * n + column]);
+		}
+
+		/**
+		 * Factors columns {@code [start, start + width)} of the row-major {@code a} from row {@code start} down,
+		 * assuming every earlier step has already been applied to them. Wide ranges are split in halves: the left half
+		 * is factored, the right half is brought up to date with a triangular solve and one product update, and then it
+		 * is factored in turn. Every column still sees the same operations in the same order as in the unblocked
+		 * elimination, so the factors and pivots are identical to it. Returns false if the matrix is singular.
+		 */
+		private static boolean factor(Real[] a, int n, int[] pivot, int start, int width) {
+			if(width <= BLOCK_SIZE)return panel(a, n, pivot, start, width);
+
+			int half = width / 2, middle = start + half, end = start + width;
+			if(!factor(a, n, pivot, start, half))return false;
+
+			for(int row = start + 1; row < middle; row++) {
+				for(int column = middle; column < end; column++) {
+					Real value = a[row * n + column];
+
+					for(int k = start; k < row; k++) {
+						Real multiplier = a[row * n + k];
+						value = value.subtract(multiplier.multiply(a[k * n + column]));
+					}
+
+					a[row * n + column] = value;
+				}
+			}
+
+			int rowTiles = (n - middle + BLOCK_SIZE - 1) / BLOCK_SIZE, columnTiles = (end - middle + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			IntStream tiles = IntStream.range(0, rowTiles * columnTiles);
+			long work = (long)(n - middle) * (end - middle) * half;
+			if(work >= (long)RMatrix.PARALLEL_THRESHOLD * RMatrix.PARALLEL_THRESHOLD * RMatrix.PARALLEL_THRESHOLD)tiles = tiles.parallel();
+
+			tiles.forEach(tile -> {
+				int top = middle + (tile / columnTiles) * BLOCK_SIZE, left = middle + (tile % columnTiles) * BLOCK_SIZE;
+
+				for(int row = top; row < Math.min(n, top + BLOCK_SIZE); row++) {
+					for(int column = left; column < Math.min(end, left + BLOCK_SIZE); column++) {
+						Real value = a[row * n + column];
+
+						for(int k = start; k < middle; k++) {
+							Real multiplier = a[row * n + k];
+							value = value.subtract(multiplier.multiply(a[k * n + column]));
+						}
+
+						a[row * n + column] = value;
+					}
+				}
+			});
+
+			return factor(a, n, pivot, middle, width - half);
+		}
+
+		/**
+		 * The unblocked elimination restricted to columns {@code [start, start + width)}. Row swaps still move whole rows.
+		 */
+		private static boolean panel(Real[] a, int n, int[] pivot, int start, int width) {
+			int end = start + width;
+
+			for(int i = start; i < end; i++) {
+				int best = -1;
 				Real largest = Real.ZERO;
 
-				for(int row = i; row < this.size; row++) {
-					Real value = this.LU.get(row, i).abs();
+				for(int row = i; row < n; row++) {
+					Real value = a[row * n + i].abs();
 
 					if(value.signum() != 0 && value.compareTo(largest) > 0) {
 						largest = value;
-						pivot = row;
+						best = row;
 					}
 				}
 
-				if(pivot == -1) {
-					this.singular = true;
-					this.LU = null;
-					this.pivot = null;
-					this.swaps = -1;
-					return null;
+				if(best == -1)return false;
+				pivot[i] = best;
+
+				if(best != i) {
+					for(int column = 0; column < n; column++) {
+						Real temp = a[i * n + column];
+						a[i * n + column] = a[best * n + column];
+						a[best * n + column] = temp;
+					}
 				}
 
-				this.pivot[i] = pivot;
+				Real divisor = a[i * n + i];
 
-				if(pivot != i) {
-					this.LU.swapRowsAndSet(i, pivot);
-					this.swaps++;
+				for(int row = i + 1; row < n; row++) {
+					a[row * n + i] = a[row * n + i].divide(divisor);
 				}
 
-				for(int row = i + 1; row < this.size; row++) {
-					Real divisor = this.LU.get(i, i);
-					this.LU.set(row, i, this.LU.get(row, i).divide(divisor));
-				}
+				for(int row = i + 1; row < n; row++) {
+					Real multiplier = a[row * n + i];
 
-				for(int row = i + 1; row < this.size; row++) {
-					for(int column = i + 1; column < this.size; column++) {
-						Real subtrahend = this.LU.get(row, i).multiply(this.LU.get(i, column));
-						this.LU.set(row, column, this.LU.get(row, column).subtract(subtrahend));
+					for(int column = i + 1; column < end; column++) {
+						a[row * n + column] = a[row * n + column].subtract(multiplier.multiply(a[i * n + column]));
 					}
 				}
 			}
 
-			return this.LU;
+			return true;
 		}
 
 		public int getSwaps() {
@@ -377,33 +738,225 @@ public class LUDecomposition {
 			RMatrix lu = this.getLU();
 			if(lu == null)return null;
 
-			this.inv = this.getP().copy();
+			return this.inv = this.solve(RMatrix.identity(this.size));
+		}
 
-			for(int dcol = 0; dcol < this.size; dcol++) {
-				for(int row = 0; row < this.size; row++) {
-					Real value = this.inv.get(row, dcol);
+		/**
+		 * Returns the solution of {@code A x = b}, or null if the matrix is singular. The cached factors are reused,
+		 * so each right-hand side costs one forward and one back substitution instead of a product with the inverse.
+		 */
+		public RVector solve(RVector b) {
+			if(b.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
 
-					for(int col = 0; col < row; col++) {
-						value = value.subtract(lu.get(row, col).multiply(this.inv.get(col, dcol)));
-					}
+			RMatrix lu = this.getLU();
+			if(lu == null)return null;
+			Real[] x = new Real[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = b.get(i);
+			}
+
+			this.substitute(lu, x);
+			return new RVector(x);
+		}
+
+		/**
+		 * Returns {@code X} with {@code A X = B}, or null if the matrix is singular. The columns are independent, so
+		 * from {@link RMatrix#PARALLEL_THRESHOLD} columns on they are solved in parallel.
+		 */
+		public RMatrix solve(RMatrix b) {
+			if(b.getRowCount() != this.size) {
+				throw new IllegalArgumentException("Matrix row count should equal the matrix size");
+			}
+
+			RMatrix lu = this.getLU();
+			if(lu == null)return null;
+			Real[][] columns = new Real[b.getColumnCount()][];
+			IntStream indices = IntStream.range(0, columns.length);
+			if(columns.length >= RMatrix.PARALLEL_THRESHOLD)indices = indices.parallel();
+
+			indices.forEach(column -> {
+				Real[] x = new Real[this.size];
+
+				for(int i = 0; i < this.size; i++) {
+					x[i] = b.get(i, column);
+				}
+
+				this.substitute(lu, x);
+				columns[column] = x;
+			});
+
+			return new RMatrix(this.size, columns.length, (row, column) -> columns[column][row]);
+		}
+
+		/**
+		 * Solves {@code A x = b} for each of {@code bs} against the same factors, in parallel from
+		 * {@link RMatrix#PARALLEL_THRESHOLD} right-hand sides on. Returns null if the matrix is singular.
+		 */
+		public RVector[] solveAll(RVector... bs) {
+			RMatrix lu = this.getLU();
+			if(lu == null)return null;
+			RVector[] result = new RVector[bs.length];
+			IntStream indices = IntStream.range(0, bs.length);
+			if(bs.length >= RMatrix.PARALLEL_THRESHOLD)indices = indices.parallel();
+			indices.forEach(i -> result[i] = this.solve(bs[i]));
+			return result;
+		}
+
+		/**
+		 * Moves the decomposition to {@code A + u v^T} in {@code O(n^2)} with Bennett's rank-one update of the cached
+		 * factors. Since {@code P A = L U}, the new matrix has {@code P (A + u v^T) = L U + (P u) v^T}, and the
+		 * triangles absorb that one pivot at a time under the same permutation. If nothing was factored yet, or a
+		 * pivot vanishes on the way, the factors are dropped and recomputed with pivoting on next use.
+		 */
+		public R update(RVector u, RVector v) {
+			if(u.getDimension() != this.size || v.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector lengths should equal the matrix size");
+			}
+
+			Real[] x = new Real[this.size];
+			Real[] y = new Real[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = u.get(i);
+				y[i] = v.get(i);
+			}
+
+			return this.update(x, y);
+		}
+
+		/**
+		 * Moves the decomposition to {@code A - u v^T}, as {@link #update(RVector, RVector)} does.
+		 */
+		public R downdate(RVector u, RVector v) {
+			return this.update(u.map((index, value) -> value.negate()), v);
+		}
+
+		/**
+		 * Replaces one row of the matrix, a rank-one update by {@code e_row} and the difference of the rows.
+		 */
+		public R replaceRow(int row, RVector values) {
+			if(values.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
+
+			Real[] x = new Real[this.size];
+			Real[] y = new Real[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = i == row ? Real.ONE : Real.ZERO;
+				y[i] = values.get(i).subtract(this.matrix.get(row, i));
+			}
+
+			return this.update(x, y);
+		}
 
-					this.inv.set(row, dcol, value);
+		/**
+		 * Replaces one column of the matrix, a rank-one update by the difference of the columns and {@code e_column}.
+		 */
+		public R replaceColumn(int column, RVector values) {
+			if(values.getDimension() != this.size) {
+				throw new IllegalArgumentException("Vector length should equal the matrix size");
+			}
+
+			Real[] x = new Real[this.size];
+			Real[] y = new Real[this.size];
+
+			for(int i = 0; i < this.size; i++) {
+				x[i] = values.get(i).subtract(this.matrix.get(i, column));
+				y[i] = i == column ? Real.ONE : Real.ZERO;
+			}
+
+			return this.update(x, y);
+		}
+
+		private R update(Real[] x, Real[] y) {
+			RMatrix old = this.matrix;
+			this.matrix = new RMatrix(this.size, this.size, (row, column) -> x[row].signum() == 0 || y[column].signum() == 0
+					? old.get(row, column) : old.get(row, column).add(x[row].multiply(y[column])));
+
+			RMatrix lu = this.LU, p = this.P;
+			int[] pivot = this.pivot;
+			int swaps = this.swaps;
+			this.refresh();
+			if(lu == null)return this;
+
+			int n = this.size;
+			Real[] a = new Real[n * n];
+
+			for(int row = 0; row < n; row++) {
+				for(int column = 0; column < n; column++) {
+					a[row * n + column] = lu.get(row, column);
 				}
 			}
 
-			for(int dcol = 0; dcol < this.size; dcol++) {
-				for(int row = this.size - 1; row >= 0; row--) {
-					Real value = this.inv.get(row, dcol);
+			for(int i = 0; i < n; i++) {
+				if(pivot[i] == i)continue;
+				Real temp = x[i];
+				x[i] = x[pivot[i]];
+				x[pivot[i]] = temp;
+			}
 
-					for(int col = this.size - 1; col > row; col--) {
-						value = value.subtract(lu.get(row, col).multiply(this.inv.get(col, dcol)));
-					}
+			for(int i = 0; i < n; i++) {
+				Real diagonal = a[i * n + i].add(x[i].multiply(y[i]));
+				if(diagonal.signum() == 0)return this;
+
+				a[i * n + i] = diagonal;
+				Real xi = x[i], yi = y[i] = y[i].divide(diagonal);
 
-					this.inv.set(row, dcol, value.divide(lu.get(row, row)));
+				for(int row = i + 1; row < n; row++) {
+					x[row] = x[row].subtract(xi.multiply(a[row * n + i]));
+					a[row * n + i] = a[row * n + i].add(yi.multiply(x[row]));
+				}
+
+				for(int column = i + 1; column < n; column++) {
+					a[i * n + column] = a[i * n + column].add(xi.multiply(y[column]));
+					y[column] = y[column].subtract(yi.multiply(a[i * n + column]));
 				}
 			}
 
-			return this.inv;
+			this.LU = new RMatrix(n, n, (row, column) -> a[row * n + column]);
+			this.P = p;
+			this.pivot = pivot;
+			this.swaps = swaps;
+			return this;
+		}
+
+		/**
+		 * Applies the row swaps to {@code x}, then solves with the unit lower triangle and the upper triangle in place.
+		 */
+		private void substitute(RMatrix lu, Real[] x) {
+			for(int i = 0; i < this.size; i++) {
+				int pivot = this.pivot[i];
+
+				if(pivot != i) {
+					Real temp = x[i];
+					x[i] = x[pivot];
+					x[pivot] = temp;
+				}
+			}
+
+			for(int row = 0; row < this.size; row++) {
+				Real value = x[row];
+
+				for(int col = 0; col < row; col++) {
+					if(x[col].signum() != 0)value = value.subtract(lu.get(row, col).multiply(x[col]));
+				}
+
+				x[row] = value;
+			}
+
+			for(int row = this.size - 1; row >= 0; row--) {
+				Real value = x[row];
+
+				for(int col = this.size - 1; col > row; col--) {
+					if(x[col].signum() != 0)value = value.subtract(lu.get(row, col).multiply(x[col]));
+				}
+
+				x[row] = value.divide(lu.get(row, row));
+			}
 		}
 	}
 
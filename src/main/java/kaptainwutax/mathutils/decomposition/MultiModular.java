@@ -0,0 +1,260 @@
+package kaptainwutax.mathutils.decomposition;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.ZVector;
+import kaptainwutax.mathutils.util.Montgomery;
+import kaptainwutax.mathutils.util.Primes;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Determinant and rank of an integer matrix from Gaussian elimination modulo many primes just below
+ * {@code 2^62}. Each prime runs on its own with long arithmetic in Montgomery form, so batches of primes are
+ * reduced in parallel. The residues are then combined by incremental Chinese remaindering. The Hadamard bound
+ * says how many primes guarantee the result, and by default all of them are used, so the determinant is exact. With
+ * early termination on, the primes are drawn at random instead and the combination also stops once
+ * {@link #STABLE_PRIMES} more primes agree with it, each of which would accept a wrong value with probability
+ * about {@code 2^-61}. That result is then only correct with high probability. Rational matrices are row-scaled to
+ * integers as in {@link Bareiss}.
+ */
+public class MultiModular {
+
+	public static final int STABLE_PRIMES = 2;
+	public static final int RANK_PRIMES = 2;
+
+	/**
+	 * Dimension from which {@link ZMatrix#getDeterminant()} and {@link QMatrix#getDeterminant()} leave
+	 * {@link Bareiss} for this class.
+	 */
+	public static final int THRESHOLD = 16;
+
+	private final ZMatrix matrix;
+	private final BigInteger scale;
+	private final boolean earlyTermination;
+
+	private int primes;
+	private int rank = -1;
+	private BigInteger det;
+
+	protected MultiModular(ZMatrix matrix, BigInteger scale, boolean earlyTermination) {
+		this.matrix = matrix;
+		this.scale = scale;
+		this.earlyTermination = earlyTermination;
+	}
+
+	public static MultiModular of(ZMatrix matrix) {
+		return of(matrix, false);
+	}
+
+	public static MultiModular of(ZMatrix matrix, boolean earlyTermination) {
+		return new MultiModular(matrix, BigInteger.ONE, earlyTermination);
+	}
+
+	public static MultiModular of(QMatrix matrix) {
+		return of(matrix, false);
+	}
+
+	public static MultiModular of(QMatrix matrix, boolean earlyTermination) {
+		Bareiss scaled = Bareiss.of(matrix);
+		return new MultiModular(scaled.getMatrix(), scaled.getScale(), earlyTermination);
+	}
+
+	public MultiModular refresh() {
+		this.primes = 0;
+		this.rank = -1;
+		this.det = null;
+		return this;
+	}
+
+	public ZMatrix getMatrix() {
+		return this.matrix;
+	}
+
+	public boolean isEarlyTermination() {
+		return this.earlyTermination;
+	}
+
+	/**
+	 * Returns how many primes the last determinant computation combined.
+	 */
+	public int getPrimeCount() {
+		this.getIntegerDeterminant();
+		return this.primes;
+	}
+
+	/**
+	 * Returns an upper bound on {@code log2 |det|}, the sum over rows of {@code log2} of their euclidean norm.
+	 */
+	public int getHadamardBits() {
+		double bits = 0.0D;
+
+		for(int row = 0; row < this.matrix.getRowCount(); row++) {
+			BigInteger norm = this.matrix.getRow(row).magnitudeSq();
+			if(norm.signum() == 0)return 0;
+			bits += log2(norm) / 2.0D;
+		}
+
+		return (int)Math.ceil(bits) + 1;
+	}
+
+	/**
+	 * Returns the largest rank modulo {@link #RANK_PRIMES} random primes. The rank modulo a prime can only fall short
+	 * of the true rank when the prime divides every nonzero maximal minor, so the result is a lower bound that is
+	 * exact with high probability. {@link Bareiss#getRank()} is exact.
+	 */
+	public int getRank() {
+		if(this.rank >= 0)return this.rank;
+		long[] primes = Primes.getRandomLargePrimes(RANK_PRIMES, ThreadLocalRandom.current());
+		this.rank = IntStream.range(0, primes.length).parallel()
+			.map(i -> (int)eliminate(this.matrix, new Montgomery(primes[i]), false)).max().orElse(0);
+		return this.rank;
+	}
+
+	public BigInteger getIntegerDeterminant() {
+		if(this.det != null)return this.det;
+
+		if(!this.matrix.isSquare()) {
+			throw new IllegalStateException("Matrix is not square");
+		}
+
+		int needed = Math.max(1, (this.getHadamardBits() + 1 + 60) / 61);
+		long[] primes = this.earlyTermination ? Primes.getRandomLargePrimes(needed, ThreadLocalRandom.current())
+			: Primes.getLargePrimes(needed);
+		int batch = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+		BigInteger value = BigInteger.ZERO, modulus = BigInteger.ONE;
+		int stable = 0, used = 0;
+
+		while(used < needed) {
+			int start = used, end = Math.min(needed, used + batch);
+			long[] residues = IntStream.range(start, end).parallel()
+				.mapToLong(i -> determinant(this.matrix, primes[i])).toArray();
+
+			for(int i = 0; i < residues.length; i++) {
+				long prime = primes[start + i];
+				Montgomery field = new Montgomery(prime);
+				long current = value.mod(BigInteger.valueOf(prime)).longValue();
+				long difference = field.subtract(field.toMontgomery(residues[i]), field.toMontgomery(current));
+				used++;
+
+				if(difference == 0) {
+					stable++;
+				} else {
+					stable = 0;
+					long inverse = field.invert(field.toMontgomery(modulus.mod(BigInteger.valueOf(prime)).longValue()));
+					long step = field.fromMontgomery(field.multiply(difference, inverse));
+					value = value.add(modulus.multiply(BigInteger.valueOf(step)));
+				}
+
+				modulus = modulus.multiply(BigInteger.valueOf(prime));
+				if(this.earlyTermination && stable >= STABLE_PRIMES)break;
+			}
+
+			if(this.earlyTermination && stable >= STABLE_PRIMES)break;
+		}
+
+		if(value.shiftLeft(1).compareTo(modulus) > 0) {
+			value = value.subtract(modulus);
+		}
+
+		this.primes = used;
+		return this.det = value;
+	}
+
+	public Rational getDeterminant() {
+		return Rational.of(this.getIntegerDeterminant(), this.scale);
+	}
+
+	/**
+	 * Returns the determinant of {@code matrix} modulo {@code prime}, in {@code [0, prime)}.
+	 */
+	public static long determinant(ZMatrix matrix, long prime) {
+		Montgomery field = new Montgomery(prime);
+		return field.fromMontgomery(eliminate(matrix, field, true));
+	}
+
+	public static int rank(ZMatrix matrix, long prime) {
+		return (int)eliminate(matrix, new Montgomery(prime), false);
+	}
+
+	/**
+	 * Reduces {@code matrix} to row echelon form modulo the field's prime and returns either the determinant in
+	 * Montgomery form or the rank.
+	 */
+	private static long eliminate(ZMatrix matrix, Montgomery field, boolean determinant) {
+		int rows = matrix.getRowCount(), columns = matrix.getColumnCount();
+		long[] a = reduce(matrix, field);
+		long det = field.one();
+		int r = 0;
+
+		for(int column = 0; column < columns && r < rows; column++) {
+			int pivot = r;
+			while(pivot < rows && a[pivot * columns + column] == 0)pivot++;
+
+			if(pivot == rows) {
+				if(determinant)return 0L;
+				continue;
+			}
+
+			if(pivot != r) {
+				int p = pivot * columns, q = r * columns;
+
+				for(int j = column; j < columns; j++) {
+					long temp = a[p + j];
+					a[p + j] = a[q + j];
+					a[q + j] = temp;
+				}
+
+				det = field.negate(det);
+			}
+
+			int base = r * columns;
+			long pivotValue = a[base + column];
+			long inverse = field.invert(pivotValue);
+			det = field.multiply(det, pivotValue);
+
+			for(int row = r + 1; row < rows; row++) {
+				int target = row * columns;
+				if(a[target + column] == 0)continue;
+				long factor = field.multiply(a[target + column], inverse);
+
+				for(int j = column + 1; j < columns; j++) {
+					a[target + j] = field.subtract(a[target + j], field.multiply(factor, a[base + j]));
+				}
+
+				a[target + column] = 0;
+			}
+
+			r++;
+		}
+
+		return determinant ? det : r;
+	}
+
+	private static long[] reduce(ZMatrix matrix, Montgomery field) {
+		int columns = matrix.getColumnCount();
+		long[] a = new long[matrix.getRowCount() * columns];
+
+		for(int row = 0; row < matrix.getRowCount(); row++) {
+			ZVector vector = matrix.getRow(row);
+			boolean small = vector.isSmall();
+
+			for(int column = 0; column < columns; column++) {
+				a[row * columns + column] = small ? field.toMontgomery(vector.getLong(column))
+					: field.toMontgomery(vector.get(column));
+			}
+		}
+
+		return a;
+	}
+
+	private static double log2(BigInteger value) {
+		int shift = Math.max(0, value.bitLength() - 63);
+		return shift + Math.log(value.shiftRight(shift).doubleValue()) / Math.log(2.0D);
+	}
+
+}
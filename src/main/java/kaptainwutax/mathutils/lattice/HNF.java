@@ -0,0 +1,465 @@
+package kaptainwutax.mathutils.lattice;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.ZVector;
+import kaptainwutax.mathutils.decomposition.MultiModular;
+import kaptainwutax.mathutils.util.Montgomery;
+import kaptainwutax.mathutils.util.Primes;
+
+import java.math.BigInteger;
+
+/**
+ * Hermite normal form of the lattice spanned by the rows of a matrix. The form is the unique basis in row echelon
+ * form with positive pivots and every entry above a pivot in {@code [0, pivot)}. Two bases span the same lattice
+ * exactly when their forms are equal.
+ *
+ * <p>Full rank lattices use the modular method of Domich, Kannan and Trotter. A nonzero maximal minor {@code D} is
+ * a multiple of the lattice determinant, so {@code D Z^n} lies in the lattice. All row operations can then be done
+ * modulo {@code D}, or modulo what is left of it once the earlier pivots are divided out. Entries stay below
+ * {@code D} instead of growing without bound. Lattices that are not full rank, and requests for the unimodular
+ * transform, go through plain extended gcd elimination. Bases of the shape {@code [[I, B], [0, m I]]}, as built
+ * for truncated LCG outputs, only need {@code B} reduced modulo {@code m}.
+ */
+public final class HNF {
+
+    /**
+     * Returns the Hermite normal form of the lattice spanned by the rows of {@code basis}, one row per dimension of
+     * the lattice.
+     */
+    public static ZMatrix reduce(ZMatrix basis) {
+        int columns = basis.getColumnCount();
+        BigInteger[][] rows = toArray(basis);
+        BigInteger[][] result = modulusBasis(rows, columns);
+        if(result != null)return new ZMatrix(result);
+
+        int[] independent = independentRows(rows, columns);
+
+        if(independent != null) {
+            BigInteger[][] minor = new BigInteger[columns][];
+
+            for(int i = 0; i < columns; i++) {
+                minor[i] = rows[independent[i]];
+            }
+
+            return new ZMatrix(modular(rows, columns, determinant(new ZMatrix(minor)).abs()));
+        }
+
+        Result reduced = eliminate(rows, columns, null);
+        return reduced.getBasis();
+    }
+
+    /**
+     * Returns the Hermite normal form of the lattice spanned by the rows of a rational {@code basis}. The lattice is
+     * scaled to an integer one by the common denominator and back afterwards.
+     */
+    public static QMatrix reduce(QMatrix basis) {
+        BigInteger scale = BigInteger.ONE;
+
+        for(int row = 0; row < basis.getRowCount(); row++) {
+            for(int column = 0; column < basis.getColumnCount(); column++) {
+                BigInteger denominator = basis.get(row, column).getDenominator();
+                scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+            }
+        }
+
+        BigInteger common = scale;
+        ZMatrix integral = new ZMatrix(basis.getRowCount(), basis.getColumnCount(), (row, column) -> {
+            Rational value = basis.get(row, column);
+            return value.getNumerator().multiply(common.divide(value.getDenominator()));
+        });
+
+        ZMatrix reduced = reduce(integral);
+        return new QMatrix(reduced.getRowCount(), reduced.getColumnCount(),
+                (row, column) -> Rational.of(reduced.get(row, column), common));
+    }
+
+    /**
+     * Returns the Hermite normal form {@code H} together with a unimodular {@code U} such that
+     * {@code U * basis = H}. Here {@code H} keeps one row per row of {@code basis}, with the zero rows last.
+     */
+    public static Result reduceWithTransform(ZMatrix basis) {
+        int rows = basis.getRowCount();
+        BigInteger[][] transform = new BigInteger[rows][rows];
+
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < rows; column++) {
+                transform[row][column] = row == column ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+
+        return eliminate(toArray(basis), basis.getColumnCount(), transform);
+    }
+
+    /**
+     * Returns whether {@code vector} lies in the lattice whose Hermite normal form is {@code hnf}. Each pivot in turn
+     * fixes the coefficient of its row, which has to be an integer.
+     */
+    public static boolean contains(ZMatrix hnf, ZVector vector) {
+        BigInteger[] remainder = new BigInteger[vector.getDimension()];
+
+        for(int i = 0; i < remainder.length; i++) {
+            remainder[i] = vector.get(i);
+        }
+
+        int column = 0;
+
+        for(int row = 0; row < hnf.getRowCount(); row++) {
+            while(hnf.get(row, column).signum() == 0) {
+                if(remainder[column++].signum() != 0)return false;
+            }
+
+            BigInteger[] qr = remainder[column].divideAndRemainder(hnf.get(row, column));
+            if(qr[1].signum() != 0)return false;
+
+            for(int j = column; j < remainder.length; j++) {
+                remainder[j] = remainder[j].subtract(qr[0].multiply(hnf.get(row, j)));
+            }
+        }
+
+        for(BigInteger value : remainder) {
+            if(value.signum() != 0)return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Recognizes rows that are either {@code e_i + (entries past the first k columns)} for {@code i < k} or
+     * {@code m e_j} for {@code j >= k}, with one shared modulus {@code m}. Extra copies of {@code m e_i} for
+     * {@code i < k} are implied by the others and dropped. Returns null for any other shape.
+     */
+    private static BigInteger[][] modulusBasis(BigInteger[][] rows, int columns) {
+        BigInteger[][] units = new BigInteger[columns][];
+        boolean[] covered = new boolean[columns];
+        BigInteger modulus = null;
+        int k = 0;
+
+        for(BigInteger[] row : rows) {
+            int lead = 0;
+            while(lead < columns && row[lead].signum() == 0)lead++;
+            if(lead == columns)continue;
+
+            if(row[lead].equals(BigInteger.ONE) && units[lead] == null) {
+                units[lead] = row;
+                k = Math.max(k, lead + 1);
+                continue;
+            }
+
+            if(modulus == null)modulus = row[lead];
+            if(!row[lead].equals(modulus) || modulus.signum() <= 0)return null;
+
+            for(int j = lead + 1; j < columns; j++) {
+                if(row[j].signum() != 0)return null;
+            }
+
+            covered[lead] = true;
+        }
+
+        if(modulus == null || k == 0)return null;
+
+        for(int i = 0; i < columns; i++) {
+            if(i < k && units[i] == null)return null;
+            if(i >= k && (units[i] != null || !covered[i]))return null;
+
+            for(int j = 0; i < k && j < k; j++) {
+                if(j != i && units[i][j].signum() != 0)return null;
+            }
+        }
+
+        BigInteger[][] result = new BigInteger[columns][columns];
+
+        for(int i = 0; i < columns; i++) {
+            for(int j = 0; j < columns; j++) {
+                if(i < k) {
+                    result[i][j] = j < k ? units[i][j] : units[i][j].mod(modulus);
+                } else {
+                    result[i][j] = i == j ? modulus : BigInteger.ZERO;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Picks {@code columns} rows that are independent modulo a large prime, and therefore over the rationals, or
+     * returns null if there are none.
+     */
+    private static int[] independentRows(BigInteger[][] rows, int columns) {
+        if(rows.length < columns)return null;
+        Montgomery field = new Montgomery(Primes.getLargePrimes(1)[0]);
+        long[][] echelon = new long[columns][];
+        int[] pivots = new int[columns], chosen = new int[columns];
+        int rank = 0;
+
+        for(int i = 0; i < rows.length && rank < columns; i++) {
+            long[] row = new long[columns];
+
+            for(int j = 0; j < columns; j++) {
+                row[j] = field.toMontgomery(rows[i][j]);
+            }
+
+            for(int r = 0; r < rank; r++) {
+                long factor = row[pivots[r]];
+                if(factor == 0)continue;
+
+                for(int j = pivots[r]; j < columns; j++) {
+                    row[j] = field.subtract(row[j], field.multiply(factor, echelon[r][j]));
+                }
+            }
+
+            int pivot = 0;
+            while(pivot < columns && row[pivot] == 0)pivot++;
+            if(pivot == columns)continue;
+
+            long inverse = field.invert(row[pivot]);
+
+            for(int j = pivot; j < columns; j++) {
+                row[j] = field.multiply(row[j], inverse);
+            }
+
+            echelon[rank] = row;
+            pivots[rank] = pivot;
+            chosen[rank++] = i;
+        }
+
+        return rank == columns ? chosen : null;
+    }
+
+    private static BigInteger determinant(ZMatrix matrix) {
+        if(matrix.getRowCount() < MultiModular.THRESHOLD) {
+            return matrix.bareiss().getIntegerDeterminant();
+        }
+
+        return MultiModular.of(matrix, false).getIntegerDeterminant();
+    }
+
+    /**
+     * Domich-Kannan-Trotter elimination modulo {@code d}, a multiple of the determinant of the full rank lattice.
+     * Before column {@code c}, the modulus {@code r} is {@code d} over the pivots found so far, and {@code r e_j} lies
+     * in the lattice for every {@code j >= c}. So the active rows may be reduced modulo {@code r}. The pivot of
+     * column {@code c} is the gcd of {@code r} and the one active entry left after elimination.
+     */
+    private static BigInteger[][] modular(BigInteger[][] rows, int columns, BigInteger d) {
+        BigInteger[][] active = new BigInteger[rows.length][];
+        BigInteger[][] result = new BigInteger[columns][];
+        BigInteger r = d;
+        int count = rows.length;
+
+        for(int i = 0; i < count; i++) {
+            active[i] = new BigInteger[columns];
+
+            for(int j = 0; j < columns; j++) {
+                active[i][j] = rows[i][j].mod(r);
+            }
+        }
+
+        for(int c = 0; c < columns; c++) {
+            int pivot = -1;
+
+            for(int i = 0; i < count; i++) {
+                if(active[i][c].signum() == 0)continue;
+
+                if(pivot < 0) {
+                    pivot = i;
+                    continue;
+                }
+
+                BigInteger[] gcd = extendedGcd(active[pivot][c], active[i][c]);
+                BigInteger x = active[pivot][c].divide(gcd[0]), y = active[i][c].divide(gcd[0]);
+
+                for(int j = c; j < columns; j++) {
+                    BigInteger a = active[pivot][j], b = active[i][j];
+                    active[pivot][j] = gcd[1].multiply(a).add(gcd[2].multiply(b)).mod(r);
+                    active[i][j] = x.multiply(b).subtract(y.multiply(a)).mod(r);
+                }
+            }
+
+            BigInteger[] row = result[c] = new BigInteger[columns];
+
+            for(int j = 0; j < c; j++) {
+                row[j] = BigInteger.ZERO;
+            }
+
+            if(pivot < 0) {
+                row[c] = r;
+
+                for(int j = c + 1; j < columns; j++) {
+                    row[j] = BigInteger.ZERO;
+                }
+            } else {
+                BigInteger[] gcd = extendedGcd(active[pivot][c], r);
+                row[c] = gcd[0];
+
+                for(int j = c + 1; j < columns; j++) {
+                    row[j] = gcd[1].multiply(active[pivot][j]).mod(r);
+                }
+
+                active[pivot] = active[--count];
+            }
+
+            for(int i = 0; i < c; i++) {
+                reduceAbove(result[i], row, c, columns);
+            }
+
+            r = r.divide(row[c]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Extended gcd elimination that keeps every row, so that the row operations can be recorded in
+     * {@code transform} when it is not null.
+     */
+    private static Result eliminate(BigInteger[][] rows, int columns, BigInteger[][] transform) {
+        int rank = 0;
+
+        for(int c = 0; c < columns && rank < rows.length; c++) {
+            for(int i = rank + 1; i < rows.length; i++) {
+                if(rows[i][c].signum() == 0)continue;
+
+                if(rows[rank][c].signum() == 0) {
+                    swap(rows, rank, i);
+                    if(transform != null)swap(transform, rank, i);
+                    continue;
+                }
+
+                BigInteger[] gcd = extendedGcd(rows[rank][c], rows[i][c]);
+                BigInteger x = rows[rank][c].divide(gcd[0]), y = rows[i][c].divide(gcd[0]);
+                combine(rows[rank], rows[i], gcd[1], gcd[2], x, y);
+                if(transform != null)combine(transform[rank], transform[i], gcd[1], gcd[2], x, y);
+            }
+
+            if(rows[rank][c].signum() == 0)continue;
+
+            if(rows[rank][c].signum() < 0) {
+                negate(rows[rank]);
+                if(transform != null)negate(transform[rank]);
+            }
+
+            for(int i = 0; i < rank; i++) {
+                BigInteger q = floorDivide(rows[i][c], rows[rank][c]);
+                if(q.signum() == 0)continue;
+                subtractMultiple(rows[i], rows[rank], q);
+                if(transform != null)subtractMultiple(transform[i], transform[rank], q);
+            }
+
+            rank++;
+        }
+
+        return new Result(new ZMatrix(rows), transform == null ? null : new ZMatrix(transform), rank);
+    }
+
+    private static void reduceAbove(BigInteger[] row, BigInteger[] pivotRow, int column, int columns) {
+        BigInteger q = floorDivide(row[column], pivotRow[column]);
+        if(q.signum() == 0)return;
+
+        for(int j = column; j < columns; j++) {
+            row[j] = row[j].subtract(q.multiply(pivotRow[j]));
+        }
+    }
+
+    /**
+     * Replaces {@code (a, b)} with {@code (u a + v b, x b - y a)}, which is unimodular when {@code u x + v y = 1}.
+     */
+    private static void combine(BigInteger[] a, BigInteger[] b, BigInteger u, BigInteger v, BigInteger x, BigInteger y) {
+        for(int j = 0; j < a.length; j++) {
+            BigInteger first = a[j], second = b[j];
+            a[j] = u.multiply(first).add(v.multiply(second));
+            b[j] = x.multiply(second).subtract(y.multiply(first));
+        }
+    }
+
+    private static void subtractMultiple(BigInteger[] row, BigInteger[] other, BigInteger factor) {
+        for(int j = 0; j < row.length; j++) {
+            row[j] = row[j].subtract(factor.multiply(other[j]));
+        }
+    }
+
+    private static void negate(BigInteger[] row) {
+        for(int j = 0; j < row.length; j++) {
+            row[j] = row[j].negate();
+        }
+    }
+
+    private static void swap(BigInteger[][] rows, int i, int j) {
+        BigInteger[] temp = rows[i];
+        rows[i] = rows[j];
+        rows[j] = temp;
+    }
+
+    private static BigInteger floorDivide(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        return qr[1].signum() != 0 && qr[1].signum() != b.signum() ? qr[0].subtract(BigInteger.ONE) : qr[0];
+    }
+
+    /**
+     * Returns {@code {g, u, v}} with {@code g = gcd(a, b) >= 0} and {@code u a + v b = g}.
+     */
+    private static BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+        BigInteger r0 = a, r1 = b, u0 = BigInteger.ONE, u1 = BigInteger.ZERO, v0 = BigInteger.ZERO, v1 = BigInteger.ONE;
+
+        while(r1.signum() != 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger u = u0.subtract(qr[0].multiply(u1)), v = v0.subtract(qr[0].multiply(v1));
+            u0 = u1;
+            u1 = u;
+            v0 = v1;
+            v1 = v;
+        }
+
+        return r0.signum() < 0 ? new BigInteger[] {r0.negate(), u0.negate(), v0.negate()} : new BigInteger[] {r0, u0, v0};
+    }
+
+    private static BigInteger[][] toArray(ZMatrix matrix) {
+        BigInteger[][] rows = new BigInteger[matrix.getRowCount()][matrix.getColumnCount()];
+
+        for(int row = 0; row < rows.length; row++) {
+            for(int column = 0; column < rows[row].length; column++) {
+                rows[row][column] = matrix.get(row, column);
+            }
+        }
+
+        return rows;
+    }
+
+    public static final class Result {
+        private final ZMatrix matrix;
+        private final ZMatrix transform;
+        private final int rank;
+
+        private Result(ZMatrix matrix, ZMatrix transform, int rank) {
+            this.matrix = matrix;
+            this.transform = transform;
+            this.rank = rank;
+        }
+
+        /**
+         * Returns the form with one row per row of the original basis, the zero rows last.
+         */
+        public ZMatrix getMatrix() {
+            return this.matrix;
+        }
+
+        /**
+         * Returns the nonzero rows of the form, a basis of the lattice.
+         */
+        public ZMatrix getBasis() {
+            return new ZMatrix(this.rank, this.matrix.getColumnCount(), this.matrix::get);
+        }
+
+        public ZMatrix getTransform() {
+            return this.transform;
+        }
+
+        public int getRank() {
+            return this.rank;
+        }
+    }
+
+}
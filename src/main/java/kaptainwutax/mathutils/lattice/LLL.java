@@ -35,7 +35,7 @@ public final class LLL {
         }
 
         QMatrix newBasis = QMatrix.zero(basis.getRowCount(), basis.getColumnCount());
-        QMatrix coefficients = QMatrix.zero(basis.getRowCount(), basis.getColumnCount());
+        QMatrix coefficients = QMatrix.zero(basis.getRowCount(), basis.getRowCount());
         updateGramSchmidt(basis, newBasis, coefficients);
 
         for(int k = 1; k < basis.getRowCount(); ) {
@@ -64,12 +64,15 @@ public final class LLL {
     }
 
     private static void updateGramSchmidt(QMatrix basis, QMatrix newBasis, QMatrix coefficients) {
+        QVector.View source = null, target = null;
+
         for(int i = 0; i < basis.getRowCount(); i++) {
             QVector row = basis.getRowCopy(i);
+            source = basis.getRow(i, source);
 
             for(int j = 0; j < i; j++) {
-                QVector target = newBasis.getRow(j);
-                coefficients.set(i, j, basis.getRow(i).gramSchmidtCoefficient(target));
+                target = newBasis.getRow(j, target);
+                coefficients.set(i, j, source.gramSchmidtCoefficient(target));
                 row.subtractAndSet(target.scale(coefficients.get(i, j)));
             }
 
@@ -77,8 +80,11 @@ public final class LLL {
         }
 
         for(int row = 0; row < basis.getRowCount(); row++) {
-            for(int column = row; column < basis.getColumnCount(); column++) {
-                coefficients.set(row, column, basis.getRow(row).gramSchmidtCoefficient(newBasis.getRow(column)));
+            source = basis.getRow(row, source);
+
+            for(int column = row; column < basis.getRowCount(); column++) {
+                target = newBasis.getRow(column, target);
+                coefficients.set(row, column, source.gramSchmidtCoefficient(target));
             }
         }
     }
@@ -0,0 +1,457 @@
+package kaptainwutax.mathutils.lattice;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.ZVector;
+
+import java.math.BigInteger;
+
+/**
+ * Smith normal form {@code S = U A V} of an integer matrix, with {@code U} and {@code V} unimodular and {@code S}
+ * diagonal, its nonzero entries {@code d_1 | d_2 | ... | d_r} positive. Those invariant factors describe the
+ * cokernel {@code Z^m / A Z^n} as a product of cyclic groups.
+ *
+ * <p>The invariant factors alone are found modulo a determinant. The matrix is first brought to a nonsingular
+ * square {@link HNF} of the same rank, whose determinant {@code D} is the product of its pivots. Every invariant
+ * factor divides {@code D}, so elimination over {@code Z / D Z} finds each of them as the gcd of a pivot with
+ * {@code D}. What remains of {@code D} shrinks by each factor found. The transforms cannot be recovered modulo
+ * {@code D}, so {@link #reduceWithTransforms(ZMatrix)} eliminates over the integers. It always divides by the
+ * smallest entry left, which keeps the growth moderate.
+ */
+public final class SNF {
+
+    /**
+     * Returns the invariant factors {@code d_1 | d_2 | ... | d_r} of {@code matrix}, where {@code r} is its rank.
+     */
+    public static BigInteger[] getInvariantFactors(ZMatrix matrix) {
+        ZMatrix hnf = HNF.reduce(matrix);
+        if(hnf.getRowCount() == 0)return new BigInteger[0];
+
+        if(hnf.getRowCount() < hnf.getColumnCount()) {
+            hnf = HNF.reduce(hnf.transpose());
+        }
+
+        int n = hnf.getRowCount();
+        BigInteger[][] a = new BigInteger[n][n];
+        BigInteger d = BigInteger.ONE;
+
+        for(int i = 0; i < n; i++) {
+            d = d.multiply(hnf.get(i, i));
+
+            for(int j = 0; j < n; j++) {
+                a[i][j] = hnf.get(i, j);
+            }
+        }
+
+        return modular(a, d);
+    }
+
+    /**
+     * Returns the invariant factors of a rational {@code matrix}, those of the integer matrix scaled by the common
+     * denominator, divided by it again.
+     */
+    public static Rational[] getInvariantFactors(QMatrix matrix) {
+        BigInteger scale = getScale(matrix);
+        BigInteger[] factors = getInvariantFactors(scale(matrix, scale));
+        Rational[] result = new Rational[factors.length];
+
+        for(int i = 0; i < factors.length; i++) {
+            result[i] = Rational.of(factors[i], scale);
+        }
+
+        return result;
+    }
+
+    public static ZMatrix reduce(ZMatrix matrix) {
+        BigInteger[] factors = getInvariantFactors(matrix);
+        return new ZMatrix(matrix.getRowCount(), matrix.getColumnCount(),
+                (row, column) -> row == column && row < factors.length ? factors[row] : BigInteger.ZERO);
+    }
+
+    public static QMatrix reduce(QMatrix matrix) {
+        Rational[] factors = getInvariantFactors(matrix);
+        return new QMatrix(matrix.getRowCount(), matrix.getColumnCount(),
+                (row, column) -> row == column && row < factors.length ? factors[row] : Rational.ZERO);
+    }
+
+    /**
+     * Returns {@code S} together with unimodular {@code U} and {@code V} such that {@code U * matrix * V = S}.
+     */
+    public static Result reduceWithTransforms(ZMatrix matrix) {
+        return eliminate(matrix, BigInteger.ONE);
+    }
+
+    /**
+     * Returns {@code S} and the transforms for the integer matrix {@code s * matrix}, where {@code s} is the common
+     * denominator of the entries and is kept as {@link Result#getScale()}.
+     */
+    public static Result reduceWithTransforms(QMatrix matrix) {
+        BigInteger scale = getScale(matrix);
+        return eliminate(scale(matrix, scale), scale);
+    }
+
+    /**
+     * Returns an integer solution of {@code matrix * x = b}, or null if there is none. With {@code U A V = S}, the
+     * system becomes {@code S y = U b} and {@code x = V y}.
+     */
+    public static ZVector solve(ZMatrix matrix, ZVector b) {
+        if(b.getDimension() != matrix.getRowCount()) {
+            throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+        }
+
+        Result result = reduceWithTransforms(matrix);
+        ZVector c = result.getLeftTransform().multiply(b);
+        BigInteger[] y = new BigInteger[matrix.getColumnCount()];
+
+        for(int i = 0; i < y.length; i++) {
+            y[i] = BigInteger.ZERO;
+        }
+
+        for(int i = 0; i < c.getDimension(); i++) {
+            if(i >= result.getRank()) {
+                if(c.get(i).signum() != 0)return null;
+                continue;
+            }
+
+            BigInteger[] qr = c.get(i).divideAndRemainder(result.getMatrix().get(i, i));
+            if(qr[1].signum() != 0)return null;
+            y[i] = qr[0];
+        }
+
+        return result.getRightTransform().multiply(new ZVector(y));
+    }
+
+    /**
+     * Diagonalizes the nonsingular {@code a} over {@code Z / r Z}, where {@code r} starts as a multiple of
+     * {@code |det a|}. Each pivot is the entry whose gcd with {@code r} is smallest. A pivot that does not divide the
+     * rest of the submatrix gets the offending row added to its own before the row and column are cleared again.
+     */
+    private static BigInteger[] modular(BigInteger[][] a, BigInteger r) {
+        int n = a.length;
+        BigInteger[] factors = new BigInteger[n];
+
+        for(int k = 0; k < n; k++) {
+            for(int i = k; i < n; i++) {
+                for(int j = k; j < n; j++) {
+                    a[i][j] = a[i][j].mod(r);
+                }
+            }
+
+            while(true) {
+                int pivotRow = k, pivotColumn = k;
+                BigInteger best = null;
+
+                for(int i = k; i < n; i++) {
+                    for(int j = k; j < n; j++) {
+                        if(a[i][j].signum() == 0)continue;
+                        BigInteger gcd = a[i][j].gcd(r);
+
+                        if(best == null || gcd.compareTo(best) < 0) {
+                            best = gcd;
+                            pivotRow = i;
+                            pivotColumn = j;
+                        }
+                    }
+                }
+
+                swapRows(a, k, pivotRow);
+                swapColumns(a, k, pivotColumn);
+                clear(a, k, r);
+
+                BigInteger gcd = a[k][k].gcd(r);
+                int offending = -1;
+
+                for(int i = k + 1; i < n && offending < 0; i++) {
+                    for(int j = k + 1; j < n; j++) {
+                        if(a[i][j].mod(gcd).signum() != 0) {
+                            offending = i;
+                            break;
+                        }
+                    }
+                }
+
+                if(offending < 0) {
+                    factors[k] = gcd;
+                    r = r.divide(gcd);
+                    break;
+                }
+
+                for(int j = k; j < n; j++) {
+                    a[k][j] = a[k][j].add(a[offending][j]).mod(r);
+                }
+            }
+        }
+
+        return factors;
+    }
+
+    /**
+     * Clears row and column {@code k} past the diagonal with extended gcd combinations modulo {@code r}, repeating
+     * until clearing the row leaves the column clear. Every pass either leaves the pivot alone or replaces it with a
+     * proper divisor, so this ends.
+     */
+    private static void clear(BigInteger[][] a, int k, BigInteger r) {
+        int n = a.length;
+        boolean dirty = true;
+
+        while(dirty) {
+            for(int i = k + 1; i < n; i++) {
+                if(a[i][k].signum() == 0)continue;
+                BigInteger[] gcd = coefficients(a[k][k], a[i][k]);
+
+                for(int j = k; j < n; j++) {
+                    BigInteger first = a[k][j], second = a[i][j];
+                    a[k][j] = gcd[1].multiply(first).add(gcd[2].multiply(second)).mod(r);
+                    a[i][j] = gcd[3].multiply(second).subtract(gcd[4].multiply(first)).mod(r);
+                }
+            }
+
+            dirty = false;
+
+            for(int j = k + 1; j < n; j++) {
+                if(a[k][j].signum() == 0)continue;
+                BigInteger[] gcd = coefficients(a[k][k], a[k][j]);
+
+                for(int i = k; i < n; i++) {
+                    BigInteger first = a[i][k], second = a[i][j];
+                    a[i][k] = gcd[1].multiply(first).add(gcd[2].multiply(second)).mod(r);
+                    a[i][j] = gcd[3].multiply(second).subtract(gcd[4].multiply(first)).mod(r);
+                    if(i > k && a[i][k].signum() != 0)dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns {@code {g, u, v, x, y}} such that {@code (u, v; -y, x)} is unimodular and sends {@code (pivot, value)}
+     * to {@code (g, 0)}. When the pivot divides the value, it is kept as it is.
+     */
+    private static BigInteger[] coefficients(BigInteger pivot, BigInteger value) {
+        BigInteger[] qr = value.divideAndRemainder(pivot);
+
+        if(qr[1].signum() == 0) {
+            return new BigInteger[] {pivot, BigInteger.ONE, BigInteger.ZERO, BigInteger.ONE, qr[0]};
+        }
+
+        BigInteger[] gcd = extendedGcd(pivot, value);
+        return new BigInteger[] {gcd[0], gcd[1], gcd[2], pivot.divide(gcd[0]), value.divide(gcd[0])};
+    }
+
+    /**
+     * Integer elimination that records the row operations in {@code U} and the column operations in {@code V}. Each
+     * round moves the smallest nonzero entry of the submatrix to the diagonal and divides its row and column by it.
+     */
+    private static Result eliminate(ZMatrix matrix, BigInteger scale) {
+        int m = matrix.getRowCount(), n = matrix.getColumnCount();
+        BigInteger[][] a = new BigInteger[m][n];
+        BigInteger[][] u = identity(m), v = identity(n);
+        int rank = 0;
+
+        for(int i = 0; i < m; i++) {
+            for(int j = 0; j < n; j++) {
+                a[i][j] = matrix.get(i, j);
+            }
+        }
+
+        for(int k = 0; k < Math.min(m, n); k++) {
+            int pivotRow = -1, pivotColumn = -1;
+
+            while(true) {
+                pivotRow = -1;
+
+                for(int i = k; i < m; i++) {
+                    for(int j = k; j < n; j++) {
+                        if(a[i][j].signum() == 0)continue;
+
+                        if(pivotRow < 0 || a[i][j].abs().compareTo(a[pivotRow][pivotColumn].abs()) < 0) {
+                            pivotRow = i;
+                            pivotColumn = j;
+                        }
+                    }
+                }
+
+                if(pivotRow < 0)break;
+                swapRows(a, k, pivotRow);
+                swapRows(u, k, pivotRow);
+                swapColumns(a, k, pivotColumn);
+                swapColumns(v, k, pivotColumn);
+
+                BigInteger pivot = a[k][k];
+                boolean clear = true;
+
+                for(int i = k + 1; i < m; i++) {
+                    BigInteger q = a[i][k].divide(pivot);
+                    if(q.signum() != 0)addRowMultiple(a, u, i, k, q.negate());
+                    clear &= a[i][k].signum() == 0;
+                }
+
+                for(int j = k + 1; j < n; j++) {
+                    BigInteger q = a[k][j].divide(pivot);
+                    if(q.signum() != 0)addColumnMultiple(a, v, j, k, q.negate());
+                    clear &= a[k][j].signum() == 0;
+                }
+
+                if(!clear)continue;
+                int offending = -1;
+
+                for(int i = k + 1; i < m && offending < 0; i++) {
+                    for(int j = k + 1; j < n; j++) {
+                        if(a[i][j].mod(pivot.abs()).signum() != 0) {
+                            offending = i;
+                            break;
+                        }
+                    }
+                }
+
+                if(offending < 0)break;
+                addRowMultiple(a, u, k, offending, BigInteger.ONE);
+            }
+
+            if(pivotRow < 0)break;
+
+            if(a[k][k].signum() < 0) {
+                for(int j = 0; j < n; j++) {
+                    a[k][j] = a[k][j].negate();
+                }
+
+                for(int j = 0; j < m; j++) {
+                    u[k][j] = u[k][j].negate();
+                }
+            }
+
+            rank++;
+        }
+
+        return new Result(new ZMatrix(m, n, (row, column) -> a[row][column]), new ZMatrix(m, m, (row, column) -> u[row][column]),
+                new ZMatrix(n, n, (row, column) -> v[row][column]), rank, scale);
+    }
+
+    private static void addRowMultiple(BigInteger[][] a, BigInteger[][] u, int target, int source, BigInteger factor) {
+        for(int j = 0; j < a[target].length; j++) {
+            a[target][j] = a[target][j].add(factor.multiply(a[source][j]));
+        }
+
+        for(int j = 0; j < u[target].length; j++) {
+            u[target][j] = u[target][j].add(factor.multiply(u[source][j]));
+        }
+    }
+
+    private static void addColumnMultiple(BigInteger[][] a, BigInteger[][] v, int target, int source, BigInteger factor) {
+        for(BigInteger[] row : a) {
+            row[target] = row[target].add(factor.multiply(row[source]));
+        }
+
+        for(BigInteger[] row : v) {
+            row[target] = row[target].add(factor.multiply(row[source]));
+        }
+    }
+
+    private static void swapRows(BigInteger[][] a, int i, int j) {
+        BigInteger[] temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void swapColumns(BigInteger[][] a, int i, int j) {
+        if(i == j)return;
+
+        for(BigInteger[] row : a) {
+            BigInteger temp = row[i];
+            row[i] = row[j];
+            row[j] = temp;
+        }
+    }
+
+    private static BigInteger[][] identity(int size) {
+        BigInteger[][] result = new BigInteger[size][size];
+
+        for(int i = 0; i < size; i++) {
+            for(int j = 0; j < size; j++) {
+                result[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns {@code {g, u, v}} with {@code g = gcd(a, b) >= 0} and {@code u a + v b = g}.
+     */
+    private static BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+        BigInteger r0 = a, r1 = b, u0 = BigInteger.ONE, u1 = BigInteger.ZERO, v0 = BigInteger.ZERO, v1 = BigInteger.ONE;
+
+        while(r1.signum() != 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger s = u0.subtract(qr[0].multiply(u1)), t = v0.subtract(qr[0].multiply(v1));
+            u0 = u1;
+            u1 = s;
+            v0 = v1;
+            v1 = t;
+        }
+
+        return r0.signum() < 0 ? new BigInteger[] {r0.negate(), u0.negate(), v0.negate()} : new BigInteger[] {r0, u0, v0};
+    }
+
+    private static BigInteger getScale(QMatrix matrix) {
+        BigInteger scale = BigInteger.ONE;
+
+        for(int row = 0; row < matrix.getRowCount(); row++) {
+            for(int column = 0; column < matrix.getColumnCount(); column++) {
+                BigInteger denominator = matrix.get(row, column).getDenominator();
+                scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+            }
+        }
+
+        return scale;
+    }
+
+    private static ZMatrix scale(QMatrix matrix, BigInteger scale) {
+        return new ZMatrix(matrix.getRowCount(), matrix.getColumnCount(), (row, column) -> {
+            Rational value = matrix.get(row, column);
+            return value.getNumerator().multiply(scale.divide(value.getDenominator()));
+        });
+    }
+
+    public static final class Result {
+        private final ZMatrix matrix;
+        private final ZMatrix left;
+        private final ZMatrix right;
+        private final int rank;
+        private final BigInteger scale;
+
+        private Result(ZMatrix matrix, ZMatrix left, ZMatrix right, int rank, BigInteger scale) {
+            this.matrix = matrix;
+            this.left = left;
+            this.right = right;
+            this.rank = rank;
+            this.scale = scale;
+        }
+
+        public ZMatrix getMatrix() {
+            return this.matrix;
+        }
+
+        public ZMatrix getLeftTransform() {
+            return this.left;
+        }
+
+        public ZMatrix getRightTransform() {
+            return this.right;
+        }
+
+        public int getRank() {
+            return this.rank;
+        }
+
+        /**
+         * Returns the common denominator the rational input was scaled by, or one for integer input.
+         */
+        public BigInteger getScale() {
+            return this.scale;
+        }
+    }
+
+}
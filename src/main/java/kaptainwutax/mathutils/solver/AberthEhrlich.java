@@ -0,0 +1,280 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.arithmetic.Complex;
+import kaptainwutax.mathutils.arithmetic.Polynomial;
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.arithmetic.Real;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Finds all complex roots of a polynomial at once with the Aberth-Ehrlich iteration. The bulk of the work runs on
+ * primitive doubles, with every root updated from the previous approximations so that the updates can run in
+ * parallel. Roots that cluster, are too ill-conditioned for double precision or fail to converge are then polished
+ * with {@link Complex} arithmetic at a higher decimal scale.
+ */
+public final class AberthEhrlich {
+
+    public static final int DEFAULT_SCALE = 40;
+    public static final int MAX_ITERATIONS = 1000;
+    public static final int MAX_REFINEMENTS = 200;
+    public static final int PARALLEL_THRESHOLD = 64;
+    public static final double CLUSTER_DISTANCE = 1.0E-4D;
+    public static final double ACCURACY = 1.0E-12D;
+
+    private static final double EPSILON = Math.ulp(1.0D);
+
+    public static Complex[] solve(Polynomial polynomial) {
+        return solve(polynomial, DEFAULT_SCALE);
+    }
+
+    public static Complex[] solve(Polynomial polynomial, int scale) {
+        int degree = polynomial.getDegree();
+
+        if(degree < 0) {
+            throw new IllegalArgumentException("Every point is a root of the zero polynomial");
+        }
+
+        int zeros = 0;
+        while(polynomial.getCoefficient(zeros).signum() == 0)zeros++;
+
+        Rational[] coefficients = new Rational[degree - zeros + 1];
+        double[] a = new double[coefficients.length];
+        Rational lead = polynomial.getCoefficient(degree);
+
+        for(int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = polynomial.getCoefficient(i + zeros).divide(lead);
+            a[i] = coefficients[i].doubleValue();
+        }
+
+        int n = coefficients.length - 1;
+        double[] re = new double[n], im = new double[n];
+        double[] error = new double[n];
+        boolean[] converged = new boolean[n];
+        initialize(a, re, im);
+        iterate(a, re, im, converged, error);
+
+        Complex[] roots = new Complex[degree];
+        Arrays.fill(roots, n, degree, Complex.ZERO);
+        int[] refine = IntStream.range(0, n).filter(i -> !converged[i] || isClustered(re, im, i)
+                || !(error[i] <= ACCURACY * Math.max(Math.hypot(re[i], im[i]), 1.0D))).toArray();
+
+        if(refine.length == 0) {
+            for(int i = 0; i < n; i++) {
+                roots[i] = Complex.of(BigDecimal.valueOf(re[i]), BigDecimal.valueOf(im[i]));
+            }
+
+            return roots;
+        }
+
+        Complex[] z = new Complex[n];
+
+        for(int i = 0; i < n; i++) {
+            z[i] = round(Complex.of(BigDecimal.valueOf(re[i]), BigDecimal.valueOf(im[i])), scale);
+        }
+
+        refine(coefficients, z, refine, scale);
+        System.arraycopy(z, 0, roots, 0, n);
+        return roots;
+    }
+
+    /**
+     * Spreads the starting points on a circle whose radius is the geometric mean of the root magnitudes, with an
+     * angular offset so that no start lies on the real axis.
+     */
+    private static void initialize(double[] a, double[] re, double[] im) {
+        int n = re.length;
+        double radius = Math.pow(Math.abs(a[0]), 1.0D / n);
+        if(radius == 0.0D || !Double.isFinite(radius))radius = 1.0D;
+
+        for(int i = 0; i < n; i++) {
+            double angle = 2.0D * Math.PI * i / n + 0.4D;
+            re[i] = radius * Math.cos(angle);
+            im[i] = radius * Math.sin(angle);
+        }
+    }
+
+    private static void iterate(double[] a, double[] re, double[] im, boolean[] converged, double[] error) {
+        int n = re.length;
+        double[] nextRe = new double[n], nextIm = new double[n];
+
+        for(int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[] currentRe = re, currentIm = im;
+            IntStream indices = IntStream.range(0, n);
+            if(n >= PARALLEL_THRESHOLD)indices = indices.parallel();
+
+            indices.forEach(i -> {
+                nextRe[i] = currentRe[i];
+                nextIm[i] = currentIm[i];
+                if(converged[i])return;
+                double[] step = step(a, currentRe, currentIm, i);
+                error[i] = step[2];
+
+                if(step[3] != 0.0D) {
+                    converged[i] = true;
+                    return;
+                }
+
+                nextRe[i] -= step[0];
+                nextIm[i] -= step[1];
+                double magnitude = Math.hypot(currentRe[i], currentIm[i]);
+                if(Math.hypot(step[0], step[1]) <= 4.0D * EPSILON * Math.max(magnitude, 1.0D))converged[i] = true;
+            });
+
+            System.arraycopy(nextRe, 0, re, 0, n);
+            System.arraycopy(nextIm, 0, im, 0, n);
+
+            boolean done = true;
+            for(boolean c : converged)done &= c;
+            if(done)return;
+        }
+    }
+
+    /**
+     * Computes the Aberth correction {@code N / (1 - N * sum 1 / (z_i - z_j))} with the Newton ratio
+     * {@code N = p / p'} for root {@code i}. Outside the unit disk the ratio comes from the reversed polynomial at
+     * {@code 1 / z} so that high degrees cannot overflow. The result holds the correction, an estimate of the
+     * root's forward error and whether {@code p(z_i)} already sits below its own rounding error.
+     */
+    private static double[] step(double[] a, double[] re, double[] im, int i) {
+        double zr = re[i], zi = im[i];
+        int n = a.length - 1;
+        double modulus = Math.hypot(zr, zi);
+        boolean reversed = modulus > 1.0D;
+        double xr = zr, xi = zi;
+
+        if(reversed) {
+            xr = zr / (modulus * modulus);
+            xi = -zi / (modulus * modulus);
+        }
+
+        double xm = Math.hypot(xr, xi);
+        double first = reversed ? a[0] : a[n];
+        double pr = first, pi = 0.0D, dr = 0.0D, di = 0.0D, bound = Math.abs(first);
+
+        for(int k = n - 1; k >= 0; k--) {
+            double c = reversed ? a[n - k] : a[k];
+            double t = dr * xr - di * xi + pr;
+            di = dr * xi + di * xr + pi;
+            dr = t;
+            t = pr * xr - pi * xi + c;
+            pi = pr * xi + pi * xr;
+            pr = t;
+            bound = bound * xm + Math.abs(c);
+        }
+
+        bound *= 4.0D * EPSILON;
+        double nr, ni, derivative;
+
+        if(reversed) {
+            //p(z) = z^n q(1 / z), so p / p' = z / (n - w q'(w) / q(w)) and p' = z^(n - 1) (n q - w q').
+            double sr = n * pr - (xr * dr - xi * di), si = n * pi - (xr * di + xi * dr);
+            double m = sr * sr + si * si;
+            derivative = Math.sqrt(m) / modulus;
+            nr = (zr * pr - zi * pi) * sr + (zr * pi + zi * pr) * si;
+            ni = (zr * pi + zi * pr) * sr - (zr * pr - zi * pi) * si;
+            nr /= m;
+            ni /= m;
+        } else {
+            double m = dr * dr + di * di;
+            derivative = Math.sqrt(m);
+            nr = (pr * dr + pi * di) / m;
+            ni = (pi * dr - pr * di) / m;
+        }
+
+        double estimate = derivative == 0.0D ? Double.POSITIVE_INFINITY : bound / derivative;
+        if(Math.hypot(pr, pi) <= bound || !Double.isFinite(nr) || !Double.isFinite(ni)) {
+            return new double[] {0.0D, 0.0D, estimate, 1.0D};
+        }
+
+        double sr = 0.0D, si = 0.0D;
+
+        for(int j = 0; j < re.length; j++) {
+            if(j == i)continue;
+            double ur = zr - re[j], ui = zi - im[j];
+            double m = ur * ur + ui * ui;
+            if(m == 0.0D)continue;
+            sr += ur / m;
+            si -= ui / m;
+        }
+
+        double qr = 1.0D - (nr * sr - ni * si);
+        double qi = -(nr * si + ni * sr);
+        double m = qr * qr + qi * qi;
+        if(m == 0.0D)return new double[] {nr, ni, estimate, 0.0D};
+        return new double[] {(nr * qr + ni * qi) / m, (ni * qr - nr * qi) / m, estimate, 0.0D};
+    }
+
+    private static boolean isClustered(double[] re, double[] im, int i) {
+        double limit = CLUSTER_DISTANCE * Math.max(Math.hypot(re[i], im[i]), 1.0D);
+
+        for(int j = 0; j < re.length; j++) {
+            if(j != i && Math.hypot(re[i] - re[j], im[i] - im[j]) < limit)return true;
+        }
+
+        return false;
+    }
+
+    private static void refine(Rational[] coefficients, Complex[] z, int[] indices, int scale) {
+        Real[] a = new Real[coefficients.length];
+
+        for(int i = 0; i < a.length; i++) {
+            a[i] = coefficients[i].toReal(scale, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal tolerance = BigDecimal.ONE.movePointLeft(scale - 2);
+        BigDecimal toleranceSq = tolerance.multiply(tolerance);
+
+        for(int iteration = 0; iteration < MAX_REFINEMENTS; iteration++) {
+            Complex[] current = z.clone();
+            boolean[] moved = new boolean[indices.length];
+            IntStream range = IntStream.range(0, indices.length);
+            if(indices.length >= 4)range = range.parallel();
+
+            range.forEach(k -> {
+                int i = indices[k];
+                Complex w = step(a, current, i, scale);
+                if(w == null)return;
+                z[i] = round(current[i].subtract(w), scale);
+                moved[k] = w.magnitudeSq().getValue().compareTo(toleranceSq) > 0;
+            });
+
+            boolean done = true;
+            for(boolean m : moved)done &= !m;
+            if(done)return;
+        }
+    }
+
+    private static Complex step(Real[] a, Complex[] z, int i, int scale) {
+        int n = a.length - 1;
+        Complex p = Complex.of(a[n]), d = Complex.ZERO;
+
+        for(int k = n - 1; k >= 0; k--) {
+            d = round(d.multiply(z[i]).add(p), scale);
+            p = round(p.multiply(z[i]).add(Complex.of(a[k])), scale);
+        }
+
+        if(p.getReal().signum() == 0 && p.getImaginary().signum() == 0)return null;
+        Complex sum = Complex.ZERO;
+
+        for(int j = 0; j < z.length; j++) {
+            if(j == i)continue;
+            Complex difference = z[i].subtract(z[j]);
+            if(difference.getReal().signum() == 0 && difference.getImaginary().signum() == 0)continue;
+            sum = sum.add(round(difference, scale).invert());
+        }
+
+        Complex q = round(d.subtract(p.multiply(sum)), scale);
+        if(q.getReal().signum() == 0 && q.getImaginary().signum() == 0)return null;
+        return round(p, scale).divide(q);
+    }
+
+    private static Complex round(Complex value, int scale) {
+        return Complex.of(value.getReal().setScale(scale, RoundingMode.HALF_UP),
+                value.getImaginary().setScale(scale, RoundingMode.HALF_UP));
+    }
+
+}
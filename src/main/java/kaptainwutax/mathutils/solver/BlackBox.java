@@ -0,0 +1,31 @@
+package kaptainwutax.mathutils.solver;
+
+/**
+ * A matrix seen only through its products with vectors, which is all the black-box solvers ask of it. How a
+ * {@code long[]} encodes a vector is up to the solver: {@link Wiedemann} reads one residue modulo its prime per
+ * coordinate, {@link BlockLanczos} one word per coordinate holding 64 vectors over {@code GF(2)}.
+ */
+@FunctionalInterface
+public interface BlackBox {
+
+	/**
+	 * Writes {@code B x} into {@code y}.
+	 */
+	void apply(long[] x, long[] y);
+
+	/**
+	 * A black box that also knows its shape and its transpose. {@link BlockLanczos} needs both, since it iterates on
+	 * the symmetric {@code B^T B}.
+	 */
+	interface Transposable extends BlackBox {
+		int getRowCount();
+
+		int getColumnCount();
+
+		/**
+		 * Writes {@code B^T y} into {@code x}, where {@code x} has one entry per column and {@code y} one per row.
+		 */
+		void applyTranspose(long[] y, long[] x);
+	}
+
+}
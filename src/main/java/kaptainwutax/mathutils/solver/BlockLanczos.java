@@ -0,0 +1,511 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.component.matrix.GF2Matrix;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Montgomery's block Lanczos algorithm for the kernel of a large sparse matrix {@code B} over {@code GF(2)}.
+ * {@code B} is given as a {@link BlackBox.Transposable}, in which bit {@code j} of word {@code k} is coordinate
+ * {@code k} of vector {@code j}. Each word of a block vector thus holds one coordinate of 64 vectors at once, so
+ * every product with {@code B} advances 64 Krylov sequences. The iteration runs on the symmetric
+ * {@code A = B^T B} and keeps only the last three blocks. It stops after about {@code n / 63} steps and
+ * touches nothing but those blocks. Past {@link #PARALLEL_THRESHOLD} coordinates, the block inner products and
+ * block-times-64x64 products are split across the common pool.
+ *
+ * <p>Small matrices, under {@link #DENSE_THRESHOLD} columns, are formed densely 64 columns per product and
+ * reduced with {@link GF2Matrix}.
+ */
+public class BlockLanczos {
+
+	public static final int ATTEMPTS = 4;
+	public static final int DENSE_THRESHOLD = 512;
+	public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private static final int CHUNK = 1 << 12;
+
+	public static BlackBox.Transposable of(GF2Matrix matrix) {
+		int rows = matrix.getRowCount(), columns = matrix.getColumnCount();
+		int[][] entries = new int[rows][];
+
+		for(int row = 0; row < rows; row++) {
+			int count = 0;
+			int[] list = new int[8];
+
+			for(int column = 0; column < columns; column++) {
+				if(!matrix.get(row, column))continue;
+				if(count == list.length)list = Arrays.copyOf(list, 2 * count);
+				list[count++] = column;
+			}
+
+			entries[row] = Arrays.copyOf(list, count);
+		}
+
+		return sparse(rows, columns, entries);
+	}
+
+	/**
+	 * Returns a black box over the matrix whose row {@code i} has ones exactly in the columns {@code rowColumns[i]}.
+	 * Both the rows and the columns are kept, so that {@code B x} and {@code B^T y} are each a gather over
+	 * independent outputs and run in parallel.
+	 */
+	public static BlackBox.Transposable sparse(int rows, int columns, int[][] rowColumns) {
+		int[] counts = new int[columns];
+
+		for(int[] entries : rowColumns) {
+			for(int column : entries)counts[column]++;
+		}
+
+		int[][] columnRows = new int[columns][];
+
+		for(int column = 0; column < columns; column++) {
+			columnRows[column] = new int[counts[column]];
+			counts[column] = 0;
+		}
+
+		for(int row = 0; row < rows; row++) {
+			for(int column : rowColumns[row]) {
+				columnRows[column][counts[column]++] = row;
+			}
+		}
+
+		return new BlackBox.Transposable() {
+			@Override
+			public int getRowCount() {
+				return rows;
+			}
+
+			@Override
+			public int getColumnCount() {
+				return columns;
+			}
+
+			@Override
+			public void apply(long[] x, long[] y) {
+				gather(rowColumns, x, y);
+			}
+
+			@Override
+			public void applyTranspose(long[] y, long[] x) {
+				gather(columnRows, y, x);
+			}
+		};
+	}
+
+	private static void gather(int[][] lists, long[] in, long[] out) {
+		range(out.length).forEach(i -> {
+			long sum = 0;
+			for(int index : lists[i])sum ^= in[index];
+			out[i] = sum;
+		});
+	}
+
+	/**
+	 * Returns a matrix whose columns are independent vectors of the kernel of {@code box}. Block Lanczos usually
+	 * finds most of a small kernel, up to 64 vectors, but not necessarily all of it.
+	 */
+	public static GF2Matrix getNullSpace(BlackBox.Transposable box) {
+		return getNullSpace(box, new Random());
+	}
+
+	public static GF2Matrix getNullSpace(BlackBox.Transposable box, Random random) {
+		if(box.getColumnCount() < DENSE_THRESHOLD)return dense(box).getNullSpace();
+
+		for(int attempt = 0; attempt < ATTEMPTS; attempt++) {
+			GF2Matrix kernel = lanczos(box, random);
+			if(kernel != null)return kernel;
+		}
+
+		throw new ArithmeticException("Block Lanczos failed to converge");
+	}
+
+	/**
+	 * Returns a packed solution of {@code B x = b}, in the packing of {@link GF2Matrix#solve(long[])}, or null if
+	 * none was found. The kernel of {@code [B | b]} is searched for a vector whose last coordinate is set. Only the
+	 * up to 64 kernel vectors one run finds are searched, so when the kernel of {@code B} has more than about 64
+	 * dimensions, null can come back even for a consistent system.
+	 */
+	public static long[] solve(BlackBox.Transposable box, long[] b) {
+		int rows = box.getRowCount(), columns = box.getColumnCount();
+		long[] mask = new long[rows];
+
+		for(int row = 0; row < rows; row++) {
+			if((b[row >>> 6] >>> row & 1) != 0)mask[row] = -1L;
+		}
+
+		BlackBox.Transposable augmented = new BlackBox.Transposable() {
+			@Override
+			public int getRowCount() {
+				return rows;
+			}
+
+			@Override
+			public int getColumnCount() {
+				return columns + 1;
+			}
+
+			@Override
+			public void apply(long[] x, long[] y) {
+				box.apply(Arrays.copyOf(x, columns), y);
+				for(int row = 0; row < rows; row++)y[row] ^= mask[row] & x[columns];
+			}
+
+			@Override
+			public void applyTranspose(long[] y, long[] x) {
+				long[] result = new long[columns];
+				box.applyTranspose(y, result);
+				System.arraycopy(result, 0, x, 0, columns);
+				long sum = 0;
+				for(int row = 0; row < rows; row++)sum ^= mask[row] & y[row];
+				x[columns] = sum;
+			}
+		};
+
+		GF2Matrix kernel = getNullSpace(augmented);
+
+		for(int j = 0; j < kernel.getColumnCount(); j++) {
+			if(!kernel.get(columns, j))continue;
+			long[] x = new long[(columns + 63) >>> 6];
+
+			for(int i = 0; i < columns; i++) {
+				if(kernel.get(i, j))x[i >>> 6] |= 1L << i;
+			}
+
+			return x;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Forms the matrix 64 columns at a time by applying it to blocks of unit vectors.
+	 */
+	private static GF2Matrix dense(BlackBox.Transposable box) {
+		int rows = box.getRowCount(), columns = box.getColumnCount();
+		GF2Matrix result = new GF2Matrix(rows, columns);
+		long[] x = new long[columns], y = new long[rows];
+
+		for(int start = 0; start < columns; start += 64) {
+			Arrays.fill(x, 0L);
+
+			for(int j = start; j < Math.min(columns, start + 64); j++) {
+				x[j] = 1L << (j - start);
+			}
+
+			box.apply(x, y);
+
+			for(int row = 0; row < rows; row++) {
+				long bits = y[row];
+
+				while(bits != 0) {
+					result.flip(row, start + Long.numberOfTrailingZeros(bits));
+					bits &= bits - 1;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Runs one Lanczos iteration from a random block {@code y}, solving {@code A x = A y}. The kernel vectors are then
+	 * combined out of {@code x - y} and the last block {@code v}, whichever combinations {@code B} sends to zero.
+	 * Returns null when the choice of subspaces breaks down, which calls for a new random start.
+	 */
+	private static GF2Matrix lanczos(BlackBox.Transposable box, Random random) {
+		int n = box.getColumnCount();
+		long[] temp = new long[box.getRowCount()];
+		long[] y = new long[n];
+
+		for(int i = 0; i < n; i++) {
+			y[i] = random.nextLong();
+		}
+
+		long[] v0 = new long[n];
+		applySymmetric(box, y, v0, temp);
+
+		long[] v = v0.clone(), v1 = new long[n], v2 = new long[n];
+		long[] av = new long[n], next = new long[n];
+		long[] x = new long[n];
+		long[] winv1 = new long[64], winv2 = new long[64];
+		long[] vtav1 = new long[64], vta2v1 = new long[64];
+		long mask1 = -1L;
+		int limit = n / 63 + 64;
+
+		for(int iteration = 0; ; iteration++) {
+			if(iteration > limit)return null;
+			applySymmetric(box, v, av, temp);
+			long[] vtav = innerProduct(v, av);
+			long[] vta2v = innerProduct(av, av);
+			if(isZero(vtav))break;
+
+			long[] winv = new long[64];
+			long mask = choose(vtav, mask1, winv);
+			if(mask == 0 || (mask | mask1) != -1L)return null;
+
+			long[] d = new long[64], e = new long[64], f = new long[64], f2 = new long[64];
+
+			for(int k = 0; k < 64; k++) {
+				d[k] = (vta2v[k] & mask) ^ vtav[k];
+				e[k] = vtav[k] & mask;
+				f2[k] = (vta2v1[k] & mask1) ^ vtav1[k];
+			}
+
+			d = multiply(winv, d);
+			e = multiply(winv1, e);
+			f = multiply(vtav1, winv1);
+
+			for(int k = 0; k < 64; k++) {
+				d[k] ^= 1L << k;
+				f[k] ^= 1L << k;
+			}
+
+			f = multiply(winv2, multiply(f, f2));
+
+			for(int k = 0; k < 64; k++) {
+				f[k] &= mask;
+			}
+
+			long[] coefficients = multiply(winv, innerProduct(v, v0));
+			long[] vd = times(v, d), v1e = times(v1, e), v2f = times(v2, f), vc = times(v, coefficients);
+
+			for(int i = 0; i < n; i++) {
+				x[i] ^= vc[i];
+				next[i] = (av[i] & mask) ^ vd[i] ^ v1e[i] ^ v2f[i];
+			}
+
+			long[] recycled = v2;
+			v2 = v1;
+			v1 = v;
+			v = next;
+			next = recycled;
+			winv2 = winv1;
+			winv1 = winv;
+			vtav1 = vtav;
+			vta2v1 = vta2v;
+			mask1 = mask;
+		}
+
+		for(int i = 0; i < n; i++) {
+			x[i] ^= y[i];
+		}
+
+		return combine(box, x, v);
+	}
+
+	/**
+	 * Finds the combinations of the 128 candidate columns of {@code [x | v]} that {@code B} sends to zero. It
+	 * applies them, and keeps an independent set of the nonzero results.
+	 */
+	private static GF2Matrix combine(BlackBox.Transposable box, long[] x, long[] v) {
+		int n = box.getColumnCount(), rows = box.getRowCount();
+		long[] bx = new long[rows], bv = new long[rows];
+		box.apply(x, bx);
+		box.apply(v, bv);
+
+		GF2Matrix images = new GF2Matrix(rows, 128, (row, column) ->
+			((column < 64 ? bx[row] : bv[row]) >>> column & 1) != 0);
+		GF2Matrix combinations = images.getNullSpace();
+
+		GF2Matrix candidates = new GF2Matrix(combinations.getColumnCount(), n, (j, i) -> {
+			long bits = 0;
+
+			for(int c = 0; c < 64; c++) {
+				if(combinations.get(c, j))bits ^= x[i] >>> c;
+				if(combinations.get(64 + c, j))bits ^= v[i] >>> c;
+			}
+
+			return (bits & 1) != 0;
+		});
+
+		int rank = candidates.echelonizeAndSet();
+		return new GF2Matrix(n, rank, (i, j) -> candidates.get(j, i));
+	}
+
+	/**
+	 * Chooses the columns {@code S} of {@code T = V^T A V} to keep, all of those missing from {@code previous}
+	 * first, and writes {@code S (S^T T S)^-1 S^T} into {@code winv}. This is Montgomery's elimination on
+	 * {@code [T | I]}.
+	 */
+	private static long choose(long[] t, long previous, long[] winv) {
+		long[] left = t.clone();
+		int[] order = new int[64];
+		int count = 0;
+		long mask = 0;
+
+		for(int c = 0; c < 64; c++) {
+			if((previous >>> c & 1) == 0)order[count++] = c;
+		}
+
+		for(int c = 0; c < 64; c++) {
+			if((previous >>> c & 1) != 0)order[count++] = c;
+		}
+
+		for(int k = 0; k < 64; k++) {
+			winv[k] = 1L << k;
+		}
+
+		for(int j = 0; j < 64; j++) {
+			int c = order[j];
+			int pivot = -1;
+
+			for(int k = j; k < 64 && pivot == -1; k++) {
+				if((left[order[k]] >>> c & 1) != 0)pivot = order[k];
+			}
+
+			if(pivot != -1) {
+				swap(left, winv, c, pivot);
+
+				for(int r = 0; r < 64; r++) {
+					if(r != c && (left[r] >>> c & 1) != 0) {
+						left[r] ^= left[c];
+						winv[r] ^= winv[c];
+					}
+				}
+
+				mask |= 1L << c;
+				continue;
+			}
+
+			for(int k = j; k < 64 && pivot == -1; k++) {
+				if((winv[order[k]] >>> c & 1) != 0)pivot = order[k];
+			}
+
+			if(pivot == -1)return 0;
+			swap(left, winv, c, pivot);
+
+			for(int r = 0; r < 64; r++) {
+				if(r != c && (winv[r] >>> c & 1) != 0) {
+					left[r] ^= left[c];
+					winv[r] ^= winv[c];
+				}
+			}
+
+			left[c] = 0;
+			winv[c] = 0;
+		}
+
+		return mask;
+	}
+
+	private static void swap(long[] left, long[] right, int a, int b) {
+		long temp = left[a];
+		left[a] = left[b];
+		left[b] = temp;
+		temp = right[a];
+		right[a] = right[b];
+		right[b] = temp;
+	}
+
+	private static void applySymmetric(BlackBox.Transposable box, long[] x, long[] y, long[] temp) {
+		box.apply(x, temp);
+		box.applyTranspose(temp, y);
+	}
+
+	private static boolean isZero(long[] matrix) {
+		for(long row : matrix) {
+			if(row != 0)return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Multiplies two 64x64 matrices, each row a word.
+	 */
+	private static long[] multiply(long[] a, long[] b) {
+		long[] result = new long[64];
+
+		for(int i = 0; i < 64; i++) {
+			long bits = a[i], sum = 0;
+
+			while(bits != 0) {
+				sum ^= b[Long.numberOfTrailingZeros(bits)];
+				bits &= bits - 1;
+			}
+
+			result[i] = sum;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the block {@code v m} for a 64x64 matrix {@code m}, looking up each byte of a word in one of eight
+	 * tables of 256 sums of rows of {@code m}.
+	 */
+	private static long[] times(long[] v, long[] m) {
+		long[] tables = new long[8 * 256];
+
+		for(int t = 0; t < 8; t++) {
+			for(int i = 1; i < 256; i++) {
+				tables[t * 256 + i] = tables[t * 256 + (i & (i - 1))] ^ m[8 * t + Integer.numberOfTrailingZeros(i)];
+			}
+		}
+
+		long[] result = new long[v.length];
+
+		range(v.length).forEach(k -> {
+			long word = v[k], sum = 0;
+
+			for(int t = 0; t < 8; t++, word >>>= 8) {
+				sum ^= tables[t * 256 + (int)(word & 255)];
+			}
+
+			result[k] = sum;
+		});
+
+		return result;
+	}
+
+	/**
+	 * Returns the 64x64 matrix {@code v^T w}. Every word of {@code w} is added to eight byte-indexed accumulators,
+	 * which are expanded into rows at the end. Chunks of coordinates run in parallel with their own accumulators.
+	 */
+	private static long[] innerProduct(long[] v, long[] w) {
+		int chunks = (v.length + CHUNK - 1) / CHUNK;
+		IntStream stream = IntStream.range(0, chunks);
+		if(v.length >= PARALLEL_THRESHOLD)stream = stream.parallel();
+
+		long[] accumulators = stream.mapToObj(chunk -> {
+			long[] partial = new long[8 * 256];
+
+			for(int k = chunk * CHUNK; k < Math.min(v.length, (chunk + 1) * CHUNK); k++) {
+				long word = v[k];
+
+				for(int t = 0; t < 8; t++, word >>>= 8) {
+					partial[t * 256 + (int)(word & 255)] ^= w[k];
+				}
+			}
+
+			return partial;
+		}).reduce(new long[8 * 256], (a, b) -> {
+			long[] sum = new long[a.length];
+			for(int i = 0; i < sum.length; i++)sum[i] = a[i] ^ b[i];
+			return sum;
+		});
+
+		long[] result = new long[64];
+
+		for(int t = 0; t < 8; t++) {
+			for(int i = 1; i < 256; i++) {
+				long value = accumulators[t * 256 + i];
+				if(value == 0)continue;
+
+				for(int bits = i; bits != 0; bits &= bits - 1) {
+					result[8 * t + Integer.numberOfTrailingZeros(bits)] ^= value;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static IntStream range(int length) {
+		IntStream stream = IntStream.range(0, length);
+		return length >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+	}
+
+}
@@ -0,0 +1,220 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.ModMatrix;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.QVector;
+import kaptainwutax.mathutils.component.vector.ZVector;
+import kaptainwutax.mathutils.util.Primes;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dixon's p-adic solver for nonsingular integer and rational systems. The matrix is inverted once modulo a prime
+ * {@code p}. Each step then takes one more base-{@code p} digit of the solution, {@code x_i = A^-1 r_i mod p}, and
+ * carries the exact residual {@code r_(i+1) = (r_i - A x_i) / p}. Both are mat-vecs on word-size numbers. Once
+ * {@code p^k} passes twice the square of the Cramer bound, rational reconstruction of the truncated expansion is
+ * guaranteed to give the solution. Reconstruction is also tried after a doubling number of steps, so small
+ * solutions come out early. Coefficients never grow, so the whole solve is near cubic in the dimension.
+ *
+ * <p>The prime is drawn at random, so no matrix is singular modulo every prime tried. After {@link #ATTEMPTS}
+ * singular images, the exact {@link ZMatrix#getRank()} decides between declaring the matrix singular and drawing
+ * more primes.
+ */
+public class Dixon {
+
+	public static final int ATTEMPTS = 4;
+
+	public static QVector solve(QMatrix matrix, QVector b) {
+		return solve(matrix, new QVector[] {b})[0];
+	}
+
+	/**
+	 * Solves {@code A X = B} for the base and extra parts of {@code matrix}, returning {@code X} with one column per
+	 * extra column. The matrix is scaled and inverted modulo {@code p} once, and only the lifting is done per column.
+	 */
+	public static QMatrix solve(QMatrix.Augmented matrix) {
+		QMatrix base = matrix.getBaseMatrix(), extra = matrix.getExtraMatrix();
+		QVector[] bs = new QVector[extra.getColumnCount()];
+
+		for(int column = 0; column < bs.length; column++) {
+			bs[column] = extra.getColumnCopy(column);
+		}
+
+		QVector[] columns = solve(base, bs);
+		return new QMatrix(base.getColumnCount(), columns.length, (row, column) -> columns[column].get(row));
+	}
+
+	public static QVector solve(ZMatrix matrix, ZVector b) {
+		return solve(matrix, new ZVector[] {b})[0];
+	}
+
+	/**
+	 * Scales each row by the lcm of its denominators over the matrix and every right-hand side, which makes all the
+	 * systems integral with one common matrix.
+	 */
+	private static QVector[] solve(QMatrix matrix, QVector[] bs) {
+		if(!matrix.isSquare()) {
+			throw new IllegalStateException("Matrix is not square");
+		}
+
+		int n = matrix.getRowCount();
+		BigInteger[] scales = new BigInteger[n];
+
+		for(QVector b : bs) {
+			if(b.getDimension() != n) {
+				throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+			}
+		}
+
+		for(int row = 0; row < n; row++) {
+			BigInteger scale = BigInteger.ONE;
+
+			for(int column = 0; column < n; column++) {
+				BigInteger denominator = matrix.get(row, column).getDenominator();
+				scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+			}
+
+			for(QVector b : bs) {
+				BigInteger denominator = b.get(row).getDenominator();
+				scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+			}
+
+			scales[row] = scale;
+		}
+
+		ZMatrix integral = new ZMatrix(n, n, (row, column) -> scaled(matrix.get(row, column), scales[row]));
+		ZVector[] rhs = new ZVector[bs.length];
+
+		for(int i = 0; i < bs.length; i++) {
+			QVector b = bs[i];
+			rhs[i] = new ZVector(n, row -> scaled(b.get(row), scales[row]));
+		}
+
+		return solve(integral, rhs);
+	}
+
+	/**
+	 * Inverts the matrix modulo one random prime and lifts every right-hand side against that inverse.
+	 */
+	private static QVector[] solve(ZMatrix matrix, ZVector[] bs) {
+		if(!matrix.isSquare()) {
+			throw new IllegalStateException("Matrix is not square");
+		}
+
+		int n = matrix.getRowCount();
+		BigInteger[] norms = new BigInteger[n];
+		int entryBits = 1;
+
+		for(int row = 0; row < n; row++) {
+			ZVector vector = matrix.getRow(row);
+			norms[row] = vector.magnitudeSq();
+			entryBits = Math.max(entryBits, vector.bitLength());
+		}
+
+		int logDimension = 32 - Integer.numberOfLeadingZeros(n);
+		int primeBits = Math.max(24, Math.min(61, 62 - entryBits - logDimension));
+		Random random = ThreadLocalRandom.current();
+		long prime;
+		ModMatrix inverse;
+
+		for(int attempt = 0; ; attempt++) {
+			if(attempt == ATTEMPTS && matrix.getRank() < n) {
+				throw new ArithmeticException("Matrix is singular");
+			}
+
+			prime = Primes.getRandomPrimes(primeBits, 1, random)[0];
+
+			try {
+				inverse = ModMatrix.Prime.of(prime, matrix).invert();
+				break;
+			} catch(ArithmeticException e) {
+				continue;
+			}
+		}
+
+		QVector[] result = new QVector[bs.length];
+
+		for(int i = 0; i < bs.length; i++) {
+			double bits = 0.0D;
+
+			for(int row = 0; row < n; row++) {
+				BigInteger value = bs[i].get(row);
+				bits += norms[row].add(value.multiply(value)).bitLength() / 2.0D;
+			}
+
+			result[i] = lift(matrix, bs[i], inverse, prime, (int)Math.ceil((2.0D * bits + 2.0D) / (primeBits - 1)));
+		}
+
+		return result;
+	}
+
+	private static QVector lift(ZMatrix matrix, ZVector b, ModMatrix inverse, long prime, int steps) {
+		int n = matrix.getRowCount();
+		BigInteger bigPrime = BigInteger.valueOf(prime);
+		BigInteger[] x = new BigInteger[n];
+		BigInteger power = BigInteger.ONE;
+		ZVector residual = b.copy();
+		long[] reduced = new long[n];
+		int check = 1;
+
+		for(int i = 0; i < n; i++) {
+			x[i] = BigInteger.ZERO;
+		}
+
+		for(int step = 1; step <= steps; step++) {
+			for(int i = 0; i < n; i++) {
+				reduced[i] = residual.isSmall() ? Math.floorMod(residual.getLong(i), prime) : residual.get(i).mod(bigPrime).longValue();
+			}
+
+			long[] digit = inverse.multiply(reduced);
+			ZVector digitVector = new ZVector(digit);
+			residual.subtractAndSet(matrix.multiply(digitVector)).divideExactAndSet(prime);
+
+			for(int i = 0; i < n; i++) {
+				if(digit[i] != 0)x[i] = x[i].add(power.multiply(BigInteger.valueOf(digit[i])));
+			}
+
+			power = power.multiply(bigPrime);
+
+			if(residual.isZero()) {
+				return new ZVector(x).toQVector();
+			}
+
+			if(step == check || step == steps) {
+				check <<= 1;
+				QVector candidate = reconstruct(matrix, b, x, power);
+				if(candidate != null)return candidate;
+			}
+		}
+
+		throw new ArithmeticException("Rational reconstruction failed within the Cramer bound");
+	}
+
+	/**
+	 * Reconstructs the truncated expansion with {@link QVector#reconstruct(BigInteger[], BigInteger)}. The result is
+	 * accepted only if it solves the system exactly, which is checked in integers over the common denominator.
+	 */
+	private static QVector reconstruct(ZMatrix matrix, ZVector b, BigInteger[] x, BigInteger modulus) {
+		QVector candidate = QVector.reconstruct(x, modulus);
+		if(candidate == null)return null;
+		BigInteger denominator = BigInteger.ONE;
+
+		for(int i = 0; i < x.length; i++) {
+			BigInteger value = candidate.get(i).getDenominator();
+			denominator = denominator.divide(denominator.gcd(value)).multiply(value);
+		}
+
+		BigInteger common = denominator;
+		ZVector numerator = new ZVector(x.length, i -> candidate.get(i).multiply(common).toBigInteger());
+		return matrix.multiply(numerator).equals(b.scale(common)) ? candidate : null;
+	}
+
+	private static BigInteger scaled(Rational value, BigInteger scale) {
+		return value.getNumerator().multiply(scale.divide(value.getDenominator()));
+	}
+
+}
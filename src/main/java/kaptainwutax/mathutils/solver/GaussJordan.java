@@ -17,6 +17,7 @@ public class GaussJordan {
 	private static QMatrix solveInternal(QMatrix matrix, int split, boolean reduced) {
 		int row = 0, column = 0;
 		int[] pivots = new int[split];
+		QVector.View main = null, target = null;
 
 		while(row < matrix.getRowCount() && column < split) {
 			boolean foundPivot = false;
@@ -39,13 +40,14 @@ public class GaussJordan {
 				continue;
 			}
 
-			QVector main = matrix.getRow(row);
+			main = matrix.getRow(row, main);
 			main.scaleAndSet(Rational.ONE.divide(main.get(column)));
 
 			for(int i = row + 1; i < matrix.getRowCount(); i++) {
 				Rational value = matrix.get(i, column);
 				if(value.equals(Rational.ZERO))continue;
-				matrix.getRow(i).subtractAndSet(main.scale(value));
+				target = matrix.getRow(i, target);
+				target.subtractAndSet(main.scale(value));
 			}
 
 			row++;
@@ -57,12 +59,13 @@ public class GaussJordan {
 				int pivot = pivots[columnPivot];
 				if(pivot == -1)continue;
 
-				QVector main = matrix.getRow(pivot);
+				main = matrix.getRow(pivot, main);
 
 				for(int i = 0; i < pivot; i++) {
 					Rational value = matrix.get(i, columnPivot);
 					if(value.equals(Rational.ZERO))continue;
-					matrix.getRow(i).subtractAndSet(main.scale(value));
+					target = matrix.getRow(i, target);
+					target.subtractAndSet(main.scale(value));
 				}
 			}
 		}
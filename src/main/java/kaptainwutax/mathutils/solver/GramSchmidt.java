@@ -1,7 +1,9 @@
 package kaptainwutax.mathutils.solver;
 
 import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.DMatrix;
 import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.vector.DVector;
 import kaptainwutax.mathutils.component.vector.QVector;
 
 public class GramSchmidt {
@@ -32,6 +34,27 @@ public class GramSchmidt {
 		return result;
 	}
 
+	/**
+	 * Floating-point variant using the modified process, which projects out each finished column from the
+	 * remaining ones right away and loses far less orthogonality to rounding than the classical one.
+	 */
+	public static DMatrix apply(DMatrix matrix) {
+		DMatrix result = matrix.copy();
+
+		for(int i = 0; i < result.getColumnCount(); i++) {
+			DVector q = result.getColumn(i);
+			double magnitudeSq = q.magnitudeSq();
+			if(magnitudeSq == 0.0D)continue;
+
+			for(int j = i + 1; j < result.getColumnCount(); j++) {
+				DVector w = result.getColumn(j);
+				w.addMultipleAndSet(q, -w.dot(q) / magnitudeSq);
+			}
+		}
+
+		return result;
+	}
+
 	public enum Phase {
 		ORTHOGONAL, ORTHONORMAL
 	}
@@ -0,0 +1,247 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.SparseQMatrix;
+import kaptainwutax.mathutils.component.vector.QVector;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Sparse Gaussian elimination over the rationals. Each step picks the pivot with the smallest Markowitz cost
+ * {@code (r - 1)(c - 1)}, where {@code r} and {@code c} count the nonzeros in its row and column of the active
+ * submatrix. That cost bounds the fill-in the step can create. As in Zlatev's strategy, the search is limited to
+ * the {@link #SEARCH_ROWS} sparsest rows. Exact arithmetic needs no stability threshold, so ties go to the entry
+ * with the smallest numerator and denominator.
+ */
+public class Markowitz {
+
+	public static final int SEARCH_ROWS = 4;
+
+	public static int getRank(SparseQMatrix matrix) {
+		return new Elimination(matrix, null).run().pivots;
+	}
+
+	/**
+	 * Returns one solution of {@code matrix * x = b}, with every free variable set to zero, or null if there is none.
+	 */
+	public static QVector solve(SparseQMatrix matrix, QVector b) {
+		if(b.getDimension() != matrix.getRowCount()) {
+			throw new IllegalArgumentException("Vector length should equal the number of matrix rows");
+		}
+
+		Rational[] rhs = new Rational[matrix.getRowCount()];
+
+		for(int row = 0; row < rhs.length; row++) {
+			rhs[row] = b.get(row);
+		}
+
+		Elimination elimination = new Elimination(matrix, rhs).run();
+
+		for(int row = 0; row < rhs.length; row++) {
+			if(elimination.active[row] && rhs[row].signum() != 0)return null;
+		}
+
+		Rational[] x = new Rational[matrix.getColumnCount()];
+		Arrays.fill(x, Rational.ZERO);
+
+		for(int i = elimination.pivots - 1; i >= 0; i--) {
+			int row = elimination.pivotRows[i], column = elimination.pivotColumns[i];
+			int[] columns = elimination.rowColumns[row];
+			Rational[] values = elimination.rowValues[row];
+			Rational sum = rhs[row], pivot = null;
+
+			for(int k = 0; k < elimination.rowSizes[row]; k++) {
+				if(columns[k] == column) {
+					pivot = values[k];
+				} else if(x[columns[k]].signum() != 0) {
+					sum = sum.subtract(values[k].multiply(x[columns[k]]));
+				}
+			}
+
+			x[column] = sum.divide(pivot);
+		}
+
+		return new QVector(x);
+	}
+
+	private static final class Elimination {
+		private final int[][] rowColumns;
+		private final Rational[][] rowValues;
+		private final int[] rowSizes;
+		private final boolean[] active;
+		private final int[][] columnRows;
+		private final int[] columnRowSizes;
+		private final int[] columnCounts;
+		private final Rational[] rhs;
+		private final TreeSet<Long> queue = new TreeSet<>();
+
+		private final int[] pivotRows;
+		private final int[] pivotColumns;
+		private int pivots;
+
+		private Elimination(SparseQMatrix matrix, Rational[] rhs) {
+			int rows = matrix.getRowCount(), columns = matrix.getColumnCount();
+			this.rowColumns = new int[rows][];
+			this.rowValues = new Rational[rows][];
+			this.rowSizes = new int[rows];
+			this.active = new boolean[rows];
+			this.columnRows = new int[columns][4];
+			this.columnRowSizes = new int[columns];
+			this.columnCounts = new int[columns];
+			this.rhs = rhs;
+			this.pivotRows = new int[Math.min(rows, columns)];
+			this.pivotColumns = new int[Math.min(rows, columns)];
+
+			for(int row = 0; row < rows; row++) {
+				int start = matrix.getRowStart(row), size = matrix.getRowEnd(row) - start;
+				this.rowColumns[row] = new int[size];
+				this.rowValues[row] = new Rational[size];
+				this.rowSizes[row] = size;
+				this.active[row] = true;
+
+				for(int k = 0; k < size; k++) {
+					int column = matrix.getColumnIndex(start + k);
+					this.rowColumns[row][k] = column;
+					this.rowValues[row][k] = matrix.getValue(start + k);
+					this.columnCounts[column]++;
+					this.addToColumn(column, row);
+				}
+
+				if(size != 0)this.queue.add(key(size, row));
+			}
+		}
+
+		private static long key(int size, int row) {
+			return (long)size << 32 | row;
+		}
+
+		private static int weight(Rational value) {
+			return value.getNumerator().bitLength() + value.getDenominator().bitLength();
+		}
+
+		private void addToColumn(int column, int row) {
+			int[] list = this.columnRows[column];
+
+			if(this.columnRowSizes[column] == list.length) {
+				list = this.columnRows[column] = Arrays.copyOf(list, 2 * list.length);
+			}
+
+			list[this.columnRowSizes[column]++] = row;
+		}
+
+		private Elimination run() {
+			int[] seen = new int[this.rowSizes.length];
+
+			while(!this.queue.isEmpty()) {
+				int pivotRow = -1, pivotColumn = -1, pivotWeight = Integer.MAX_VALUE;
+				long best = Long.MAX_VALUE;
+				int searched = 0;
+
+				for(long entry : this.queue) {
+					if(searched++ == SEARCH_ROWS || best == 0)break;
+					int row = (int)entry, size = this.rowSizes[row];
+
+					for(int k = 0; k < size; k++) {
+						int column = this.rowColumns[row][k];
+						long cost = (long)(size - 1) * (this.columnCounts[column] - 1);
+						int weight = weight(this.rowValues[row][k]);
+
+						if(cost < best || (cost == best && weight < pivotWeight)) {
+							best = cost;
+							pivotWeight = weight;
+							pivotRow = row;
+							pivotColumn = column;
+						}
+					}
+				}
+
+				this.eliminate(pivotRow, pivotColumn, seen);
+			}
+
+			return this;
+		}
+
+		private void eliminate(int pivotRow, int pivotColumn, int[] seen) {
+			int[] columns = this.rowColumns[pivotRow];
+			Rational[] values = this.rowValues[pivotRow];
+			int size = this.rowSizes[pivotRow];
+			Rational pivot = values[Arrays.binarySearch(columns, 0, size, pivotColumn)];
+
+			this.queue.remove(key(size, pivotRow));
+			this.active[pivotRow] = false;
+
+			for(int k = 0; k < size; k++) {
+				this.columnCounts[columns[k]]--;
+			}
+
+			int[] candidates = this.columnRows[pivotColumn];
+			int stamp = this.pivots + 1;
+
+			for(int i = 0; i < this.columnRowSizes[pivotColumn]; i++) {
+				int row = candidates[i];
+				if(!this.active[row] || seen[row] == stamp)continue;
+				seen[row] = stamp;
+				int index = Arrays.binarySearch(this.rowColumns[row], 0, this.rowSizes[row], pivotColumn);
+				if(index < 0)continue;
+
+				Rational factor = this.rowValues[row][index].divide(pivot);
+				this.queue.remove(key(this.rowSizes[row], row));
+				this.subtractRow(row, factor, columns, values, size, pivotColumn);
+				if(this.rowSizes[row] != 0)this.queue.add(key(this.rowSizes[row], row));
+
+				if(this.rhs != null && this.rhs[pivotRow].signum() != 0) {
+					this.rhs[row] = this.rhs[row].subtract(factor.multiply(this.rhs[pivotRow]));
+				}
+			}
+
+			this.columnRowSizes[pivotColumn] = 0;
+			this.pivotRows[this.pivots] = pivotRow;
+			this.pivotColumns[this.pivots++] = pivotColumn;
+		}
+
+		/**
+		 * Replaces {@code row} with {@code row - factor * pivot} by merging the two sorted rows, dropping the pivot
+		 * column and any cancellation, and keeps the column counts in step.
+		 */
+		private void subtractRow(int row, Rational factor, int[] pivotColumns, Rational[] pivotValues, int pivotSize, int pivotColumn) {
+			int[] columns = this.rowColumns[row];
+			Rational[] values = this.rowValues[row];
+			int size = this.rowSizes[row];
+			int[] mergedColumns = new int[size + pivotSize];
+			Rational[] mergedValues = new Rational[size + pivotSize];
+			int a = 0, b = 0, count = 0;
+
+			while(a < size || b < pivotSize) {
+				int ca = a < size ? columns[a] : Integer.MAX_VALUE;
+				int cb = b < pivotSize ? pivotColumns[b] : Integer.MAX_VALUE;
+
+				if(ca < cb) {
+					mergedColumns[count] = ca;
+					mergedValues[count++] = values[a++];
+				} else if(cb < ca) {
+					mergedColumns[count] = cb;
+					mergedValues[count++] = pivotValues[b++].multiply(factor).negate();
+					this.columnCounts[cb]++;
+					this.addToColumn(cb, row);
+				} else {
+					Rational value = ca == pivotColumn ? Rational.ZERO : values[a].subtract(pivotValues[b].multiply(factor));
+					a++;
+					b++;
+
+					if(value.signum() == 0) {
+						this.columnCounts[ca]--;
+					} else {
+						mergedColumns[count] = ca;
+						mergedValues[count++] = value;
+					}
+				}
+			}
+
+			this.rowColumns[row] = mergedColumns;
+			this.rowValues[row] = mergedValues;
+			this.rowSizes[row] = count;
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.QMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.lattice.HNF;
+import kaptainwutax.mathutils.lattice.LLL;
+
+import java.math.BigInteger;
+
+/**
+ * Kernels of rational and integer matrices, returned like {@code ModMatrix#getNullSpace()} as matrices whose
+ * columns are the basis vectors. An instance owns the buffers for one matrix shape, so repeated kernels of
+ * same-sized matrices allocate nothing but the rationals themselves. The rational kernel is read off the reduced row
+ * echelon form. Each free column {@code f} gives the vector with a one at {@code f} and minus column {@code f} of
+ * the form at the pivot coordinates.
+ *
+ * <p>The integer kernel is a lattice, and those vectors scaled to integers usually span only a sublattice of it.
+ * Write the form as {@code x_P = -(C / d) x_F}, with {@code C} integral and {@code d} the common denominator. The
+ * free parts {@code y} of integer kernel vectors are then exactly the solutions of {@code C y = 0 mod d}. A basis of
+ * those is read off the {@link HNF} of {@code [[C^T, I], [d I, 0]]}, which the modular method keeps below
+ * {@code d^r}. {@link LLL} can then make the basis short.
+ */
+public class NullSpace {
+
+	private final int rows;
+	private final int columns;
+	private final Rational[] echelon;
+	private final Rational[] kernel;
+	private final int[] pivotColumns;
+	private final int[] freeColumns;
+	private int rank;
+
+	public NullSpace(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.echelon = new Rational[rows * columns];
+		this.kernel = new Rational[columns * columns];
+		this.pivotColumns = new int[Math.min(rows, columns)];
+		this.freeColumns = new int[columns];
+	}
+
+	public static QMatrix of(QMatrix matrix) {
+		return new NullSpace(matrix.getRowCount(), matrix.getColumnCount()).compute(matrix).copy();
+	}
+
+	public static ZMatrix ofInteger(ZMatrix matrix, boolean reduce) {
+		return new NullSpace(matrix.getRowCount(), matrix.getColumnCount()).computeInteger(matrix, reduce);
+	}
+
+	public int getRank() {
+		return this.rank;
+	}
+
+	public int getNullity() {
+		return this.columns - this.rank;
+	}
+
+	/**
+	 * Returns a {@code columns x nullity} view of the kernel basis. It is backed by this instance and overwritten by
+	 * the next computation.
+	 */
+	public QMatrix compute(QMatrix matrix) {
+		this.load(matrix);
+		this.eliminate();
+		int nullity = this.getNullity();
+
+		for(int t = 0; t < nullity; t++) {
+			int free = this.freeColumns[t];
+
+			for(int i = 0; i < this.columns; i++) {
+				this.kernel[i * this.columns + t] = i == free ? Rational.ONE : Rational.ZERO;
+			}
+
+			for(int i = 0; i < this.rank; i++) {
+				this.kernel[this.pivotColumns[i] * this.columns + t] = this.echelon[i * this.columns + free].negate();
+			}
+		}
+
+		return new QMatrix.View(this.kernel, 0, this.columns, 1, this.columns, nullity);
+	}
+
+	/**
+	 * Returns a basis of the integer kernel as the columns of a new matrix, LLL reduced if {@code reduce} is set.
+	 */
+	public ZMatrix computeInteger(ZMatrix matrix, boolean reduce) {
+		return this.computeInteger(matrix.toQMatrix(), reduce);
+	}
+
+	public ZMatrix computeInteger(QMatrix matrix, boolean reduce) {
+		this.load(matrix);
+		this.eliminate();
+		int r = this.rank, d = this.getNullity();
+		if(d == 0)return ZMatrix.zero(this.columns, 0);
+
+		BigInteger denominator = BigInteger.ONE;
+
+		for(int i = 0; i < r; i++) {
+			for(int t = 0; t < d; t++) {
+				BigInteger value = this.echelon[i * this.columns + this.freeColumns[t]].getDenominator();
+				denominator = denominator.divide(denominator.gcd(value)).multiply(value);
+			}
+		}
+
+		BigInteger common = denominator;
+		ZMatrix c = new ZMatrix(r, d, (i, t) -> {
+			Rational value = this.echelon[i * this.columns + this.freeColumns[t]];
+			return value.getNumerator().multiply(common.divide(value.getDenominator()));
+		});
+
+		ZMatrix free;
+
+		if(common.equals(BigInteger.ONE)) {
+			free = ZMatrix.identity(d);
+		} else {
+			ZMatrix lattice = new ZMatrix(d + r, r + d, (row, column) -> {
+				if(row < d)return column < r ? c.get(column, row) : column - r == row ? BigInteger.ONE : BigInteger.ZERO;
+				return column == row - d ? common : BigInteger.ZERO;
+			});
+
+			ZMatrix hnf = HNF.reduce(lattice);
+			free = new ZMatrix(d, d, (row, column) -> hnf.get(r + row, r + column));
+		}
+
+		ZMatrix basis = new ZMatrix(d, this.columns, (row, column) -> BigInteger.ZERO);
+
+		for(int t = 0; t < d; t++) {
+			for(int j = 0; j < d; j++) {
+				basis.set(t, this.freeColumns[j], free.get(t, j));
+			}
+
+			for(int i = 0; i < r; i++) {
+				BigInteger sum = BigInteger.ZERO;
+
+				for(int j = 0; j < d; j++) {
+					sum = sum.add(c.get(i, j).multiply(free.get(t, j)));
+				}
+
+				basis.set(t, this.pivotColumns[i], sum.divide(common).negate());
+			}
+		}
+
+		if(reduce && d > 1) {
+			basis = ZMatrix.of(LLL.reduceAndSet(basis.toQMatrix()));
+		}
+
+		return basis.transpose();
+	}
+
+	private void load(QMatrix matrix) {
+		if(matrix.getRowCount() != this.rows || matrix.getColumnCount() != this.columns) {
+			throw new IllegalArgumentException("Expected a " + this.rows + "x" + this.columns + " matrix");
+		}
+
+		for(int row = 0; row < this.rows; row++) {
+			for(int column = 0; column < this.columns; column++) {
+				this.echelon[row * this.columns + column] = matrix.get(row, column);
+			}
+		}
+	}
+
+	/**
+	 * Reduces the buffer to reduced row echelon form in place, recording the pivot and free columns.
+	 */
+	private void eliminate() {
+		Rational[] a = this.echelon;
+		int n = this.columns, row = 0, free = 0;
+
+		for(int column = 0; column < n; column++) {
+			int pivot = row;
+			while(pivot < this.rows && a[pivot * n + column].signum() == 0)pivot++;
+
+			if(pivot == this.rows) {
+				this.freeColumns[free++] = column;
+				continue;
+			}
+
+			if(pivot != row) {
+				for(int j = column; j < n; j++) {
+					Rational temp = a[pivot * n + j];
+					a[pivot * n + j] = a[row * n + j];
+					a[row * n + j] = temp;
+				}
+			}
+
+			int base = row * n;
+			Rational inverse = a[base + column].invert();
+
+			for(int j = column; j < n; j++) {
+				a[base + j] = a[base + j].multiply(inverse);
+			}
+
+			for(int i = 0; i < this.rows; i++) {
+				int target = i * n;
+				Rational factor = a[target + column];
+				if(i == row || factor.signum() == 0)continue;
+
+				for(int j = column; j < n; j++) {
+					if(a[base + j].signum() != 0)a[target + j] = a[target + j].subtract(factor.multiply(a[base + j]));
+				}
+			}
+
+			this.pivotColumns[row++] = column;
+		}
+
+		this.rank = row;
+	}
+
+}
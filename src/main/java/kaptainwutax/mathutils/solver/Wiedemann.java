@@ -0,0 +1,293 @@
+package kaptainwutax.mathutils.solver;
+
+import kaptainwutax.mathutils.arithmetic.Rational;
+import kaptainwutax.mathutils.component.matrix.SparseQMatrix;
+import kaptainwutax.mathutils.component.vector.QVector;
+import kaptainwutax.mathutils.util.ChineseRemainder;
+import kaptainwutax.mathutils.util.Montgomery;
+import kaptainwutax.mathutils.util.Primes;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Wiedemann's black-box solver for nonsingular square systems modulo a prime. The matrix is never formed; it is
+ * only applied to vectors. For a random projection {@code u}, the sequence {@code u A^i b} for {@code i < 2n}
+ * gives, through Berlekamp-Massey, the minimal polynomial {@code f} of {@code A} on {@code b}. Then
+ * {@code x = -(f(A) - f(0)) b / (f(0) A)} is read off with a Horner scheme. That costs about {@code 3n}
+ * products and {@code O(n)} memory, with no fill-in at all. The matrix is a {@link BlackBox} whose vectors hold
+ * values in {@code [0, prime)}.
+ *
+ * <p>Rational systems are solved modulo many primes, a batch of primes at a time in parallel. The residues are
+ * combined by {@link ChineseRemainder} and lifted with {@link QVector#reconstruct(BigInteger[], BigInteger)}. Each
+ * candidate is checked against the original system.
+ */
+public class Wiedemann {
+
+	public static final int ATTEMPTS = 4;
+	public static final int PARALLEL_THRESHOLD = 4096;
+
+	/**
+	 * Returns the minimal polynomial of the linearly recurrent {@code sequence} modulo {@code prime}. Its
+	 * coefficients are listed from the constant term up to the leading {@code 1}.
+	 */
+	public static long[] berlekampMassey(long[] sequence, long prime) {
+		Montgomery field = new Montgomery(prime);
+		int n = sequence.length;
+		long[] s = new long[n];
+
+		for(int i = 0; i < n; i++) {
+			s[i] = field.toMontgomery(sequence[i]);
+		}
+
+		long[] c = new long[n + 1], b = new long[n + 1];
+		c[0] = b[0] = field.one();
+		long previous = field.one();
+		int length = 0, shift = 1;
+
+		for(int i = 0; i < n; i++) {
+			long discrepancy = s[i];
+
+			for(int j = 1; j <= length; j++) {
+				discrepancy = field.add(discrepancy, field.multiply(c[j], s[i - j]));
+			}
+
+			if(discrepancy == 0) {
+				shift++;
+				continue;
+			}
+
+			long factor = field.multiply(discrepancy, field.invert(previous));
+			long[] old = 2 * length <= i ? c.clone() : null;
+
+			for(int j = shift; j <= n; j++) {
+				c[j] = field.subtract(c[j], field.multiply(factor, b[j - shift]));
+			}
+
+			if(old != null) {
+				length = i + 1 - length;
+				b = old;
+				previous = discrepancy;
+				shift = 1;
+			} else {
+				shift++;
+			}
+		}
+
+		long[] polynomial = new long[length + 1];
+
+		for(int j = 0; j <= length; j++) {
+			polynomial[length - j] = field.fromMontgomery(c[j]);
+		}
+
+		return polynomial;
+	}
+
+	/**
+	 * Returns the solution of {@code A x = b} modulo {@code prime} for a nonsingular {@code A} of the given dimension,
+	 * or null if none was found in {@link #ATTEMPTS} random projections, which usually means {@code A} is singular.
+	 */
+	public static long[] solve(BlackBox box, int dimension, long[] b, long prime) {
+		return solve(box, dimension, b, prime, new Random());
+	}
+
+	public static long[] solve(BlackBox box, int dimension, long[] b, long prime, Random random) {
+		Montgomery field = new Montgomery(prime);
+		long[] check = new long[dimension];
+		boolean zero = true;
+
+		for(long value : b) {
+			zero &= value == 0;
+		}
+
+		if(zero)return new long[dimension];
+
+		for(int attempt = 0; attempt < ATTEMPTS; attempt++) {
+			long[] u = new long[dimension];
+
+			for(int i = 0; i < dimension; i++) {
+				u[i] = field.toMontgomery(Math.floorMod(random.nextLong(), prime));
+			}
+
+			long[] sequence = new long[2 * dimension];
+			long[] current = b.clone(), next = new long[dimension];
+
+			for(int i = 0; i < sequence.length; i++) {
+				sequence[i] = dot(field, u, current);
+
+				if(i + 1 < sequence.length) {
+					box.apply(current, next);
+					long[] temp = current;
+					current = next;
+					next = temp;
+				}
+			}
+
+			long[] f = berlekampMassey(sequence, prime);
+			if(f[0] == 0)continue;
+
+			int degree = f.length - 1;
+			long[] x = new long[dimension];
+			long[] ab = new long[dimension];
+
+			for(int i = 0; i < dimension; i++) {
+				x[i] = field.multiply(field.toMontgomery(f[degree]), b[i]);
+			}
+
+			for(int j = degree - 1; j >= 1; j--) {
+				box.apply(x, ab);
+				long coefficient = field.toMontgomery(f[j]);
+
+				for(int i = 0; i < dimension; i++) {
+					x[i] = field.add(ab[i], field.multiply(coefficient, b[i]));
+				}
+			}
+
+			long scale = field.negate(field.invert(field.toMontgomery(f[0])));
+
+			for(int i = 0; i < dimension; i++) {
+				x[i] = field.multiply(scale, x[i]);
+			}
+
+			box.apply(x, check);
+			boolean solved = true;
+
+			for(int i = 0; i < dimension && solved; i++) {
+				solved = check[i] == b[i];
+			}
+
+			if(solved)return x;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the solution of {@code matrix * x = b} for a nonsingular square sparse matrix, or null if no solution
+	 * was found before the moduli passed the Cramer bound. The primes are drawn at random, and a prime that fails is
+	 * replaced by further draws. Only {@link #ATTEMPTS} batches in a row without a single image, which a
+	 * nonsingular matrix is all but certain not to cause, end the search early with null.
+	 */
+	public static QVector solve(SparseQMatrix matrix, QVector b) {
+		if(!matrix.isSquare()) {
+			throw new IllegalStateException("Matrix is not square");
+		}
+
+		int n = matrix.getRowCount();
+		BigInteger[] entries = new BigInteger[matrix.getNonZeroCount()];
+		BigInteger[] rhs = new BigInteger[n];
+		double bits = 0.0D;
+
+		for(int row = 0; row < n; row++) {
+			BigInteger scale = b.get(row).getDenominator();
+
+			for(int k = matrix.getRowStart(row); k < matrix.getRowEnd(row); k++) {
+				BigInteger denominator = matrix.getValue(k).getDenominator();
+				scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+			}
+
+			rhs[row] = b.get(row).getNumerator().multiply(scale.divide(b.get(row).getDenominator()));
+			BigInteger norm = rhs[row].multiply(rhs[row]);
+
+			for(int k = matrix.getRowStart(row); k < matrix.getRowEnd(row); k++) {
+				Rational value = matrix.getValue(k);
+				entries[k] = value.getNumerator().multiply(scale.divide(value.getDenominator()));
+				norm = norm.add(entries[k].multiply(entries[k]));
+			}
+
+			bits += norm.bitLength() / 2.0D;
+		}
+
+		int target = (int)Math.ceil(2.0D * bits + 2.0D);
+		int batch = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+		Random random = ThreadLocalRandom.current();
+		Set<Long> used = new HashSet<>();
+		BigInteger modulus = BigInteger.ONE;
+		BigInteger[] x = new BigInteger[n];
+		Arrays.fill(x, BigInteger.ZERO);
+
+		for(int failures = 0; modulus.bitLength() <= target && failures < ATTEMPTS; ) {
+			long[] primes = Primes.getRandomLargePrimes(batch, random);
+			if(!Arrays.stream(primes).allMatch(used::add))continue;
+
+			long[][] residues = IntStream.range(0, primes.length).parallel()
+				.mapToObj(i -> solveModular(matrix, entries, rhs, primes[i])).toArray(long[][]::new);
+
+			long[] moduli = IntStream.range(0, residues.length).filter(i -> residues[i] != null)
+				.mapToLong(i -> primes[i]).toArray();
+
+			if(moduli.length == 0) {
+				failures++;
+				continue;
+			}
+
+			failures = 0;
+			ChineseRemainder crt = new ChineseRemainder(moduli);
+			BigInteger[] images = crt.combineEach(Arrays.stream(residues).filter(Objects::nonNull).toArray(long[][]::new));
+			x = ChineseRemainder.combine(x, modulus, images, crt.getModulus());
+			modulus = modulus.multiply(crt.getModulus());
+
+			QVector candidate = QVector.reconstruct(x, modulus);
+			if(candidate != null && matrix.multiply(candidate).equals(b))return candidate;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Solves the row-scaled integer system modulo one prime through a compressed sparse row black box with entries
+	 * in Montgomery form, so that one Montgomery product with a plain value yields a plain value.
+	 */
+	private static long[] solveModular(SparseQMatrix matrix, BigInteger[] entries, BigInteger[] rhs, long prime) {
+		Montgomery field = new Montgomery(prime);
+		BigInteger bigPrime = BigInteger.valueOf(prime);
+		int n = matrix.getRowCount();
+		int[] columns = new int[entries.length];
+		long[] values = new long[entries.length];
+		long[] b = new long[n];
+
+		for(int row = 0; row < n; row++) {
+			b[row] = rhs[row].mod(bigPrime).longValue();
+		}
+
+		for(int k = 0; k < entries.length; k++) {
+			columns[k] = matrix.getColumnIndex(k);
+			values[k] = field.toMontgomery(entries[k]);
+		}
+
+		BlackBox box = (in, out) -> {
+			IntStream rows = IntStream.range(0, n);
+			if(n >= PARALLEL_THRESHOLD)rows = rows.parallel();
+
+			rows.forEach(row -> {
+				long sum = 0;
+
+				for(int k = matrix.getRowStart(row); k < matrix.getRowEnd(row); k++) {
+					sum = field.add(sum, field.multiply(values[k], in[columns[k]]));
+				}
+
+				out[row] = sum;
+			});
+		};
+
+		return solve(box, n, b, prime, new Random(prime));
+	}
+
+	private static long dot(Montgomery field, long[] u, long[] v) {
+		long sum = 0;
+
+		for(int i = 0; i < u.length; i++) {
+			sum = field.add(sum, field.multiply(u[i], v[i]));
+		}
+
+		return sum;
+	}
+
+}
@@ -0,0 +1,302 @@
+package kaptainwutax.mathutils.util;
+
+import kaptainwutax.mathutils.component.matrix.ModMatrix;
+import kaptainwutax.mathutils.component.matrix.ZMatrix;
+import kaptainwutax.mathutils.component.vector.ZVector;
+
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Chinese remaindering for a fixed set of pairwise coprime odd moduli below {@code 2^62}, such as the primes from
+ * {@link Primes#getLargePrimes(int)}. Everything that depends only on the moduli is computed once, so that many
+ * values can be combined cheaply. Up to {@link #TREE_THRESHOLD} moduli, Garner's algorithm finds the mixed radix
+ * digits with word-size Montgomery arithmetic and one Horner pass builds the value. Past that, a subproduct tree
+ * merges pairs of halves, which puts the work into a few large balanced products that {@link BigInteger}
+ * multiplies in subquadratic time.
+ */
+public class ChineseRemainder {
+
+    public static final int TREE_THRESHOLD = 64;
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private final long[] moduli;
+    private final BigInteger modulus;
+
+    private Montgomery[] fields;
+    private long[] inverses;
+    private long[][] radices;
+
+    private BigInteger[][] tree;
+    private BigInteger[][] treeInverses;
+
+    public ChineseRemainder(long... moduli) {
+        if(moduli.length == 0) {
+            throw new IllegalArgumentException("At least one modulus is needed");
+        }
+
+        this.moduli = moduli.clone();
+
+        if(moduli.length <= TREE_THRESHOLD) {
+            this.initGarner();
+        } else {
+            this.initTree();
+        }
+
+        this.modulus = this.tree != null ? this.tree[this.tree.length - 1][0] : product(moduli);
+    }
+
+    public long[] getModuli() {
+        return this.moduli.clone();
+    }
+
+    public int getModulusCount() {
+        return this.moduli.length;
+    }
+
+    public BigInteger getModulus() {
+        return this.modulus;
+    }
+
+    /**
+     * Returns the unique value in {@code [0, M)} congruent to {@code residues[i]} modulo the {@code i}-th modulus.
+     */
+    public BigInteger combine(long... residues) {
+        if(residues.length != this.moduli.length) {
+            throw new IllegalArgumentException("Expected one residue per modulus");
+        }
+
+        return this.tree != null ? this.combineTree(residues) : this.combineGarner(residues);
+    }
+
+    /**
+     * Returns the representative of the residues in {@code (-M/2, M/2]}.
+     */
+    public BigInteger combineSigned(long... residues) {
+        return this.toSigned(this.combine(residues));
+    }
+
+    public BigInteger toSigned(BigInteger value) {
+        return value.shiftLeft(1).compareTo(this.modulus) > 0 ? value.subtract(this.modulus) : value;
+    }
+
+    /**
+     * Combines whole vectors element-wise, where {@code images[i]} is the vector modulo the {@code i}-th modulus.
+     * The values are returned in {@code [0, M)}.
+     */
+    public BigInteger[] combineEach(long[]... images) {
+        if(images.length != this.moduli.length) {
+            throw new IllegalArgumentException("Expected one image per modulus");
+        }
+
+        int size = images[0].length;
+        BigInteger[] result = new BigInteger[size];
+        IntStream indices = IntStream.range(0, size);
+        if(size >= PARALLEL_THRESHOLD)indices = indices.parallel();
+
+        indices.forEach(j -> {
+            long[] residues = new long[images.length];
+
+            for(int i = 0; i < images.length; i++) {
+                residues[i] = images[i][j];
+            }
+
+            result[j] = this.combine(residues);
+        });
+
+        return result;
+    }
+
+    /**
+     * Returns the integer vector with entries in {@code (-M/2, M/2]} whose image modulo the {@code i}-th modulus is
+     * {@code images[i]}.
+     */
+    public ZVector combineVector(long[]... images) {
+        BigInteger[] values = this.combineEach(images);
+
+        for(int i = 0; i < values.length; i++) {
+            values[i] = this.toSigned(values[i]);
+        }
+
+        return new ZVector(values);
+    }
+
+    /**
+     * Returns the integer matrix with entries in {@code (-M/2, M/2]} whose image modulo the {@code i}-th modulus is
+     * {@code images[i]}.
+     */
+    public ZMatrix combineMatrix(ModMatrix.Prime... images) {
+        long[][] flat = new long[images.length][];
+        int rows = images[0].getRowCount(), columns = images[0].getColumnCount();
+
+        for(int i = 0; i < images.length; i++) {
+            if(images[i].getModulus() != this.moduli[i]) {
+                throw new IllegalArgumentException("Image " + i + " is not taken modulo " + this.moduli[i]);
+            }
+
+            if(images[i].getRowCount() != rows || images[i].getColumnCount() != columns) {
+                throw new IllegalArgumentException("Images should all have the same dimensions");
+            }
+
+            flat[i] = new long[rows * columns];
+
+            for(int row = 0; row < rows; row++) {
+                for(int column = 0; column < columns; column++) {
+                    flat[i][row * columns + column] = images[i].get(row, column);
+                }
+            }
+        }
+
+        BigInteger[] values = this.combineEach(flat);
+        return new ZMatrix(rows, columns, (row, column) -> this.toSigned(values[row * columns + column]));
+    }
+
+    /**
+     * Returns the value in {@code [0, mn)} congruent to {@code a} modulo {@code m} and to {@code b} modulo {@code n},
+     * for coprime {@code m} and {@code n}.
+     */
+    public static BigInteger combine(BigInteger a, BigInteger m, BigInteger b, BigInteger n) {
+        return combine(new BigInteger[] {a}, m, new BigInteger[] {b}, n)[0];
+    }
+
+    /**
+     * Combines two vectors element-wise as {@link #combine(BigInteger, BigInteger, BigInteger, BigInteger)} does,
+     * inverting {@code m} modulo {@code n} only once.
+     */
+    public static BigInteger[] combine(BigInteger[] a, BigInteger m, BigInteger[] b, BigInteger n) {
+        BigInteger inverse = m.modInverse(n);
+        BigInteger[] result = new BigInteger[a.length];
+
+        for(int i = 0; i < a.length; i++) {
+            BigInteger low = a[i].mod(m);
+            result[i] = low.add(m.multiply(b[i].subtract(low).multiply(inverse).mod(n)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Precomputes, for Garner's algorithm, the inverse of {@code m_0 ... m_(i-1)} modulo {@code m_i} and every
+     * {@code m_j} modulo {@code m_i} for {@code j < i}, all in Montgomery form.
+     */
+    private void initGarner() {
+        int count = this.moduli.length;
+        this.fields = new Montgomery[count];
+        this.inverses = new long[count];
+        this.radices = new long[count][];
+
+        for(int i = 0; i < count; i++) {
+            Montgomery field = this.fields[i] = new Montgomery(this.moduli[i]);
+            BigInteger bigModulus = BigInteger.valueOf(this.moduli[i]);
+            long prefix = field.one();
+            this.radices[i] = new long[i];
+
+            for(int j = 0; j < i; j++) {
+                this.radices[i][j] = field.toMontgomery(this.moduli[j]);
+                prefix = field.multiply(prefix, this.radices[i][j]);
+            }
+
+            long plain = field.fromMontgomery(prefix);
+            this.inverses[i] = field.toMontgomery(BigInteger.valueOf(plain).modInverse(bigModulus));
+        }
+    }
+
+    private BigInteger combineGarner(long[] residues) {
+        int count = this.moduli.length;
+        long[] digits = new long[count];
+
+        for(int i = 0; i < count; i++) {
+            Montgomery field = this.fields[i];
+            long modulus = this.moduli[i];
+            long sum = 0;
+
+            for(int j = i - 1; j >= 0; j--) {
+                sum = field.add(field.multiply(this.radices[i][j], sum), digits[j] % modulus);
+            }
+
+            long difference = field.subtract(Math.floorMod(residues[i], modulus), sum);
+            digits[i] = field.multiply(this.inverses[i], difference);
+        }
+
+        BigInteger value = BigInteger.valueOf(digits[count - 1]);
+
+        for(int i = count - 2; i >= 0; i--) {
+            value = value.multiply(BigInteger.valueOf(this.moduli[i])).add(BigInteger.valueOf(digits[i]));
+        }
+
+        return value;
+    }
+
+    /**
+     * Builds the subproduct tree bottom up, pairing neighbours and carrying an odd one out to the next level. Each
+     * pair also stores the inverse of its left product modulo its right product.
+     */
+    private void initTree() {
+        int levels = 1;
+
+        for(int size = this.moduli.length; size > 1; size = (size + 1) / 2) {
+            levels++;
+        }
+
+        this.tree = new BigInteger[levels][];
+        this.treeInverses = new BigInteger[levels - 1][];
+        this.tree[0] = new BigInteger[this.moduli.length];
+
+        for(int i = 0; i < this.moduli.length; i++) {
+            this.tree[0][i] = BigInteger.valueOf(this.moduli[i]);
+        }
+
+        for(int level = 1; level < levels; level++) {
+            BigInteger[] below = this.tree[level - 1];
+            BigInteger[] current = this.tree[level] = new BigInteger[(below.length + 1) / 2];
+            BigInteger[] inverse = this.treeInverses[level - 1] = new BigInteger[below.length / 2];
+
+            IntStream.range(0, current.length).parallel().forEach(i -> {
+                if(2 * i + 1 < below.length) {
+                    current[i] = below[2 * i].multiply(below[2 * i + 1]);
+                    inverse[i] = below[2 * i].modInverse(below[2 * i + 1]);
+                } else {
+                    current[i] = below[2 * i];
+                }
+            });
+        }
+    }
+
+    private BigInteger combineTree(long[] residues) {
+        BigInteger[] values = new BigInteger[residues.length];
+
+        for(int i = 0; i < residues.length; i++) {
+            values[i] = BigInteger.valueOf(Math.floorMod(residues[i], this.moduli[i]));
+        }
+
+        for(int level = 1; level < this.tree.length; level++) {
+            BigInteger[] below = this.tree[level - 1];
+            BigInteger[] next = new BigInteger[this.tree[level].length];
+
+            for(int i = 0; i < next.length; i++) {
+                if(2 * i + 1 < values.length) {
+                    BigInteger low = values[2 * i], high = values[2 * i + 1];
+                    BigInteger step = high.subtract(low).multiply(this.treeInverses[level - 1][i]).mod(below[2 * i + 1]);
+                    next[i] = low.add(below[2 * i].multiply(step));
+                } else {
+                    next[i] = values[2 * i];
+                }
+            }
+
+            values = next;
+        }
+
+        return values[0];
+    }
+
+    private static BigInteger product(long[] values) {
+        BigInteger result = BigInteger.ONE;
+
+        for(long value : values) {
+            result = result.multiply(BigInteger.valueOf(value));
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,127 @@
+package kaptainwutax.mathutils.util;
+
+import java.math.BigInteger;
+
+/**
+ * Subquadratic partial Euclidean algorithm. {@link #reduce(BigInteger, BigInteger, int)} runs the remainder sequence
+ * of {@code (a, b)} down to a given size. It does not divide the full numbers step by step. Instead it recurses on
+ * their leading bits, whose quotients agree with those of the full numbers for about half of the way, and applies
+ * the resulting cofactor matrix with a few large products. A matrix is accepted only if it leaves a pair
+ * {@code c > d >= 0}. Any such pair is in the remainder sequence, because a continued fraction whose tail exceeds
+ * one is unique. Otherwise the rest of the work falls back to plain division steps.
+ */
+public final class HalfGcd {
+
+    /**
+     * Number of bits left to remove below which division steps are cheaper than recursion.
+     */
+    public static final int THRESHOLD = 384;
+
+    /**
+     * Steps the remainder sequence of {@code a > b >= 0} while the smaller remainder has more than {@code bits} bits,
+     * so that the larger one of the returned pair is at least {@code 2^bits}.
+     */
+    public static State reduce(BigInteger a, BigInteger b, int bits) {
+        State state = new State(a, b);
+
+        while(state.d.bitLength() > bits) {
+            int n = state.c.bitLength();
+            if(n - bits <= THRESHOLD)break;
+
+            int target = Math.max(bits, n - n / 4);
+            int shift = 2 * target - n;
+            State top = reduce(state.c.shiftRight(shift), state.d.shiftRight(shift), target - shift);
+            if(top.steps == 0)break;
+
+            BigInteger c = top.c(state.c, state.d), d = top.d(state.c, state.d);
+            if(d.signum() < 0 || c.compareTo(d) <= 0 || c.bitLength() <= bits)break;
+            state.apply(top, c, d);
+        }
+
+        while(state.d.bitLength() > bits) {
+            state.step();
+        }
+
+        return state;
+    }
+
+    /**
+     * A pair {@code (c, d)} of consecutive remainders of {@code (a, b)} together with the product {@code M} of the
+     * quotient matrices {@code [[q, 1], [1, 0]]} such that {@code (a, b) = M (c, d)}.
+     */
+    public static final class State {
+        private BigInteger c, d;
+        private BigInteger m00 = BigInteger.ONE, m01 = BigInteger.ZERO, m10 = BigInteger.ZERO, m11 = BigInteger.ONE;
+        private int steps;
+
+        private State(BigInteger a, BigInteger b) {
+            this.c = a;
+            this.d = b;
+        }
+
+        public BigInteger getLarger() {
+            return this.c;
+        }
+
+        public BigInteger getSmaller() {
+            return this.d;
+        }
+
+        public int getSteps() {
+            return this.steps;
+        }
+
+        /**
+         * Returns the cofactor of {@code b} in the larger remainder, {@code c = s a + t b}.
+         */
+        public BigInteger getLargerCofactor() {
+            return (this.steps & 1) == 0 ? this.m01.negate() : this.m01;
+        }
+
+        /**
+         * Returns the cofactor of {@code b} in the smaller remainder, {@code d = s a + t b}.
+         */
+        public BigInteger getSmallerCofactor() {
+            return (this.steps & 1) == 0 ? this.m00 : this.m00.negate();
+        }
+
+        private BigInteger c(BigInteger a, BigInteger b) {
+            BigInteger value = this.m11.multiply(a).subtract(this.m01.multiply(b));
+            return (this.steps & 1) == 0 ? value : value.negate();
+        }
+
+        private BigInteger d(BigInteger a, BigInteger b) {
+            BigInteger value = this.m00.multiply(b).subtract(this.m10.multiply(a));
+            return (this.steps & 1) == 0 ? value : value.negate();
+        }
+
+        private void step() {
+            BigInteger[] qr = this.c.divideAndRemainder(this.d);
+            this.c = this.d;
+            this.d = qr[1];
+
+            BigInteger temp = this.m00;
+            this.m00 = this.m00.multiply(qr[0]).add(this.m01);
+            this.m01 = temp;
+            temp = this.m10;
+            this.m10 = this.m10.multiply(qr[0]).add(this.m11);
+            this.m11 = temp;
+            this.steps++;
+        }
+
+        private void apply(State other, BigInteger c, BigInteger d) {
+            BigInteger n00 = this.m00.multiply(other.m00).add(this.m01.multiply(other.m10));
+            BigInteger n01 = this.m00.multiply(other.m01).add(this.m01.multiply(other.m11));
+            BigInteger n10 = this.m10.multiply(other.m00).add(this.m11.multiply(other.m10));
+            BigInteger n11 = this.m10.multiply(other.m01).add(this.m11.multiply(other.m11));
+            this.m00 = n00;
+            this.m01 = n01;
+            this.m10 = n10;
+            this.m11 = n11;
+            this.c = c;
+            this.d = d;
+            this.steps += other.steps;
+        }
+    }
+
+}
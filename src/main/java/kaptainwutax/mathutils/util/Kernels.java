@@ -0,0 +1,128 @@
+package kaptainwutax.mathutils.util;
+
+/**
+ * The inner loops of the primitive matrix backends. This class holds the plain scalar versions. When the
+ * {@code jdk.incubator.vector} module is available at runtime, {@link #get()} returns a subclass built on the
+ * Vector API instead. That subclass is compiled from the {@code simd} source set on JDK 16 and later and can be
+ * turned off with {@code -Dmathutils.simd=false}.
+ */
+public class Kernels {
+
+    private static final Kernels INSTANCE = load();
+
+    protected Kernels() {
+
+    }
+
+    public static Kernels get() {
+        return INSTANCE;
+    }
+
+    private static Kernels load() {
+        if(!Boolean.parseBoolean(System.getProperty("mathutils.simd", "true")))return new Kernels();
+
+        try {
+            return (Kernels)Class.forName("kaptainwutax.mathutils.util.VectorKernels").getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            return new Kernels();
+        }
+    }
+
+    public boolean isVectorized() {
+        return false;
+    }
+
+    public double dot(double[] a, int ai, double[] b, int bi, int length) {
+        double sum = 0.0D;
+
+        for(int i = 0; i < length; i++) {
+            sum += a[ai + i] * b[bi + i];
+        }
+
+        return sum;
+    }
+
+    public long dot(long[] a, int ai, long[] b, int bi, int length) {
+        long sum = 0L;
+
+        for(int i = 0; i < length; i++) {
+            sum += a[ai + i] * b[bi + i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Adds {@code factor * x} to {@code y}. Subtracting a scaled row is the same call with a negated factor.
+     */
+    public void axpy(double factor, double[] x, int xi, double[] y, int yi, int length) {
+        for(int i = 0; i < length; i++) {
+            y[yi + i] += factor * x[xi + i];
+        }
+    }
+
+    public void axpy(long factor, long[] x, int xi, long[] y, int yi, int length) {
+        for(int i = 0; i < length; i++) {
+            y[yi + i] += factor * x[xi + i];
+        }
+    }
+
+    /**
+     * Returns how many rows the micro-kernel handles, which is also the strip height of the packed left panel.
+     */
+    public int getTileRows() {
+        return 4;
+    }
+
+    /**
+     * Returns how many columns the micro-kernel handles, which is also the strip width of the packed right panel.
+     */
+    public int getTileColumns() {
+        return 4;
+    }
+
+    /**
+     * Adds the product of a packed strip of {@code a} and a packed strip of {@code b}, both {@code kc} deep, to the
+     * top-left {@code mr x nr} corner of a tile of the row-major matrix {@code c} with {@code n} columns.
+     */
+    public void multiply(int kc, double[] a, int ai, double[] b, int bi, double[] c, int ci, int n, int mr, int nr) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        for(int p = 0; p < kc; p++, ai += 4, bi += 4) {
+            double a0 = a[ai], a1 = a[ai + 1], a2 = a[ai + 2], a3 = a[ai + 3];
+            double b0 = b[bi], b1 = b[bi + 1], b2 = b[bi + 2], b3 = b[bi + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+
+        if(mr == 4 && nr == 4) {
+            c[ci] += c00; c[ci + 1] += c01; c[ci + 2] += c02; c[ci + 3] += c03;
+            ci += n;
+            c[ci] += c10; c[ci + 1] += c11; c[ci + 2] += c12; c[ci + 3] += c13;
+            ci += n;
+            c[ci] += c20; c[ci + 1] += c21; c[ci + 2] += c22; c[ci + 3] += c23;
+            ci += n;
+            c[ci] += c30; c[ci + 1] += c31; c[ci + 2] += c32; c[ci + 3] += c33;
+            return;
+        }
+
+        double[] tile = {
+                c00, c01, c02, c03,
+                c10, c11, c12, c13,
+                c20, c21, c22, c23,
+                c30, c31, c32, c33
+        };
+
+        for(int i = 0; i < mr; i++) {
+            for(int j = 0; j < nr; j++) {
+                c[ci + i * n + j] += tile[i * 4 + j];
+            }
+        }
+    }
+
+}
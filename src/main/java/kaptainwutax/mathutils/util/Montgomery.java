@@ -0,0 +1,103 @@
+package kaptainwutax.mathutils.util;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo an odd modulus below {@code 2^62} in Montgomery form, which replaces the 128-bit remainder
+ * of a modular product with two 64-bit multiplications. Values are kept as {@code a * 2^64 mod m} in
+ * {@code [0, m)}. Convert them with {@link #toMontgomery(long)} and {@link #fromMontgomery(long)}.
+ * Addition and subtraction work directly on that form.
+ */
+public final class Montgomery {
+
+    private final long modulus;
+    private final BigInteger bigModulus;
+    private final long inverse;
+    private final long one;
+    private final long r2;
+
+    public Montgomery(long modulus) {
+        if((modulus & 1) == 0 || modulus < 3 || modulus >= 1L << 62) {
+            throw new IllegalArgumentException("Montgomery modulus should be odd and between 3 and 2^62");
+        }
+
+        this.modulus = modulus;
+        this.bigModulus = BigInteger.valueOf(modulus);
+        this.inverse = -Mth.modInverse(modulus);
+        this.one = BigInteger.ONE.shiftLeft(64).mod(this.bigModulus).longValue();
+        this.r2 = BigInteger.ONE.shiftLeft(128).mod(this.bigModulus).longValue();
+    }
+
+    public long getModulus() {
+        return this.modulus;
+    }
+
+    public long one() {
+        return this.one;
+    }
+
+    public long toMontgomery(long value) {
+        return this.multiply(Math.floorMod(value, this.modulus), this.r2);
+    }
+
+    public long toMontgomery(BigInteger value) {
+        return this.multiply(value.mod(this.bigModulus).longValue(), this.r2);
+    }
+
+    public long fromMontgomery(long value) {
+        return this.reduce(0L, value);
+    }
+
+    public long add(long a, long b) {
+        long sum = a + b;
+        return sum >= this.modulus ? sum - this.modulus : sum;
+    }
+
+    public long subtract(long a, long b) {
+        long difference = a - b;
+        return difference < 0 ? difference + this.modulus : difference;
+    }
+
+    public long negate(long a) {
+        return a == 0 ? 0 : this.modulus - a;
+    }
+
+    public long multiply(long a, long b) {
+        return this.reduce(Math.multiplyHigh(a, b), a * b);
+    }
+
+    public long pow(long base, long exponent) {
+        long result = this.one;
+
+        while(exponent != 0) {
+            if((exponent & 1) != 0)result = this.multiply(result, base);
+            base = this.multiply(base, base);
+            exponent >>>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Inverts through Fermat's little theorem, so the modulus must be prime.
+     */
+    public long invert(long a) {
+        if(a == 0) {
+            throw new ArithmeticException("/ by zero");
+        }
+
+        return this.pow(a, this.modulus - 2);
+    }
+
+    /**
+     * Divides the 128-bit value {@code hi * 2^64 + lo} by {@code 2^64} modulo the modulus. The low half of
+     * {@code lo + m * modulus} is zero by construction and carries exactly when {@code lo} is not.
+     */
+    private long reduce(long hi, long lo) {
+        long m = lo * this.inverse;
+        long high = Math.multiplyHigh(m, this.modulus) + ((m >> 63) & this.modulus);
+        long t = hi + high + (lo != 0 ? 1 : 0);
+        return t >= this.modulus ? t - this.modulus : t;
+    }
+
+}
@@ -0,0 +1,103 @@
+package kaptainwutax.mathutils.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class Primes {
+
+    /**
+     * Miller-Rabin with these bases is deterministic for every 64-bit input.
+     */
+    private static final long[] WITNESSES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+    private static long[] largePrimes = new long[0];
+
+    public static boolean isPrime(long value) {
+        if(value < 2)return false;
+
+        for(long witness : WITNESSES) {
+            if(value % witness == 0)return value == witness;
+        }
+
+        if(value >= 1L << 62) {
+            throw new IllegalArgumentException("Primality test is limited to values below 2^62");
+        }
+
+        Montgomery field = new Montgomery(value);
+        long minusOne = field.negate(field.one());
+        long d = value - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>>= s;
+
+        for(long witness : WITNESSES) {
+            long x = field.pow(field.toMontgomery(witness), d);
+            if(x == field.one() || x == minusOne)continue;
+            boolean composite = true;
+
+            for(int i = 1; i < s && composite; i++) {
+                x = field.multiply(x, x);
+                if(x == minusOne)composite = false;
+            }
+
+            if(composite)return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the {@code count} largest primes below {@code 2^62} in descending order, which is the supply of moduli
+     * for the multi-modular algorithms. The list is computed once and grown on demand.
+     */
+    public static synchronized long[] getLargePrimes(int count) {
+        if(largePrimes.length < count) {
+            long[] primes = Arrays.copyOf(largePrimes, Math.max(count, 2 * largePrimes.length));
+            long candidate = largePrimes.length == 0 ? (1L << 62) - 1 : largePrimes[largePrimes.length - 1] - 2;
+
+            for(int i = largePrimes.length; i < primes.length; candidate -= 2) {
+                if(isPrime(candidate))primes[i++] = candidate;
+            }
+
+            largePrimes = primes;
+        }
+
+        return Arrays.copyOf(largePrimes, count);
+    }
+
+    /**
+     * Returns {@code count} distinct primes drawn uniformly at random from {@code [2^61, 2^62)}. Unlike the fixed
+     * list of {@link #getLargePrimes(int)}, no input can be built in advance to be degenerate modulo all of them,
+     * which is what probabilistic checks against a handful of primes rely on.
+     */
+    public static long[] getRandomLargePrimes(int count, Random random) {
+        return getRandomPrimes(62, count, random);
+    }
+
+    /**
+     * Returns {@code count} distinct primes drawn uniformly at random from {@code [2^(bits - 1), 2^bits)}, for
+     * {@code bits} between 3 and 62.
+     */
+    public static long[] getRandomPrimes(int bits, int count, Random random) {
+        if(bits < 3 || bits > 62) {
+            throw new IllegalArgumentException("Random primes are drawn with 3 to 62 bits");
+        }
+
+        long[] primes = new long[count];
+        long top = 1L << (bits - 1);
+
+        for(int i = 0; i < count; ) {
+            long candidate = top | (random.nextLong() & (top - 1)) | 1L;
+            if(!isPrime(candidate))continue;
+            boolean fresh = true;
+
+            for(int j = 0; j < i && fresh; j++) {
+                fresh = primes[j] != candidate;
+            }
+
+            if(fresh)primes[i++] = candidate;
+        }
+
+        return primes;
+    }
+
+}
@@ -0,0 +1,148 @@
+package kaptainwutax.mathutils.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Kernels} on top of the incubating Vector API, using the widest species the hardware prefers. Loaded
+ * reflectively by {@link Kernels#get()}, so nothing else may refer to this class directly.
+ */
+class VectorKernels extends Kernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = DOUBLES.length();
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public double dot(double[] a, int ai, double[] b, int bi, int length) {
+        DoubleVector sum = DoubleVector.zero(DOUBLES);
+        int i = 0;
+
+        for(int bound = DOUBLES.loopBound(length); i < bound; i += LANES) {
+            sum = DoubleVector.fromArray(DOUBLES, a, ai + i).fma(DoubleVector.fromArray(DOUBLES, b, bi + i), sum);
+        }
+
+        double result = sum.reduceLanes(VectorOperators.ADD);
+
+        for(; i < length; i++) {
+            result += a[ai + i] * b[bi + i];
+        }
+
+        return result;
+    }
+
+    @Override
+    public long dot(long[] a, int ai, long[] b, int bi, int length) {
+        LongVector sum = LongVector.zero(LONGS);
+        int i = 0;
+
+        for(int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+            sum = sum.add(LongVector.fromArray(LONGS, a, ai + i).mul(LongVector.fromArray(LONGS, b, bi + i)));
+        }
+
+        long result = sum.reduceLanes(VectorOperators.ADD);
+
+        for(; i < length; i++) {
+            result += a[ai + i] * b[bi + i];
+        }
+
+        return result;
+    }
+
+    @Override
+    public void axpy(double factor, double[] x, int xi, double[] y, int yi, int length) {
+        DoubleVector f = DoubleVector.broadcast(DOUBLES, factor);
+        int i = 0;
+
+        for(int bound = DOUBLES.loopBound(length); i < bound; i += LANES) {
+            DoubleVector.fromArray(DOUBLES, x, xi + i).fma(f, DoubleVector.fromArray(DOUBLES, y, yi + i)).intoArray(y, yi + i);
+        }
+
+        for(; i < length; i++) {
+            y[yi + i] += factor * x[xi + i];
+        }
+    }
+
+    @Override
+    public void axpy(long factor, long[] x, int xi, long[] y, int yi, int length) {
+        int i = 0;
+
+        for(int bound = LONGS.loopBound(length); i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, x, xi + i).mul(factor).add(LongVector.fromArray(LONGS, y, yi + i)).intoArray(y, yi + i);
+        }
+
+        for(; i < length; i++) {
+            y[yi + i] += factor * x[xi + i];
+        }
+    }
+
+    @Override
+    public int getTileColumns() {
+        return 2 * LANES;
+    }
+
+    /**
+     * Four rows by two vectors of columns, which keeps eight accumulators, two loads of {@code b} and a broadcast
+     * of {@code a} in registers on both AVX2 and AVX-512.
+     */
+    @Override
+    public void multiply(int kc, double[] a, int ai, double[] b, int bi, double[] c, int ci, int n, int mr, int nr) {
+        DoubleVector c0l = DoubleVector.zero(DOUBLES), c0h = c0l, c1l = c0l, c1h = c0l;
+        DoubleVector c2l = c0l, c2h = c0l, c3l = c0l, c3h = c0l;
+        int width = 2 * LANES;
+
+        for(int p = 0; p < kc; p++, ai += 4, bi += width) {
+            DoubleVector bl = DoubleVector.fromArray(DOUBLES, b, bi);
+            DoubleVector bh = DoubleVector.fromArray(DOUBLES, b, bi + LANES);
+            DoubleVector a0 = DoubleVector.broadcast(DOUBLES, a[ai]);
+            c0l = bl.fma(a0, c0l);
+            c0h = bh.fma(a0, c0h);
+            DoubleVector a1 = DoubleVector.broadcast(DOUBLES, a[ai + 1]);
+            c1l = bl.fma(a1, c1l);
+            c1h = bh.fma(a1, c1h);
+            DoubleVector a2 = DoubleVector.broadcast(DOUBLES, a[ai + 2]);
+            c2l = bl.fma(a2, c2l);
+            c2h = bh.fma(a2, c2h);
+            DoubleVector a3 = DoubleVector.broadcast(DOUBLES, a[ai + 3]);
+            c3l = bl.fma(a3, c3l);
+            c3h = bh.fma(a3, c3h);
+        }
+
+        if(mr == 4 && nr == width) {
+            add(c0l, c0h, c, ci);
+            add(c1l, c1h, c, ci + n);
+            add(c2l, c2h, c, ci + 2 * n);
+            add(c3l, c3h, c, ci + 3 * n);
+            return;
+        }
+
+        double[] values = new double[4 * width];
+        c0l.intoArray(values, 0);
+        c0h.intoArray(values, LANES);
+        c1l.intoArray(values, width);
+        c1h.intoArray(values, width + LANES);
+        c2l.intoArray(values, 2 * width);
+        c2h.intoArray(values, 2 * width + LANES);
+        c3l.intoArray(values, 3 * width);
+        c3h.intoArray(values, 3 * width + LANES);
+
+        for(int i = 0; i < mr; i++) {
+            for(int j = 0; j < nr; j++) {
+                c[ci + i * n + j] += values[i * width + j];
+            }
+        }
+    }
+
+    private static void add(DoubleVector low, DoubleVector high, double[] c, int ci) {
+        DoubleVector.fromArray(DOUBLES, c, ci).add(low).intoArray(c, ci);
+        DoubleVector.fromArray(DOUBLES, c, ci + LANES).add(high).intoArray(c, ci + LANES);
+    }
+
+}